@@ -4,9 +4,13 @@ import nl.saxion.app.interaction.GameLoop;
 import nl.saxion.app.SaxionApp;
 import nl.saxion.app.interaction.KeyboardEvent;
 import nl.saxion.app.interaction.MouseEvent;
+import nl.saxion.cds.collection.DistanceMatrix;
+import nl.saxion.cds.collection.RoundTripSolver;
 import nl.saxion.cds.collection.SaxArrayList;
+import nl.saxion.cds.collection.SaxCompactGraph;
 import nl.saxion.cds.collection.SaxGraph;
 import nl.saxion.cds.collection.SaxList;
+import nl.saxion.cds.collection.ShortestPathForest;
 import java.awt.Color;
 import java.awt.*;
 import java.util.Scanner;
@@ -15,9 +19,17 @@ import java.util.Scanner;
  * RailwayManager with graphical rendering using SaxionApp GameLoop.
  */
 public class RailwayManager implements GameLoop {
+    private static final long SEARCH_BUDGET_MILLIS = 3000;
+    // the heuristic is meant to stop after its kicks, so the same seed gives the same tour; the budget is a safety net
+    private static final long HEURISTIC_BUDGET_MILLIS = 120_000;
+    private static final long HEURISTIC_SEED = 42;
     private final SaxGraph<Station> graph = new SaxGraph<>();
     private final CsvLoader loader = new CsvLoader();
     private final SaxList<Station> stationList = new SaxList<>();
+    // read-only snapshot of the graph used for routing once all data is loaded
+    private SaxCompactGraph<Station> network;
+    // shortest distances between all stations, computed on first use (see distances())
+    private DistanceMatrix<Station> distances;
     private SaxList<SaxGraph<Station>.DirectedEdge> highlightedPath = null;
     private Color highlightedColor = null;
 
@@ -30,6 +42,8 @@ public class RailwayManager implements GameLoop {
             System.out.println("2. Find shortest route");
             System.out.println("3. Find shortest round trip");
             System.out.println("4. Show MCST");
+            System.out.println("5. Find nearest intercity station");
+            System.out.println("6. Show distance matrix statistics");
             System.out.println("0. Exit");
             System.out.print("Choose option: ");
 
@@ -41,6 +55,8 @@ public class RailwayManager implements GameLoop {
                 case 2 -> findShortestRoute(scanner);
                 case 3 -> findRoundTrip(scanner);
                 case 4 -> showMCST();
+                case 5 -> findNearestIntercity(scanner);
+                case 6 -> System.out.println(distances());
                 case 0 -> System.exit(0);
                 default -> System.out.println("Invalid option");
             }
@@ -51,6 +67,7 @@ public class RailwayManager implements GameLoop {
     public void init() {
         loader.loadStations("stations.csv", stationList, graph);
         loader.loadTracks("tracks.csv", graph);
+        network = graph.freeze();
         SaxionApp.drawImage("resources/Nederland.png", 0, 0, 768, 1024);
         new Thread(this::menuLoop).start();
     }
@@ -92,8 +109,7 @@ public class RailwayManager implements GameLoop {
      */
     private void drawStations() {
         SaxionApp.setFill(Color.RED);
-        for (int i = 0; i < stationList.getSize(); i++) {
-            Station station = stationList.getElementAt(i);
+        for (Station station : stationList) {
             Coordinate c = station.coordinate();
             SaxionApp.drawCircle((int) c.getX(), (int) c.getY(), 6);
             drawStationLabel(station, false);
@@ -194,45 +210,7 @@ public class RailwayManager implements GameLoop {
 
 
     /**
-     * Reconstructs the shortest path from Dijkstra result graph by tracing backward from end to start.
-     * It uses the fact that each node in the Dijkstra result has exactly one incoming edge (from → to).
-     *
-     * @param dijkstraTree the result of shortestPathsDijkstra(start)
-     * @param start        the start station
-     * @param end          the end station
-     * @return list of directed edges forming the path, or null if no path exists
-     */
-    private SaxList<SaxGraph<Station>.DirectedEdge> buildPath(SaxGraph<Station> dijkstraTree, Station start, Station end) {
-        SaxList<SaxGraph<Station>.DirectedEdge> path = new SaxList<>();
-        Station current = end;
-
-        while (!current.equals(start)) {
-            SaxGraph<Station>.DirectedEdge found = null;
-
-            // finding the edge where current is the destination
-            for (Station node : dijkstraTree) {
-                for (SaxGraph<Station>.DirectedEdge edge : dijkstraTree.getEdges(node)) {
-                    if (edge.to().equals(current)) {
-                        found = edge;
-                        break;
-                    }
-                }
-                if (found != null) break;
-            }
-
-            if (found == null) {
-                return null;
-            }
-
-            path.addElementAt(found, 0);
-            current = found.from();
-        }
-
-        return path;
-    }
-
-    /**
-     * Finds and shows the shortest route between two stations using Dijkstra.
+     * Finds and shows the shortest route between two stations, read from the precomputed distance matrix.
      * The route is printed in the console and drawn in blue on the map
      * with station names shown above each stop.
      *
@@ -249,22 +227,20 @@ public class RailwayManager implements GameLoop {
         Station end = chooseStationFromSearch(endName, scanner);
         if (end == null) return;
 
-        SaxGraph<Station> dijkstraResult = graph.shortestPathsDijkstra(start);
-        SaxList<SaxGraph<Station>.DirectedEdge> path = buildPath(dijkstraResult, start, end);
+        SaxGraph<Station>.Path route = distances().path(start, end);
+        SaxList<SaxGraph<Station>.DirectedEdge> path = route.edges();
 
-        if (path == null || path.getSize() == 0) {
+        if (path.getSize() == 0) {
             System.out.println("No path found between " + start.name() + " and " + end.name());
             return;
         }
 
         // Print to console
-        double totalLength = 0;
         System.out.println("Shortest route:");
         for (SaxGraph<Station>.DirectedEdge edge : path) {
             System.out.println(edge.from().name() + " → " + edge.to().name() + " (" + edge.weight() + " km)");
-            totalLength += edge.weight();
         }
-        System.out.printf("Total distance: %.1f km%n", totalLength);
+        System.out.printf("Total distance: %.1f km%n", route.distance());
 
         // clearing and redrawing map
         SaxionApp.clear();
@@ -275,6 +251,57 @@ public class RailwayManager implements GameLoop {
         this.highlightedColor = Color.BLUE;
     }
 
+    /**
+     * Returns the shortest distances between all stations. They are computed by the menu thread the first time
+     * a route is asked for, so loading the data and opening the window do not wait for them.
+     *
+     * @return the distance matrix of the network
+     */
+    private DistanceMatrix<Station> distances() {
+        if (distances == null) {
+            System.out.println("Computing the distances between all stations...");
+            distances = network.distanceMatrix();
+        }
+        return distances;
+    }
+
+    /**
+     * Finds the intercity station that is closest by rail to a chosen station. One multi-source search from
+     * all intercity stations gives the answer for every station at once.
+     */
+    private void findNearestIntercity(Scanner scanner) {
+        System.out.print("Enter station name: ");
+        String name = scanner.nextLine();
+        Station station = chooseStationFromSearch(name, scanner);
+        if (station == null) return;
+
+        SaxList<Station> intercityStations = new SaxList<>();
+        for (Station candidate : graph) {
+            String type = candidate.type().toLowerCase();
+            if (type.contains("intercity") || type.equals("megastation")) intercityStations.addElement(candidate);
+        }
+        ShortestPathForest<Station> nearest = graph.shortestPathForest(intercityStations);
+
+        Station intercity = nearest.nearestSourceOf(station);
+        if (intercity == null) {
+            System.out.println("No intercity station can be reached from " + station.name());
+            return;
+        }
+        if (intercity.equals(station)) {
+            System.out.println(station.name() + " is an intercity station itself");
+            return;
+        }
+        SaxList<SaxGraph<Station>.DirectedEdge> path = nearest.pathTo(station);
+        System.out.printf("Nearest intercity station: %s (%.1f km)%n", intercity.name(), nearest.distanceTo(station));
+
+        SaxionApp.clear();
+        SaxionApp.drawImage("resources/Nederland.png", 0, 0, 768, 1024);
+        drawTracks();
+        drawStations();
+        this.highlightedPath = path;
+        this.highlightedColor = Color.ORANGE;
+    }
+
     /**
      * Draws the highlighted route on the map.
      * Ensures each station code is printed only once.
@@ -283,8 +310,7 @@ public class RailwayManager implements GameLoop {
         if (highlightedPath == null || highlightedPath.getSize() == 0) return;
 
         SaxionApp.setTextDrawingColor(highlightedColor);
-        for (int i = 0; i < highlightedPath.getSize(); i++) {
-            var edge = highlightedPath.getElementAt(i);
+        for (var edge : highlightedPath) {
             Coordinate from = edge.from().coordinate();
             Coordinate to = edge.to().coordinate();
 
@@ -295,8 +321,8 @@ public class RailwayManager implements GameLoop {
         SaxionApp.setTextDrawingColor(Color.YELLOW);
         SaxArrayList<String> drawnCodes = new SaxArrayList<>();
 
-        for (int i = 0; i < highlightedPath.getSize(); i++) {
-            Station station = highlightedPath.getElementAt(i).from();
+        for (var edge : highlightedPath) {
+            Station station = edge.from();
             if (!isAlreadyDrawn(drawnCodes, station.code())) {
                 drawnCodes.addElement(station.code());
                 Coordinate coord = station.coordinate();
@@ -305,7 +331,7 @@ public class RailwayManager implements GameLoop {
         }
 
         // Last station (to)
-        Station last = highlightedPath.getElementAt(highlightedPath.getSize() - 1).to();
+        Station last = highlightedPath.getLastElement().to();
         if (!isAlreadyDrawn(drawnCodes, last.code())) {
             Coordinate coord = last.coordinate();
             SaxionApp.drawText(last.code(), (int) coord.getX() + 5, (int) coord.getY() - 10, 14);
@@ -326,7 +352,8 @@ public class RailwayManager implements GameLoop {
 
     /**
      * Finds the shortest round trip through 3 or more user-selected stations.
-     * Uses Dijkstra for pairwise shortest paths and brute-force all permutations.
+     * Uses the precomputed distance matrix for the pairwise distances and the Held-Karp solver for the order;
+     * larger tours use branch and bound or a heuristic within a time budget and show their gap to a lower bound.
      * Shows the route and draws it in purple on the map.
      *
      * @param scanner The Scanner for reading user input.
@@ -359,52 +386,39 @@ public class RailwayManager implements GameLoop {
             }
         }
 
-        Station start = inputStations.getElementAt(0);
-        SaxList<Station> toPermute = new SaxList<>();
-        for (int i = 1; i < inputStations.getSize(); i++) {
-            toPermute.addElement(inputStations.getElementAt(i));
+        // pairwise distances between the selected stations, read from the distance matrix
+        DistanceMatrix<Station> matrix = distances();
+        double[][] costs = new double[count][count];
+        for (int i = 0; i < count; i++) {
+            int from = network.getId(inputStations.getElementAt(i));
+            for (int j = 0; j < count; j++) {
+                costs[i][j] = matrix.distance(from, network.getId(inputStations.getElementAt(j)));
+            }
         }
 
-        SaxList<SaxList<Station>> permutations = new SaxList<>();
-        generatePermutations(toPermute, new SaxList<>(), permutations);
+        // exact with Held-Karp, then branch and bound (best so far at the deadline); a seeded heuristic for large tours
+        RoundTripSolver.Tour tour;
+        if (count <= RoundTripSolver.HELD_KARP_LIMIT) {
+            tour = RoundTripSolver.heldKarp(costs);
+        } else if (count <= RoundTripSolver.BRANCH_AND_BOUND_LIMIT) {
+            tour = RoundTripSolver.branchAndBound(costs, SEARCH_BUDGET_MILLIS);
+            System.out.println("Branch and bound: " + tour.nodesExpanded() + " prefixes expanded, "
+                    + tour.nodesPruned() + " pruned");
+        } else {
+            tour = RoundTripSolver.heuristic(costs, HEURISTIC_BUDGET_MILLIS, HEURISTIC_SEED);
+            System.out.println("Heuristic: " + RoundTripSolver.DEFAULT_KICKS + " kicks with seed " + HEURISTIC_SEED
+                    + (tour.isTimedOut() ? ", stopped early by the time budget: another run may give another tour" : ""));
+        }
+        double bestDistance = tour.length();
 
-        double bestDistance = Double.MAX_VALUE;
         SaxList<SaxGraph<Station>.DirectedEdge> bestPath = null;
-
-        for (int i = 0; i < permutations.getSize(); i++) {
-            SaxList<Station> order = permutations.getElementAt(i);
-
-            SaxList<SaxGraph<Station>.DirectedEdge> totalPath = new SaxList<>();
-            double totalDistance = 0;
-            Station current = start;
-
-            // Go through each station in order
-            for (int j = 0; j < order.getSize(); j++) {
-                Station next = order.getElementAt(j);
-                SaxGraph<Station> dijkstra = graph.shortestPathsDijkstra(current);
-                SaxList<SaxGraph<Station>.DirectedEdge> segment = buildPath(dijkstra, current, next);
-                if (segment == null) {
-                    totalDistance = Double.MAX_VALUE;
-                    break;
-                }
-                for (SaxGraph<Station>.DirectedEdge e : segment) totalPath.addElement(e);
-                for (int s = 0; s < segment.getSize(); s++) totalDistance += segment.getElementAt(s).weight();
-                current = next;
-            }
-
-            // Return to start
-            if (totalDistance != Double.MAX_VALUE) {
-                SaxGraph<Station> dijkstra = graph.shortestPathsDijkstra(current);
-                SaxList<SaxGraph<Station>.DirectedEdge> returnSegment = buildPath(dijkstra, current, start);
-                if (returnSegment != null) {
-                    for (SaxGraph<Station>.DirectedEdge e : returnSegment) totalPath.addElement(e);
-                    for (int s = 0; s < returnSegment.getSize(); s++) totalDistance += returnSegment.getElementAt(s).weight();
-
-                    if (totalDistance < bestDistance) {
-                        bestDistance = totalDistance;
-                        bestPath = totalPath;
-                    }
-                }
+        if (tour.isFound()) {
+            bestPath = new SaxList<>();
+            int[] order = tour.order();
+            for (int j = 0; j < order.length; j++) {
+                Station current = inputStations.getElementAt(order[j]);
+                Station next = inputStations.getElementAt(order[(j + 1) % order.length]);
+                for (SaxGraph<Station>.DirectedEdge e : matrix.path(current, next).edges()) bestPath.addElement(e);
             }
         }
 
@@ -419,6 +433,10 @@ public class RailwayManager implements GameLoop {
             System.out.println(edge.from().name() + " → " + edge.to().name() + " (" + edge.weight() + " km)");
         }
         System.out.printf("Total round trip distance: %.1f km%n", bestDistance);
+        if (tour.gap() > 0) {
+            System.out.printf("At most %.1f%% longer than the shortest possible round trip (lower bound %.1f km)%n",
+                    tour.gap() * 100, tour.lowerBound());
+        }
 
         // storing path and color for loop() drawing
         this.highlightedPath = bestPath;
@@ -426,35 +444,12 @@ public class RailwayManager implements GameLoop {
     }
 
 
-    /**
-     * Recursively generates all permutations of the station list.
-     */
-    private void generatePermutations(SaxList<Station> input, SaxList<Station> current, SaxList<SaxList<Station>> result) {
-        if (input.getSize() == 0) {
-            SaxList<Station> copy = new SaxList<>();
-            for (int i = 0; i < current.getSize(); i++) copy.addElement(current.getElementAt(i));
-            result.addElement(copy);
-            return;
-        }
-
-        for (int i = 0; i < input.getSize(); i++) {
-            Station selected = input.getElementAt(i);
-            input.removeElementAt(i);
-            current.addElement(selected);
-
-            generatePermutations(input, current, result);
-
-            current.removeElementAt(current.getSize() - 1);
-            input.addElementAt(selected, i);
-        }
-    }
-
     /**
      * Visualizes the Minimum Cost Spanning Tree (MCST) of the current graph
      * using SaxionApp on a map of the Netherlands and prints the total length.
      */
     private void showMCST() {
-        SaxGraph<Station> mcst = graph.minimumCostSpanningTree();
+        SaxGraph<Station> mcst = network.minimumCostSpanningTree();
         SaxionApp.clear();
 
         SaxionApp.drawImage("resources/Nederland.png", 0, 0, 768, 1024);
@@ -1,10 +1,22 @@
 package nl.saxion.cds.application;
 
+import nl.saxion.cds.collection.Landmarks;
 import nl.saxion.cds.collection.SaxGraph;
 
 public record Station(String code, String name, String type, Coordinate coordinate) {
     public static final SaxGraph.Estimator<Station> HAVERSINE_ESTIMATOR = (o1, o2) -> o1.coordinate().haversineDistance(o2.coordinate());
 
+    /**
+     * Estimator that takes the larger of the landmark bound and the straight line distance. Tracks are far from
+     * straight, so the landmark bound is usually much closer to the real distance.
+     *
+     * @param landmarks landmark tables of the railway network
+     * @return the combined estimator
+     */
+    public static SaxGraph.Estimator<Station> landmarkEstimator(Landmarks<Station> landmarks) {
+        return landmarks.estimator(HAVERSINE_ESTIMATOR);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof Station) {
@@ -0,0 +1,462 @@
+package nl.saxion.cds.collection;
+
+/**
+ * Contraction hierarchy of a {@link SaxCompactGraph} for fast point to point shortest path queries.
+ * <p>
+ * During preprocessing the nodes are contracted one by one: a node is removed from the graph, and for every
+ * pair of neighbours u -> v -> x whose shortest connection ran through v a shortcut edge u -> x is added. A
+ * witness search (a small Dijkstra from u that avoids v) finds out whether a path without v is just as short,
+ * in which case no shortcut is needed. The node to contract next is the one with the lowest edge difference
+ * (shortcuts added minus edges removed) plus the number of neighbours already contracted, which spreads the
+ * contraction evenly over the graph. The order of contraction is the rank of a node.
+ * </p>
+ * <p>
+ * A query runs Dijkstra from the start over edges to higher ranked nodes only, and from the end backwards,
+ * again only upwards. Both searches meet at the highest ranked node of a shortest path, and stop as soon as
+ * their smallest queued distance is not below the best meeting distance. On rail networks they visit a small
+ * part of the graph, so a query takes a fraction of the time of Dijkstra. Every shortcut remembers the
+ * two edges it replaces, so the path is unpacked into the original edges of the graph.
+ * </p>
+ * Queries only read the hierarchy and can run on several threads at once. Instances are created by
+ * {@link SaxCompactGraph#contractionHierarchy()}.
+ *
+ * @param <V> type of the nodes in the graph
+ */
+public class ContractionHierarchy<V> {
+    // a witness search gives up after settling this many nodes and a shortcut is added; that is never wrong,
+    // it only costs an edge that might not have been needed
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    // while only counting the shortcuts to order the nodes a smaller search is good enough
+    private static final int ESTIMATE_SETTLE_LIMIT = 50;
+    private final SaxCompactGraph<V> graph;
+    private final int[] rank;
+    // all edges of the hierarchy by id: the original edges (the cheapest of parallel ones) and the shortcuts;
+    // a shortcut replaces the edges firstHalf[e] and secondHalf[e], an original edge has -1 there
+    private int edgeCount;
+    private int[] edgeFrom;
+    private int[] edgeTo;
+    private double[] edgeWeight;
+    private int[] firstHalf;
+    private int[] secondHalf;
+    // upward edges by lower ranked node: node i has the edges upEdges[upOffsets[i]] up to upOffsets[i + 1]
+    // going to higher ranked nodes; downEdges holds the edges coming from higher ranked nodes the same way
+    private final int[] upOffsets;
+    private final int[] upEdges;
+    private final int[] downOffsets;
+    private final int[] downEdges;
+    private final int shortcutCount;
+    private final long buildTimeMillis;
+
+    // only used while contracting: the edge ids between nodes that are not contracted yet
+    private int[][] outEdges;
+    private int[] outCount;
+    private int[][] inEdges;
+    private int[] inCount;
+    private double[] witnessDist;
+    private SaxIndexedHeap witnessQueue;
+    private SaxIntArrayList witnessTouched;
+    // witnessTarget[x] == witnessRound marks the nodes a witness search still has to settle
+    private int[] witnessTarget;
+    private int witnessRound;
+
+    /**
+     * Contracts all nodes of the graph (see {@link SaxCompactGraph#contractionHierarchy()}).
+     *
+     * @param graph graph to build the hierarchy for
+     */
+    ContractionHierarchy(SaxCompactGraph<V> graph) {
+        long start = System.nanoTime();
+        int size = graph.getSize();
+        this.graph = graph;
+        this.rank = new int[size];
+
+        copyEdges();
+        contractAll();
+
+        // an edge is followed upwards from its lower ranked end only
+        upOffsets = new int[size + 1];
+        downOffsets = new int[size + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            if (rank[edgeTo[e]] > rank[edgeFrom[e]]) upOffsets[edgeFrom[e] + 1]++;
+            else downOffsets[edgeTo[e] + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            upOffsets[i + 1] += upOffsets[i];
+            downOffsets[i + 1] += downOffsets[i];
+        }
+        upEdges = new int[upOffsets[size]];
+        downEdges = new int[downOffsets[size]];
+        int[] nextUp = new int[size];
+        int[] nextDown = new int[size];
+        System.arraycopy(upOffsets, 0, nextUp, 0, size);
+        System.arraycopy(downOffsets, 0, nextDown, 0, size);
+        int shortcuts = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            if (rank[edgeTo[e]] > rank[edgeFrom[e]]) upEdges[nextUp[edgeFrom[e]]++] = e;
+            else downEdges[nextDown[edgeTo[e]]++] = e;
+            if (firstHalf[e] >= 0) shortcuts++;
+        }
+        shortcutCount = shortcuts;
+
+        outEdges = null;
+        outCount = null;
+        inEdges = null;
+        inCount = null;
+        witnessDist = null;
+        witnessQueue = null;
+        witnessTouched = null;
+        witnessTarget = null;
+        buildTimeMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Returns the number of shortcut edges added by the contraction.
+     *
+     * @return number of shortcuts
+     */
+    public int getShortcutCount() {
+        return shortcutCount;
+    }
+
+    /**
+     * Returns the number of edges in the hierarchy: the original edges without parallel edges and loops,
+     * plus the shortcuts.
+     *
+     * @return number of edges
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns how long it took to contract the graph.
+     *
+     * @return build time in milliseconds
+     */
+    public long getBuildTimeMillis() {
+        return buildTimeMillis;
+    }
+
+    /**
+     * Finds the shortest path between two nodes with a bidirectional upward search. The path and its distance
+     * are the same as those of {@link SaxCompactGraph#shortestPath(Object, Object)}, up to the choice between
+     * paths of equal length.
+     *
+     * @param startNode the node to start from
+     * @param endNode   the node to find the path to
+     * @return the path with its total distance; a path without edges and an infinite distance if there is no path
+     * @throws IllegalArgumentException if startNode or endNode is null or not in the graph
+     */
+    public SaxGraph<V>.Path shortestPath(V startNode, V endNode) throws IllegalArgumentException {
+        int start = graph.requireId(startNode);
+        int end = graph.requireId(endNode);
+        if (start == end) return graph.newPath(new SaxList<>(), 0.0);
+
+        // both searches only see a small part of the graph, so their state is kept in hash maps
+        SaxIntDoubleMap forwardDist = new SaxIntDoubleMap();
+        SaxIntDoubleMap backwardDist = new SaxIntDoubleMap();
+        SaxIntIntMap forwardEdge = new SaxIntIntMap();
+        SaxIntIntMap backwardEdge = new SaxIntIntMap();
+        SaxDoubleHeap forwardQueue = new SaxDoubleHeap();
+        SaxDoubleHeap backwardQueue = new SaxDoubleHeap();
+        forwardDist.put(start, 0.0);
+        forwardQueue.push(start, 0.0);
+        backwardDist.put(end, 0.0);
+        backwardQueue.push(end, 0.0);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        while (true) {
+            double forwardTop = forwardQueue.getSize() > 0 ? forwardQueue.peekPriority() : Double.POSITIVE_INFINITY;
+            double backwardTop = backwardQueue.getSize() > 0 ? backwardQueue.peekPriority() : Double.POSITIVE_INFINITY;
+            // a search is done once nothing in its queue can improve the best path any more
+            if (Math.min(forwardTop, backwardTop) >= best) break;
+
+            boolean forward = forwardTop <= backwardTop;
+            SaxDoubleHeap queue = forward ? forwardQueue : backwardQueue;
+            SaxIntDoubleMap dist = forward ? forwardDist : backwardDist;
+            SaxIntIntMap via = forward ? forwardEdge : backwardEdge;
+            int current = queue.pop();
+            double currentDist = forward ? forwardTop : backwardTop;
+            if (currentDist > dist.get(current)) continue; // stale entry
+
+            double total = currentDist + (forward ? backwardDist : forwardDist).getOrDefault(current, Double.POSITIVE_INFINITY);
+            if (total < best) {
+                best = total;
+                meeting = current;
+            }
+
+            int[] offsets = forward ? upOffsets : downOffsets;
+            int[] edges = forward ? upEdges : downEdges;
+            for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+                int e = edges[i];
+                int to = forward ? edgeTo[e] : edgeFrom[e];
+                double newDist = currentDist + edgeWeight[e];
+                if (newDist < dist.getOrDefault(to, Double.POSITIVE_INFINITY)) {
+                    dist.putOrReplace(to, newDist);
+                    via.putOrReplace(to, e);
+                    queue.push(to, newDist);
+                }
+            }
+        }
+        if (meeting < 0) return graph.newPath(new SaxList<>(), Double.POSITIVE_INFINITY);
+
+        // the forward half is found from the meeting node back to the start, so it is unpacked in reverse
+        SaxList<SaxGraph<V>.DirectedEdge> path = new SaxList<>();
+        SaxIntArrayList stack = new SaxIntArrayList();
+        SaxIntArrayList forwardHalf = new SaxIntArrayList();
+        for (int node = meeting; node != start; node = edgeFrom[forwardEdge.get(node)]) {
+            forwardHalf.addElement(forwardEdge.get(node));
+        }
+        for (int i = forwardHalf.getSize() - 1; i >= 0; i--) {
+            unpack(forwardHalf.getElementAt(i), path, stack);
+        }
+        for (int node = meeting; node != end; node = edgeTo[backwardEdge.get(node)]) {
+            unpack(backwardEdge.get(node), path, stack);
+        }
+        return graph.newPath(path, best);
+    }
+
+    /**
+     * Returns a one line summary of the size of the hierarchy and its build time.
+     *
+     * @return the statistics
+     */
+    @Override
+    public String toString() {
+        return String.format("Contraction hierarchy: %d nodes, %d edges of which %d shortcuts, built in %d ms",
+                graph.getSize(), edgeCount, shortcutCount, buildTimeMillis);
+    }
+
+    // Append the original edges a hierarchy edge stands for to the path, without recursion
+    private void unpack(int edge, SaxList<SaxGraph<V>.DirectedEdge> path, SaxIntArrayList stack) {
+        stack.addElement(edge);
+        while (stack.getSize() > 0) {
+            int e = stack.removeLastElement();
+            if (firstHalf[e] < 0) {
+                path.addElement(graph.newEdge(edgeFrom[e], edgeTo[e], edgeWeight[e]));
+            } else {
+                stack.addElement(secondHalf[e]);
+                stack.addElement(firstHalf[e]);
+            }
+        }
+    }
+
+    // Copy the edges of the graph into the growable edge arrays, keeping only the cheapest of parallel edges
+    private void copyEdges() {
+        int size = graph.getSize();
+        int capacity = Math.max(16, graph.getEdgeCount() * 2);
+        edgeFrom = new int[capacity];
+        edgeTo = new int[capacity];
+        edgeWeight = new double[capacity];
+        firstHalf = new int[capacity];
+        secondHalf = new int[capacity];
+        outEdges = new int[size][];
+        outCount = new int[size];
+        inEdges = new int[size][];
+        inCount = new int[size];
+        for (int i = 0; i < size; i++) {
+            outEdges[i] = new int[4];
+            inEdges[i] = new int[4];
+        }
+
+        for (int from = 0; from < size; from++) {
+            for (int e = graph.firstEdge(from); e < graph.firstEdge(from + 1); e++) {
+                int to = graph.target(e);
+                if (to != from) addOrLower(from, to, graph.weight(e), -1, -1); // a loop is never on a shortest path
+            }
+        }
+    }
+
+    // Contract the nodes in order of priority; a priority that got worse since it was queued is checked again
+    private void contractAll() {
+        int size = graph.getSize();
+        witnessDist = new double[size];
+        for (int i = 0; i < size; i++) {
+            witnessDist[i] = Double.POSITIVE_INFINITY;
+        }
+        witnessQueue = new SaxIndexedHeap(size);
+        witnessTouched = new SaxIntArrayList();
+        witnessTarget = new int[size];
+        int[] contractedNeighbours = new int[size];
+
+        SaxIndexedHeap order = new SaxIndexedHeap(size);
+        for (int v = 0; v < size; v++) {
+            order.push(v, priority(v, contractedNeighbours));
+        }
+        int nextRank = 0;
+        while (order.getSize() > 0) {
+            int v = order.pop();
+            double priority = priority(v, contractedNeighbours);
+            if (order.getSize() > 0 && priority > order.peekPriority()) {
+                order.push(v, priority);
+                continue;
+            }
+
+            contract(v, true);
+            rank[v] = nextRank++;
+            // take v out of the remaining graph and update the priorities of its neighbours
+            for (int i = 0; i < outCount[v]; i++) {
+                int to = edgeTo[outEdges[v][i]];
+                removeEdge(inEdges, inCount, to, outEdges[v][i]);
+                contractedNeighbours[to]++;
+            }
+            for (int i = 0; i < inCount[v]; i++) {
+                int from = edgeFrom[inEdges[v][i]];
+                removeEdge(outEdges, outCount, from, inEdges[v][i]);
+                contractedNeighbours[from]++;
+            }
+            for (int i = 0; i < outCount[v]; i++) {
+                int to = edgeTo[outEdges[v][i]];
+                order.update(to, priority(to, contractedNeighbours));
+            }
+            for (int i = 0; i < inCount[v]; i++) {
+                int from = edgeFrom[inEdges[v][i]];
+                order.update(from, priority(from, contractedNeighbours));
+            }
+            outCount[v] = 0;
+            inCount[v] = 0;
+        }
+    }
+
+    // Edge difference of contracting v now, plus the number of its neighbours that are already contracted
+    private double priority(int v, int[] contractedNeighbours) {
+        return contract(v, false) - inCount[v] - outCount[v] + contractedNeighbours[v];
+    }
+
+    /**
+     * Finds the shortcuts needed when v is contracted: for every incoming edge u -> v a witness search from u
+     * checks which of the outgoing edges v -> x are on the only shortest path from u to x.
+     *
+     * @param v     node to contract
+     * @param apply true to add the shortcuts, false to only count them
+     * @return number of shortcuts needed
+     */
+    private int contract(int v, boolean apply) {
+        double maxOut = 0.0;
+        for (int i = 0; i < outCount[v]; i++) {
+            maxOut = Math.max(maxOut, edgeWeight[outEdges[v][i]]);
+        }
+
+        int shortcuts = 0;
+        for (int i = 0; i < inCount[v]; i++) {
+            int in = inEdges[v][i];
+            int u = edgeFrom[in];
+            witnessRound++;
+            int targets = 0;
+            for (int j = 0; j < outCount[v]; j++) {
+                int x = edgeTo[outEdges[v][j]];
+                if (x != u && witnessTarget[x] != witnessRound) {
+                    witnessTarget[x] = witnessRound;
+                    targets++;
+                }
+            }
+            witnessSearch(u, v, edgeWeight[in] + maxOut, targets, apply ? WITNESS_SETTLE_LIMIT : ESTIMATE_SETTLE_LIMIT);
+            for (int j = 0; j < outCount[v]; j++) {
+                int out = outEdges[v][j];
+                int x = edgeTo[out];
+                double through = edgeWeight[in] + edgeWeight[out];
+                if (x == u || witnessDist[x] <= through) continue;
+                shortcuts++;
+                if (apply) addOrLower(u, x, through, in, out);
+            }
+        }
+        return shortcuts;
+    }
+
+    // Dijkstra from u in the remaining graph without v, until the marked targets are settled, the distance
+    // limit is passed or the settle limit is reached
+    private void witnessSearch(int u, int v, double limit, int targets, int settleLimit) {
+        for (int i = 0; i < witnessTouched.getSize(); i++) {
+            witnessDist[witnessTouched.getElementAt(i)] = Double.POSITIVE_INFINITY;
+        }
+        witnessTouched.clear();
+        witnessQueue.clear();
+
+        witnessDist[u] = 0.0;
+        witnessTouched.addElement(u);
+        witnessQueue.push(u, 0.0);
+        int settled = 0;
+        while (targets > 0 && witnessQueue.getSize() > 0 && witnessQueue.peekPriority() <= limit
+                && settled++ < settleLimit) {
+            int current = witnessQueue.pop();
+            if (witnessTarget[current] == witnessRound) targets--;
+            for (int i = 0; i < outCount[current]; i++) {
+                int e = outEdges[current][i];
+                int to = edgeTo[e];
+                if (to == v) continue;
+                double newDist = witnessDist[current] + edgeWeight[e];
+                if (newDist < witnessDist[to]) {
+                    if (witnessDist[to] == Double.POSITIVE_INFINITY) witnessTouched.addElement(to);
+                    witnessDist[to] = newDist;
+                    witnessQueue.update(to, newDist);
+                }
+            }
+        }
+    }
+
+    // Add the edge from -> to, or lower the weight of the existing one if the new edge is cheaper
+    private void addOrLower(int from, int to, double weight, int first, int second) {
+        for (int i = 0; i < outCount[from]; i++) {
+            int e = outEdges[from][i];
+            if (edgeTo[e] == to) {
+                if (weight < edgeWeight[e]) {
+                    edgeWeight[e] = weight;
+                    firstHalf[e] = first;
+                    secondHalf[e] = second;
+                }
+                return;
+            }
+        }
+
+        if (edgeCount == edgeFrom.length) growEdges();
+        int e = edgeCount++;
+        edgeFrom[e] = from;
+        edgeTo[e] = to;
+        edgeWeight[e] = weight;
+        firstHalf[e] = first;
+        secondHalf[e] = second;
+        addEdge(outEdges, outCount, from, e);
+        addEdge(inEdges, inCount, to, e);
+    }
+
+    // Double the capacity of the edge arrays
+    private void growEdges() {
+        int capacity = edgeFrom.length * 2;
+        int[] from = new int[capacity];
+        int[] to = new int[capacity];
+        double[] weight = new double[capacity];
+        int[] first = new int[capacity];
+        int[] second = new int[capacity];
+        System.arraycopy(edgeFrom, 0, from, 0, edgeCount);
+        System.arraycopy(edgeTo, 0, to, 0, edgeCount);
+        System.arraycopy(edgeWeight, 0, weight, 0, edgeCount);
+        System.arraycopy(firstHalf, 0, first, 0, edgeCount);
+        System.arraycopy(secondHalf, 0, second, 0, edgeCount);
+        edgeFrom = from;
+        edgeTo = to;
+        edgeWeight = weight;
+        firstHalf = first;
+        secondHalf = second;
+    }
+
+    // Append an edge id to the list of a node, doubling the list when it is full
+    private static void addEdge(int[][] lists, int[] counts, int node, int e) {
+        if (counts[node] == lists[node].length) {
+            int[] grown = new int[lists[node].length * 2];
+            System.arraycopy(lists[node], 0, grown, 0, counts[node]);
+            lists[node] = grown;
+        }
+        lists[node][counts[node]++] = e;
+    }
+
+    // Remove an edge id from the list of a node by moving the last one into its place
+    private static void removeEdge(int[][] lists, int[] counts, int node, int e) {
+        for (int i = 0; i < counts[node]; i++) {
+            if (lists[node][i] == e) {
+                lists[node][i] = lists[node][--counts[node]];
+                return;
+            }
+        }
+    }
+}
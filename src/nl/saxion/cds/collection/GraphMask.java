@@ -0,0 +1,246 @@
+package nl.saxion.cds.collection;
+
+/**
+ * Nodes and edges of a {@link SaxGraph} that are temporarily closed, such as a station under construction or a
+ * track that is out of service today.
+ * <p>
+ * The mask is two bit sets: one bit per node id and one bit per edge id. Every edge gets an id when it is added
+ * to the graph, so closing and reopening only flips a bit; the adjacency arrays of the graph are never copied or
+ * rebuilt. The searches of a view made by {@link SaxGraph#withMask(GraphMask)} test the bits of every edge they
+ * follow. The methods that take an edge id ({@link SaxGraph.DirectedEdge#id()}) are O(1), and so are those that
+ * take a node value, which is found by a hash lookup. Those that take the two end nodes of an edge scan the edges
+ * of the start node, so they cost O(degree of that node); none of them allocate.
+ * </p>
+ * A mask is not thread safe: change it while no search of a view with this mask is running. To prepare new
+ * closures while searches go on, change a {@link #copy()} and make a new view with it. Instances are created by
+ * {@link SaxGraph#createMask()}.
+ *
+ * @param <V> type of the nodes in the graph
+ */
+public class GraphMask<V> {
+    private final SaxGraph<V> graph;
+    private final SaxBitSet disabledNodes;
+    private final SaxBitSet disabledEdges;
+
+    /**
+     * Creates a mask with all nodes and edges enabled (see {@link SaxGraph#createMask()}).
+     *
+     * @param graph graph the mask is for, not a view
+     */
+    GraphMask(SaxGraph<V> graph) {
+        this.graph = graph;
+        this.disabledNodes = new SaxBitSet(graph.getSize());
+        this.disabledEdges = new SaxBitSet(graph.getEdgeIdLimit());
+    }
+
+    /**
+     * Returns the graph this mask belongs to.
+     *
+     * @return the graph
+     */
+    SaxGraph<V> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Closes a node: views with this mask do not enter or leave it.
+     *
+     * @param node the node to close
+     * @throws IllegalArgumentException if the node is null or not in the graph
+     */
+    public void disableNode(V node) throws IllegalArgumentException {
+        disabledNodes.set(requireNode(node));
+    }
+
+    /**
+     * Opens a node that was closed by {@link #disableNode(Object)}.
+     *
+     * @param node the node to open
+     * @throws IllegalArgumentException if the node is null or not in the graph
+     */
+    public void enableNode(V node) throws IllegalArgumentException {
+        disabledNodes.clear(requireNode(node));
+    }
+
+    /**
+     * Checks whether a node is closed.
+     *
+     * @param node the node to check
+     * @return true if the node is disabled, false otherwise (also for nodes that are not in the graph)
+     */
+    public boolean isNodeDisabled(V node) {
+        return disabledNodes.get(graph.idOf(node));
+    }
+
+    /**
+     * Closes one edge in O(1): views with this mask do not follow it.
+     *
+     * @param edgeId id of the edge, see {@link SaxGraph.DirectedEdge#id()}
+     * @throws IllegalArgumentException if the graph has no edge with this id
+     */
+    public void disableEdge(int edgeId) throws IllegalArgumentException {
+        disabledEdges.set(requireEdge(edgeId));
+    }
+
+    /**
+     * Opens one edge in O(1) that was closed before.
+     *
+     * @param edgeId id of the edge, see {@link SaxGraph.DirectedEdge#id()}
+     * @throws IllegalArgumentException if the graph has no edge with this id
+     */
+    public void enableEdge(int edgeId) throws IllegalArgumentException {
+        disabledEdges.clear(requireEdge(edgeId));
+    }
+
+    /**
+     * Checks whether one edge is closed, in O(1). A closed node does not close its edges here, although views
+     * with this mask do not use them either.
+     *
+     * @param edgeId id of the edge, see {@link SaxGraph.DirectedEdge#id()}
+     * @return true if the edge is disabled, false otherwise (also for ids the graph does not have)
+     */
+    public boolean isEdgeDisabled(int edgeId) {
+        return disabledEdges.get(edgeId);
+    }
+
+    /**
+     * Closes the edges from one node to another. Only that direction is closed; close the edge back as well
+     * for a track that is closed both ways. This scans the edges of from; use {@link #disableEdge(int)} to close
+     * a single known edge in O(1).
+     *
+     * @param from the node the edges start at
+     * @param to   the node the edges go to
+     * @return the number of edges closed, more than one if the edge was added twice
+     * @throws IllegalArgumentException if a node is null or there is no edge from from to to
+     */
+    public int disableEdge(V from, V to) throws IllegalArgumentException {
+        return setEdges(from, to, true);
+    }
+
+    /**
+     * Opens the edges from one node to another that were closed before. This scans the edges of from; use
+     * {@link #enableEdge(int)} to open a single known edge in O(1).
+     *
+     * @param from the node the edges start at
+     * @param to   the node the edges go to
+     * @return the number of edges opened
+     * @throws IllegalArgumentException if a node is null or there is no edge from from to to
+     */
+    public int enableEdge(V from, V to) throws IllegalArgumentException {
+        return setEdges(from, to, false);
+    }
+
+    /**
+     * Checks whether the edges from one node to another are closed. This scans the edges of from.
+     *
+     * @param from the node the edges start at
+     * @param to   the node the edges go to
+     * @return true if there is at least one such edge and all of them are disabled
+     */
+    public boolean isEdgeDisabled(V from, V to) {
+        int fromId = graph.idOf(from);
+        int toId = graph.idOf(to);
+        if (fromId < 0 || toId < 0) return false;
+        boolean found = false;
+        for (int i = 0; i < graph.degreeOf(fromId); i++) {
+            if (graph.targetOf(fromId, i) != toId) continue;
+            if (!disabledEdges.get(graph.edgeIdOf(fromId, i))) return false;
+            found = true;
+        }
+        return found;
+    }
+
+    /**
+     * Returns the number of closed nodes.
+     *
+     * @return number of disabled nodes
+     */
+    public int getDisabledNodeCount() {
+        return disabledNodes.cardinality();
+    }
+
+    /**
+     * Returns the number of closed edges.
+     *
+     * @return number of disabled edges
+     */
+    public int getDisabledEdgeCount() {
+        return disabledEdges.cardinality();
+    }
+
+    /**
+     * Opens all nodes and edges.
+     */
+    public void clear() {
+        disabledNodes.clear();
+        disabledEdges.clear();
+    }
+
+    /**
+     * Returns an independent copy of this mask for the same graph.
+     *
+     * @return the copy
+     */
+    public GraphMask<V> copy() {
+        GraphMask<V> copy = new GraphMask<>(graph);
+        for (int id = disabledNodes.nextSetBit(0); id >= 0; id = disabledNodes.nextSetBit(id + 1)) {
+            copy.disabledNodes.set(id);
+        }
+        for (int id = disabledEdges.nextSetBit(0); id >= 0; id = disabledEdges.nextSetBit(id + 1)) {
+            copy.disabledEdges.set(id);
+        }
+        return copy;
+    }
+
+    /**
+     * Checks whether a search has to skip an edge: the edge or one of its nodes is closed.
+     *
+     * @param from   id of the node the edge starts at
+     * @param edgeId id of the edge
+     * @param to     id of the node the edge goes to
+     * @return true if the edge may not be followed
+     */
+    boolean isDisabled(int from, int edgeId, int to) {
+        return disabledEdges.get(edgeId) || disabledNodes.get(to) || disabledNodes.get(from);
+    }
+
+    /**
+     * Returns a one line summary of the number of closed nodes and edges.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        return String.format("GraphMask: %d node(s) and %d edge(s) disabled", getDisabledNodeCount(), getDisabledEdgeCount());
+    }
+
+    // Look up the id of a node that must be in the graph
+    private int requireNode(V node) throws IllegalArgumentException {
+        if (node == null) throw new IllegalArgumentException("Node cannot be null");
+        int id = graph.idOf(node);
+        if (id < 0) throw new IllegalArgumentException("Node " + node + " is not in the graph");
+        return id;
+    }
+
+    // Check that the graph has an edge with the given id
+    private int requireEdge(int edgeId) throws IllegalArgumentException {
+        if (edgeId < 0 || edgeId >= graph.getEdgeIdLimit()) throw new IllegalArgumentException("There is no edge with id " + edgeId);
+        return edgeId;
+    }
+
+    // Set or clear the bits of all edges between two nodes, of which there must be at least one
+    private int setEdges(V from, V to, boolean disable) throws IllegalArgumentException {
+        if (from == null || to == null) throw new IllegalArgumentException("Nodes cannot be null");
+        int fromId = graph.idOf(from);
+        int toId = graph.idOf(to);
+        int count = 0;
+        for (int i = 0; fromId >= 0 && toId >= 0 && i < graph.degreeOf(fromId); i++) {
+            if (graph.targetOf(fromId, i) != toId) continue;
+            if (disable) disabledEdges.set(graph.edgeIdOf(fromId, i));
+            else disabledEdges.clear(graph.edgeIdOf(fromId, i));
+            count++;
+        }
+        if (count == 0) throw new IllegalArgumentException("There is no edge from " + from + " to " + to);
+        return count;
+    }
+}
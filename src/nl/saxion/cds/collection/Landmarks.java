@@ -0,0 +1,281 @@
+package nl.saxion.cds.collection;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Landmark distances of a {@link SaxCompactGraph}, giving lower bounds on path lengths for A* (the ALT method:
+ * A*, landmarks and the triangle inequality).
+ * <p>
+ * For every landmark L the distances d(L, v) from L and d(v, L) to L are stored for all nodes v. By the
+ * triangle inequality both d(L, t) - d(L, v) and d(v, L) - d(t, L) are at most d(v, t), so the largest of these
+ * differences over all landmarks is an admissible estimate. Landmarks far out on the edge of the graph give the
+ * best bounds, so they are picked by farthest point selection: every next landmark is the node whose distance
+ * from the nearest landmark chosen so far is largest (a node that cannot be reached from any of them first).
+ * </p>
+ * The selection needs the distances from the previous landmarks and runs one search after the other; the
+ * searches to the landmarks are then divided over a number of threads. The tables take 2 * k * n doubles and
+ * can be saved to a file, so they only have to be computed once. Instances are created by
+ * {@link SaxCompactGraph#landmarks(int)} or {@link #load(SaxCompactGraph, File)}.
+ *
+ * @param <V> type of the nodes in the graph
+ */
+public class Landmarks<V> {
+    private static final int FILE_MAGIC = 0x414C5401; // "ALT" and a version number
+    private final SaxCompactGraph<V> graph;
+    private final int[] landmarks;
+    // fromLandmark[l][v] = d(landmark l, v) and toLandmark[l][v] = d(v, landmark l), infinity if there is no path
+    private final double[][] fromLandmark;
+    private final double[][] toLandmark;
+    private final int threads;
+    private final long buildTimeMillis;
+
+    /**
+     * Selects the landmarks and computes the tables (see {@link SaxCompactGraph#landmarks(int, int)}).
+     *
+     * @param graph   graph to compute the landmarks for
+     * @param count   number of landmarks, at least 1
+     * @param threads number of threads to use, at least 1
+     */
+    Landmarks(SaxCompactGraph<V> graph, int count, int threads) {
+        long start = System.nanoTime();
+        int size = graph.getSize();
+        count = Math.min(count, size);
+        this.graph = graph;
+        this.landmarks = new int[count];
+        this.fromLandmark = new double[count][];
+        this.toLandmark = new double[count][];
+        this.threads = Math.max(1, Math.min(threads, count));
+
+        if (count > 0) selectLandmarks();
+
+        Thread[] workers = new Thread[this.threads];
+        for (int w = 0; w < workers.length; w++) {
+            int first = w;
+            workers[w] = new Thread(() -> fillBackward(first, workers.length));
+            workers[w].start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while computing landmarks", e);
+            }
+        }
+        buildTimeMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    // Tables read from a file
+    private Landmarks(SaxCompactGraph<V> graph, int[] landmarks, double[][] fromLandmark, double[][] toLandmark,
+                      long buildTimeMillis) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+        this.threads = 1;
+        this.buildTimeMillis = buildTimeMillis;
+    }
+
+    /**
+     * Returns the number of landmarks.
+     *
+     * @return number of landmarks
+     */
+    public int getCount() {
+        return landmarks.length;
+    }
+
+    /**
+     * Returns a landmark, in the order they were selected.
+     *
+     * @param index number of the landmark, from 0 up to the count
+     * @return the node that is the landmark
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public V getLandmark(int index) throws IndexOutOfBoundsException {
+        return graph.value(landmarks[index]);
+    }
+
+    /**
+     * Returns a lower bound on the length of the shortest path between two node ids.
+     *
+     * @param from id of the node to start from
+     * @param to   id of the node to go to
+     * @return the largest landmark bound, 0 if no landmark gives one, or infinity if the landmarks show that to
+     * cannot be reached from from
+     * @throws IndexOutOfBoundsException if an id is invalid
+     */
+    public double lowerBound(int from, int to) throws IndexOutOfBoundsException {
+        double best = 0.0;
+        for (int l = 0; l < landmarks.length; l++) {
+            // a difference of two infinities is NaN and fails both comparisons
+            double ahead = fromLandmark[l][to] - fromLandmark[l][from];
+            if (ahead > best) best = ahead;
+            double behind = toLandmark[l][from] - toLandmark[l][to];
+            if (behind > best) best = behind;
+        }
+        return best;
+    }
+
+    /**
+     * Returns an estimator for A* that gives the landmark lower bound between two nodes.
+     *
+     * @return the estimator; it returns 0 for nodes that are not in the graph
+     */
+    public SaxGraph.Estimator<V> estimator() {
+        return (current, target) -> {
+            int from = graph.getId(current);
+            int to = graph.getId(target);
+            return from < 0 || to < 0 ? 0.0 : lowerBound(from, to);
+        };
+    }
+
+    /**
+     * Returns an estimator for A* that gives the larger of the landmark lower bound and another estimate, such as
+     * the straight line distance. The result is admissible if the other estimator is.
+     *
+     * @param other estimator to combine with
+     * @return the combined estimator
+     * @throws IllegalArgumentException if other is null
+     */
+    public SaxGraph.Estimator<V> estimator(SaxGraph.Estimator<V> other) throws IllegalArgumentException {
+        if (other == null) throw new IllegalArgumentException("Estimator is null");
+        SaxGraph.Estimator<V> landmarkBound = estimator();
+        return (current, target) -> Math.max(landmarkBound.estimate(current, target), other.estimate(current, target));
+    }
+
+    /**
+     * Returns how long it took to compute (or load) the tables.
+     *
+     * @return build time in milliseconds
+     */
+    public long getBuildTimeMillis() {
+        return buildTimeMillis;
+    }
+
+    /**
+     * Returns the memory taken by the distance tables (8 bytes per distance, without array headers).
+     *
+     * @return size in bytes
+     */
+    public long getMemoryBytes() {
+        return 2L * landmarks.length * graph.getSize() * Double.BYTES;
+    }
+
+    /**
+     * Writes the landmarks and their tables to a file, together with the size of the graph to check it
+     * against when loading.
+     *
+     * @param file file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(graph.getSize());
+            out.writeInt(graph.getEdgeCount());
+            out.writeInt(landmarks.length);
+            for (int l = 0; l < landmarks.length; l++) {
+                out.writeInt(landmarks[l]);
+                for (double distance : fromLandmark[l]) out.writeDouble(distance);
+                for (double distance : toLandmark[l]) out.writeDouble(distance);
+            }
+        }
+    }
+
+    /**
+     * Reads landmark tables written by {@link #save(File)}.
+     *
+     * @param graph graph the tables were computed for
+     * @param file  file to read
+     * @param <V>   type of the nodes in the graph
+     * @return the landmark tables
+     * @throws IOException if the file cannot be read, is not a landmark file or belongs to a graph of another size
+     */
+    public static <V> Landmarks<V> load(SaxCompactGraph<V> graph, File file) throws IOException {
+        long start = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) throw new IOException("Not a landmark file: " + file);
+            int size = in.readInt();
+            int edges = in.readInt();
+            if (size != graph.getSize() || edges != graph.getEdgeCount())
+                throw new IOException("Landmark file " + file + " was made for another graph (" + size + " nodes, " + edges + " edges)");
+
+            int count = in.readInt();
+            if (count < 0 || count > size) throw new IOException("Invalid number of landmarks: " + count);
+            int[] landmarks = new int[count];
+            double[][] fromLandmark = new double[count][size];
+            double[][] toLandmark = new double[count][size];
+            for (int l = 0; l < count; l++) {
+                landmarks[l] = in.readInt();
+                if (landmarks[l] < 0 || landmarks[l] >= size) throw new IOException("Invalid landmark id: " + landmarks[l]);
+                for (int v = 0; v < size; v++) fromLandmark[l][v] = in.readDouble();
+                for (int v = 0; v < size; v++) toLandmark[l][v] = in.readDouble();
+            }
+            return new Landmarks<>(graph, landmarks, fromLandmark, toLandmark, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Returns a one line summary of the number of landmarks, build time and memory.
+     *
+     * @return the statistics
+     */
+    @Override
+    public String toString() {
+        return String.format("Landmarks: %d for %d nodes, built in %d ms on %d thread(s), %d KB",
+                landmarks.length, graph.getSize(), buildTimeMillis, threads, getMemoryBytes() / 1024);
+    }
+
+    /**
+     * Farthest point selection. The first landmark is the node farthest from node 0; every next one is the node
+     * whose distance from the nearest landmark so far is largest. Fills the forward tables on the way.
+     */
+    private void selectLandmarks() {
+        int size = graph.getSize();
+        SaxIndexedHeap queue = new SaxIndexedHeap(size);
+        double[] nearest = new double[size]; // distance from the nearest landmark chosen so far
+        for (int v = 0; v < size; v++) nearest[v] = Double.POSITIVE_INFINITY;
+
+        double[] fromFirst = new double[size];
+        graph.fillDistances(0, false, fromFirst, queue);
+        int candidate = farthest(fromFirst);
+
+        for (int l = 0; l < landmarks.length; l++) {
+            landmarks[l] = candidate;
+            fromLandmark[l] = new double[size];
+            graph.fillDistances(candidate, false, fromLandmark[l], queue);
+            for (int v = 0; v < size; v++) {
+                nearest[v] = Math.min(nearest[v], fromLandmark[l][v]);
+            }
+            nearest[candidate] = -1.0; // never pick the same node twice, even if others are at distance 0
+            candidate = farthest(nearest);
+        }
+    }
+
+    // The node with the largest distance (unreachable nodes first), the lowest id on a tie
+    private static int farthest(double[] distances) {
+        int best = 0;
+        for (int v = 1; v < distances.length; v++) {
+            if (distances[v] > distances[best]) best = v;
+        }
+        return best;
+    }
+
+    // Worker: compute the distances to the landmarks first, first + step, first + 2 * step, ...
+    private void fillBackward(int first, int step) {
+        int size = graph.getSize();
+        SaxIndexedHeap queue = new SaxIndexedHeap(size);
+        for (int l = first; l < landmarks.length; l += step) {
+            toLandmark[l] = new double[size];
+            graph.fillDistances(landmarks[l], true, toLandmark[l], queue);
+        }
+    }
+}
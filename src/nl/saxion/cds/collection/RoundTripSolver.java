@@ -0,0 +1,814 @@
+package nl.saxion.cds.collection;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Solvers for the shortest round trip (travelling salesman tour) through a set of places.
+ * <p>
+ * The solvers work on a square table of pairwise costs, for example distances taken from a
+ * {@link DistanceMatrix}: {@code costs[i][j]} is the cost of going from place i to place j, infinity if that is
+ * impossible. Every tour starts and ends at place 0.
+ * </p>
+ * Example:
+ * <pre>
+ *     double[][] costs = ...;
+ *     RoundTripSolver.Tour tour = RoundTripSolver.heldKarp(costs);
+ *     int[] order = tour.order(); // 0, then the other places in visiting order
+ * </pre>
+ */
+public class RoundTripSolver {
+    /**
+     * Largest number of places {@link #heldKarp(double[][])} accepts; 20 places need about 90 MB of tables.
+     */
+    public static final int HELD_KARP_LIMIT = 20;
+    /**
+     * Default number of perturbations {@link #heuristic(double[][], long, long)} tries before it stops.
+     */
+    public static final int DEFAULT_KICKS = 1000;
+    /**
+     * Largest number of places {@link #branchAndBound(double[][], long)} is meant for; it accepts more, but will
+     * then usually run until its deadline.
+     */
+    public static final int BRANCH_AND_BOUND_LIMIT = 25;
+    // improvements smaller than this are rounding noise; ignoring them guarantees the local search ends
+    private static final double EPSILON = 1e-9;
+
+    private RoundTripSolver() {
+    }
+
+    /**
+     * Finds the shortest round trip with the Held-Karp dynamic programming algorithm in O(n² · 2ⁿ) time.
+     * For every set of places and every last place, the cheapest way to visit exactly that set coming from
+     * place 0 is computed once, building on the sets with one place less.
+     *
+     * @param costs square table of pairwise costs
+     * @return the shortest tour, or a tour that is not found if no round trip exists
+     * @throws IllegalArgumentException if the table is empty, not square or has more than {@link #HELD_KARP_LIMIT} places
+     */
+    public static Tour heldKarp(double[][] costs) throws IllegalArgumentException {
+        int n = checkCosts(costs);
+        if (n > HELD_KARP_LIMIT)
+            throw new IllegalArgumentException("Held-Karp supports at most " + HELD_KARP_LIMIT + " places, got " + n);
+        if (n == 1) return new Tour(new int[]{0}, costs[0][0]);
+
+        // places 1..n-1 are bit 0..m-1; best[set * m + last] is the cost of visiting set from 0, ending at last
+        int m = n - 1;
+        int sets = 1 << m;
+        double[] best = new double[sets * m];
+        byte[] previous = new byte[sets * m];
+        for (int i = 0; i < best.length; i++) {
+            best[i] = Double.POSITIVE_INFINITY;
+        }
+        for (int last = 0; last < m; last++) {
+            best[(1 << last) * m + last] = costs[0][last + 1];
+            previous[(1 << last) * m + last] = -1;
+        }
+
+        // a set is always handled before any larger set that contains it, because that set is a higher number
+        for (int set = 1; set < sets; set++) {
+            for (int last = 0; last < m; last++) {
+                double cost = best[set * m + last];
+                if ((set & (1 << last)) == 0 || cost == Double.POSITIVE_INFINITY) continue;
+                for (int next = 0; next < m; next++) {
+                    if ((set & (1 << next)) != 0) continue;
+                    int extended = (set | (1 << next)) * m + next;
+                    double newCost = cost + costs[last + 1][next + 1];
+                    if (newCost < best[extended]) {
+                        best[extended] = newCost;
+                        previous[extended] = (byte) last;
+                    }
+                }
+            }
+        }
+
+        int full = sets - 1;
+        int bestLast = -1;
+        double bestLength = Double.POSITIVE_INFINITY;
+        for (int last = 0; last < m; last++) {
+            double length = best[full * m + last] + costs[last + 1][0];
+            if (length < bestLength) {
+                bestLength = length;
+                bestLast = last;
+            }
+        }
+        if (bestLast < 0) return new Tour(new int[0], Double.POSITIVE_INFINITY);
+
+        // walk back from the full set, removing the last place each step
+        int[] order = new int[n];
+        int set = full;
+        for (int position = n - 1, last = bestLast; position > 0; position--) {
+            order[position] = last + 1;
+            int before = previous[set * m + last];
+            set &= ~(1 << last);
+            last = before;
+        }
+        return new Tour(order, bestLength);
+    }
+
+    /**
+     * Finds the shortest round trip by trying all (n-1)! orders of the places. Only usable for a handful of
+     * places; it is kept as a reference for the faster solvers.
+     *
+     * @param costs square table of pairwise costs
+     * @return the shortest tour, or a tour that is not found if no round trip exists
+     * @throws IllegalArgumentException if the table is empty or not square
+     */
+    public static Tour bruteForce(double[][] costs) throws IllegalArgumentException {
+        int n = checkCosts(costs);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        int[] bestOrder = new int[n];
+        double bestLength = permute(costs, order, 1, 0.0, bestOrder, Double.POSITIVE_INFINITY);
+        if (bestLength == Double.POSITIVE_INFINITY) return new Tour(new int[0], bestLength);
+        return new Tour(bestOrder, bestLength);
+    }
+
+    /**
+     * Finds the shortest round trip by searching all orders of the places on several threads. The search space is
+     * split by the first two places after place 0; the threads take these prefixes one by one and search below
+     * them depth first, each with its own scratch arrays. A branch is cut off as soon as its partial cost reaches
+     * the best tour found so far by any thread. The search starts with the heuristic tour as best so far, which
+     * makes most of the cutting off possible from the start.
+     *
+     * @param costs   square table of pairwise costs
+     * @param threads number of threads to search with
+     * @return the shortest tour, or a tour that is not found if no round trip exists
+     * @throws IllegalArgumentException if the table is empty or not square, or threads is less than 1
+     */
+    public static Tour parallelSearch(double[][] costs, int threads) throws IllegalArgumentException {
+        int n = checkCosts(costs);
+        if (threads < 1) throw new IllegalArgumentException("At least one thread is needed: " + threads);
+        if (n <= 3) return bruteForce(costs); // fewer than two places to split on
+
+        ParallelSearch search = new ParallelSearch(costs, heuristic(costs, 0, 0, 0));
+        Thread[] workers = new Thread[threads];
+        for (int w = 0; w < threads; w++) {
+            workers[w] = new Thread(search::work);
+            workers[w].start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while searching round trips", e);
+            }
+        }
+        return search.result();
+    }
+
+    /**
+     * Finds the shortest round trip with a depth first branch and bound search over tour prefixes. Below each
+     * prefix ending at place {@code last}, the rest of the tour is a path from last through the remaining places
+     * back to 0. That path costs at least the cheapest step from last into the remaining places, plus a minimum
+     * spanning tree of the remaining places, plus the cheapest step from them back to 0; prefixes whose cost plus
+     * that bound cannot beat the best tour so far are not searched. The search starts from the heuristic tour and
+     * tries the nearest places first.
+     * <p>
+     * Unlike Held-Karp the memory use is only O(n²). When the time budget runs out, the best tour so far is
+     * returned with the bound of the empty prefix as lower bound, so its {@link Tour#gap()} shows how far from
+     * optimal it may be; a completed search returns a tour with gap 0. The tour also reports the number of
+     * prefixes expanded and pruned.
+     * </p>
+     *
+     * @param costs            square table of pairwise costs
+     * @param timeBudgetMillis time after which the search stops with the best tour so far
+     * @return the shortest tour (or best found within the budget), or a tour that is not found if no round trip exists
+     * @throws IllegalArgumentException if the table is empty or not square
+     */
+    public static Tour branchAndBound(double[][] costs, long timeBudgetMillis) throws IllegalArgumentException {
+        int n = checkCosts(costs);
+        long deadline = System.currentTimeMillis() + timeBudgetMillis;
+        if (n <= 3) return bruteForce(costs);
+
+        BranchAndBound search = new BranchAndBound(costs, heuristic(costs, timeBudgetMillis / 10, 0, n), deadline);
+        return search.run();
+    }
+
+    /**
+     * Finds a short round trip for larger numbers of places (see {@link #heuristic(double[][], long, long, int)}),
+     * trying at most {@link #DEFAULT_KICKS} perturbations.
+     *
+     * @param costs            square table of pairwise costs
+     * @param timeBudgetMillis time after which the search stops with the best tour so far
+     * @param seed             seed for the random perturbations
+     * @return the best tour found, with the MST lower bound
+     * @throws IllegalArgumentException if the table is empty or not square
+     */
+    public static Tour heuristic(double[][] costs, long timeBudgetMillis, long seed) throws IllegalArgumentException {
+        return heuristic(costs, timeBudgetMillis, seed, DEFAULT_KICKS);
+    }
+
+    /**
+     * Finds a short round trip for larger numbers of places with iterated local search. The first tour is built
+     * with nearest neighbour from place 0 and improved with 2-opt (reverse a part of the tour) and Or-opt (move a
+     * run of 1 to 3 places elsewhere) until no move helps. Then, until the time budget or the number of kicks is
+     * used up, the best tour is perturbed with a random double bridge move and improved again.
+     * <p>
+     * The result is not necessarily optimal; the returned tour carries the weight of a minimum spanning tree of
+     * the places as a lower bound, see {@link Tour#gap()}. With the same seed the result is the same, as long as
+     * the search is stopped by the number of kicks and not by the time budget; {@link Tour#isTimedOut()} tells
+     * which of the two ended it.
+     * </p>
+     *
+     * @param costs            square table of pairwise costs
+     * @param timeBudgetMillis time after which the search stops with the best tour so far
+     * @param seed             seed for the random perturbations
+     * @param maxKicks         maximum number of perturbations
+     * @return the best tour found, with the MST lower bound
+     * @throws IllegalArgumentException if the table is empty or not square
+     */
+    public static Tour heuristic(double[][] costs, long timeBudgetMillis, long seed, int maxKicks) throws IllegalArgumentException {
+        int n = checkCosts(costs);
+        long deadline = System.currentTimeMillis() + timeBudgetMillis;
+        double lowerBound = spanningTreeBound(costs);
+
+        int[] best = nearestNeighbour(costs);
+        localSearch(costs, best);
+        double bestLength = tourLength(costs, best);
+        if (bestLength == Double.POSITIVE_INFINITY) return new Tour(new int[0], bestLength, lowerBound);
+
+        // a double bridge needs three cut points between the places after 0
+        Random random = new Random(seed);
+        boolean timedOut = false;
+        for (int kick = 0; kick < maxKicks && n >= 5; kick++) {
+            if (System.currentTimeMillis() >= deadline) {
+                timedOut = true;
+                break;
+            }
+            int[] candidate = doubleBridge(best, random);
+            localSearch(costs, candidate);
+            double length = tourLength(costs, candidate);
+            if (length < bestLength - EPSILON) {
+                best = candidate;
+                bestLength = length;
+            }
+        }
+        return new Tour(best, bestLength, lowerBound, 0, 0, timedOut);
+    }
+
+    /**
+     * Computes a lower bound for the length of any round trip: the weight of a minimum spanning tree over the
+     * places, with the cheaper direction of every pair as edge weight. Leaving out one step of a round trip gives a
+     * spanning tree, so no round trip can be shorter.
+     *
+     * @param costs square table of pairwise costs
+     * @return the lower bound
+     * @throws IllegalArgumentException if the table is empty or not square
+     */
+    public static double spanningTreeBound(double[][] costs) throws IllegalArgumentException {
+        int n = checkCosts(costs);
+        SaxGraph<Integer> complete = new SaxGraph<>();
+        for (int i = 0; i < n; i++) {
+            complete.addNode(i);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double weight = Math.min(costs[i][j], costs[j][i]);
+                if (weight != Double.POSITIVE_INFINITY) complete.addEdgeBidirectional(i, j, weight);
+            }
+        }
+        return complete.minimumCostSpanningTree().getTotalWeight();
+    }
+
+    /**
+     * Computes the length of a round trip visiting the places in the given order and returning to the first.
+     *
+     * @param costs square table of pairwise costs
+     * @param order the places in visiting order
+     * @return the total cost, infinity if a step is impossible
+     */
+    public static double tourLength(double[][] costs, int[] order) {
+        if (order.length == 0) return Double.POSITIVE_INFINITY;
+        double length = 0.0;
+        for (int i = 0; i < order.length; i++) {
+            length += costs[order[i]][order[(i + 1) % order.length]];
+        }
+        return length;
+    }
+
+    // Build a tour from place 0 by always going to the cheapest place not visited yet
+    private static int[] nearestNeighbour(double[][] costs) {
+        int n = costs.length;
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        visited[0] = true;
+        for (int position = 1; position < n; position++) {
+            int from = order[position - 1];
+            int nearest = -1;
+            for (int to = 0; to < n; to++) {
+                if (!visited[to] && (nearest < 0 || costs[from][to] < costs[from][nearest])) nearest = to;
+            }
+            order[position] = nearest;
+            visited[nearest] = true;
+        }
+        return order;
+    }
+
+    // Apply improving 2-opt and Or-opt moves until neither finds one
+    private static void localSearch(double[][] costs, int[] order) {
+        boolean improved = true;
+        while (improved) {
+            improved = twoOpt(costs, order);
+            improved |= orOpt(costs, order);
+        }
+    }
+
+    /**
+     * Reverses the part order[i..j] whenever that makes the tour shorter. Costs may be asymmetric, so the
+     * reversed part is priced with prefix sums of the forward and backward step costs along the tour.
+     *
+     * @return true if at least one move was made
+     */
+    private static boolean twoOpt(double[][] costs, int[] order) {
+        int n = order.length;
+        double[] forward = new double[n];
+        double[] backward = new double[n];
+        boolean improved = false;
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            // forward[k] is the cost of order[0] -> ... -> order[k], backward[k] of the same steps reversed
+            for (int k = 1; k < n; k++) {
+                forward[k] = forward[k - 1] + costs[order[k - 1]][order[k]];
+                backward[k] = backward[k - 1] + costs[order[k]][order[k - 1]];
+            }
+            for (int i = 1; i < n - 1 && !moved; i++) {
+                int before = order[i - 1];
+                for (int j = i + 1; j < n; j++) {
+                    int after = order[(j + 1) % n];
+                    double delta = costs[before][order[j]] + costs[order[i]][after]
+                            - costs[before][order[i]] - costs[order[j]][after]
+                            + (backward[j] - backward[i]) - (forward[j] - forward[i]);
+                    if (delta < -EPSILON) {
+                        reverse(order, i, j);
+                        moved = improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Moves a run of 1 to 3 consecutive places to the position between two other neighbouring places whenever
+     * that makes the tour shorter. Place 0 is never moved, so the tour keeps starting there.
+     *
+     * @return true if at least one move was made
+     */
+    private static boolean orOpt(double[][] costs, int[] order) {
+        int n = order.length;
+        boolean improved = false;
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            for (int length = 1; length <= 3 && !moved; length++) {
+                for (int i = 1; i + length <= n && !moved; i++) {
+                    int first = order[i];
+                    int last = order[i + length - 1];
+                    int before = order[i - 1];
+                    int after = order[(i + length) % n];
+                    double removeGain = costs[before][first] + costs[last][after] - costs[before][after];
+                    // insert between order[k] and order[k + 1], both outside the run
+                    for (int k = 0; k < n && !moved; k++) {
+                        if (k >= i - 1 && k < i + length) continue;
+                        int a = order[k];
+                        int b = order[(k + 1) % n];
+                        double delta = costs[a][first] + costs[last][b] - costs[a][b] - removeGain;
+                        if (delta < -EPSILON) {
+                            moveRun(order, i, length, k);
+                            moved = improved = true;
+                        }
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    // Move order[i..i+length-1] to just after position k (which lies outside the run)
+    private static void moveRun(int[] order, int i, int length, int k) {
+        int[] run = Arrays.copyOfRange(order, i, i + length);
+        if (k > i) {
+            System.arraycopy(order, i + length, order, i, k - i - length + 1);
+            System.arraycopy(run, 0, order, k - length + 1, length);
+        } else {
+            System.arraycopy(order, k + 1, order, k + 1 + length, i - k - 1);
+            System.arraycopy(run, 0, order, k + 1, length);
+        }
+    }
+
+    // Reverse order[i..j]
+    private static void reverse(int[] order, int i, int j) {
+        while (i < j) {
+            swap(order, i++, j--);
+        }
+    }
+
+    // Cut the tour after place 0 into parts A B C D and reconnect them as A C B D
+    private static int[] doubleBridge(int[] order, Random random) {
+        int n = order.length;
+        int[] cuts = {1 + random.nextInt(n - 1), 1 + random.nextInt(n - 1), 1 + random.nextInt(n - 1)};
+        Arrays.sort(cuts);
+        int[] result = new int[n];
+        int position = 0;
+        for (int k = 0; k < cuts[0]; k++) result[position++] = order[k];
+        for (int k = cuts[1]; k < cuts[2]; k++) result[position++] = order[k];
+        for (int k = cuts[0]; k < cuts[1]; k++) result[position++] = order[k];
+        for (int k = cuts[2]; k < n; k++) result[position++] = order[k];
+        return result;
+    }
+
+    // Fix the places before position and try every remaining place at position, swapping in place
+    private static double permute(double[][] costs, int[] order, int position, double length,
+                                  int[] bestOrder, double bestLength) {
+        int n = order.length;
+        if (position == n) {
+            double total = length + costs[order[n - 1]][order[0]];
+            if (total < bestLength) {
+                System.arraycopy(order, 0, bestOrder, 0, n);
+                return total;
+            }
+            return bestLength;
+        }
+        for (int i = position; i < n; i++) {
+            swap(order, position, i);
+            double extended = length + costs[order[position - 1]][order[position]];
+            bestLength = permute(costs, order, position + 1, extended, bestOrder, bestLength);
+            swap(order, position, i);
+        }
+        return bestLength;
+    }
+
+    private static void swap(int[] order, int i, int j) {
+        int temp = order[i];
+        order[i] = order[j];
+        order[j] = temp;
+    }
+
+    // Check that the table is square and return the number of places
+    private static int checkCosts(double[][] costs) throws IllegalArgumentException {
+        if (costs == null || costs.length == 0) throw new IllegalArgumentException("No places to visit");
+        for (double[] row : costs) {
+            if (row == null || row.length != costs.length)
+                throw new IllegalArgumentException("Cost table must be square");
+        }
+        return costs.length;
+    }
+
+    /**
+     * Shared state of {@link #parallelSearch(double[][], int)}: the prefixes still to hand out and the best tour
+     * so far. The best length is volatile so workers can prune against it without locking; it only changes while
+     * holding the lock, together with the order.
+     */
+    private static final class ParallelSearch {
+        private final double[][] costs;
+        private final int places;
+        private int nextPrefix = 0;
+        private volatile double bestLength;
+        private int[] bestOrder;
+
+        ParallelSearch(double[][] costs, Tour start) {
+            this.costs = costs;
+            this.places = costs.length;
+            this.bestLength = start.length();
+            this.bestOrder = start.order();
+        }
+
+        // Hand out prefix numbers; prefix p stands for the places 1 + p / (n - 2) and then the p % (n - 2)th other one
+        private synchronized int takePrefix() {
+            return nextPrefix < (places - 1) * (places - 2) ? nextPrefix++ : -1;
+        }
+
+        private synchronized void offer(int[] order, double length) {
+            if (length < bestLength) {
+                bestLength = length;
+                bestOrder = order.clone();
+            }
+        }
+
+        synchronized Tour result() {
+            if (bestLength == Double.POSITIVE_INFINITY) return new Tour(new int[0], bestLength);
+            return new Tour(bestOrder, bestLength);
+        }
+
+        // Worker: search below prefixes until none are left
+        void work() {
+            int[] order = new int[places];
+            boolean[] used = new boolean[places];
+            used[0] = true;
+            for (int prefix = takePrefix(); prefix >= 0; prefix = takePrefix()) {
+                int first = 1 + prefix / (places - 2);
+                int second = prefix % (places - 2) + 1;
+                if (second >= first) second++; // skip the first place
+                order[1] = first;
+                order[2] = second;
+                used[first] = used[second] = true;
+                search(order, used, 3, costs[0][first] + costs[first][second]);
+                used[first] = used[second] = false;
+            }
+        }
+
+        // Depth first: try every unused place at position, cutting off branches that cannot beat the best
+        private void search(int[] order, boolean[] used, int position, double length) {
+            if (length >= bestLength) return;
+            if (position == places) {
+                offer(order, length + costs[order[places - 1]][0]);
+                return;
+            }
+            int previous = order[position - 1];
+            for (int next = 1; next < places; next++) {
+                if (used[next]) continue;
+                used[next] = true;
+                order[position] = next;
+                search(order, used, position + 1, length + costs[previous][next]);
+                used[next] = false;
+            }
+        }
+    }
+
+    /**
+     * State of {@link #branchAndBound(double[][], long)}: the current prefix, the best tour so far, counters and
+     * the scratch arrays of the spanning tree bound.
+     */
+    private static final class BranchAndBound {
+        // the deadline is checked once every this many expanded prefixes
+        private static final int DEADLINE_CHECK_INTERVAL = 64;
+
+        private final double[][] costs;
+        // the cheaper direction of every pair, used for the spanning tree of the remaining places
+        private final double[][] undirected;
+        private final int places;
+        private final long deadline;
+        private final int[] order;
+        private final boolean[] used;
+        // candidates[position] holds the places to try at that position, nearest first
+        private final int[][] candidates;
+        private final int[] remaining;
+        private final double[] connectCost;
+        private int[] bestOrder;
+        private double bestLength;
+        private long expanded = 0;
+        private long pruned = 0;
+        private boolean timedOut = false;
+
+        BranchAndBound(double[][] costs, Tour start, long deadline) {
+            this.costs = costs;
+            this.places = costs.length;
+            this.deadline = deadline;
+            this.undirected = new double[places][places];
+            for (int i = 0; i < places; i++) {
+                for (int j = 0; j < places; j++) {
+                    undirected[i][j] = Math.min(costs[i][j], costs[j][i]);
+                }
+            }
+            this.order = new int[places];
+            this.used = new boolean[places];
+            this.candidates = new int[places][places];
+            this.remaining = new int[places];
+            this.connectCost = new double[places];
+            this.bestOrder = start.order();
+            this.bestLength = start.length();
+        }
+
+        Tour run() {
+            used[0] = true;
+            double rootBound = bound(1, 0.0);
+            search(1, 0.0);
+
+            if (bestLength == Double.POSITIVE_INFINITY) return new Tour(new int[0], bestLength, rootBound, expanded, pruned);
+            // a search that ran to the end proved the tour optimal
+            return new Tour(bestOrder, bestLength, timedOut ? rootBound : bestLength, expanded, pruned, timedOut);
+        }
+
+        // Extend the prefix order[0..position-1] with every unused place whose bound can still beat the best
+        private void search(int position, double length) {
+            if (timedOut) return;
+            if (++expanded % DEADLINE_CHECK_INTERVAL == 0 && System.currentTimeMillis() >= deadline) {
+                timedOut = true;
+                return;
+            }
+
+            int last = order[position - 1];
+            if (position == places) {
+                double total = length + costs[last][0];
+                if (total < bestLength) {
+                    bestLength = total;
+                    bestOrder = order.clone();
+                }
+                return;
+            }
+
+            int count = sortedCandidates(position, last);
+            for (int c = 0; c < count; c++) {
+                int next = candidates[position][c];
+                double extended = length + costs[last][next];
+                used[next] = true;
+                order[position] = next;
+                if (bound(position + 1, extended) < bestLength) {
+                    search(position + 1, extended);
+                } else {
+                    pruned++;
+                }
+                used[next] = false;
+            }
+        }
+
+        // Fill candidates[position] with the unused places, sorted by the cost of going there from last
+        private int sortedCandidates(int position, int last) {
+            int[] list = candidates[position];
+            int count = 0;
+            for (int place = 1; place < places; place++) {
+                if (used[place]) continue;
+                int i = count++;
+                while (i > 0 && costs[last][list[i - 1]] > costs[last][place]) {
+                    list[i] = list[i - 1];
+                    i--;
+                }
+                list[i] = place;
+            }
+            return count;
+        }
+
+        /**
+         * Lower bound for any tour starting with the prefix order[0..position-1] of the given length.
+         */
+        private double bound(int position, double length) {
+            int last = order[position - 1];
+            int count = 0;
+            double enter = Double.POSITIVE_INFINITY;
+            double leave = Double.POSITIVE_INFINITY;
+            for (int place = 1; place < places; place++) {
+                if (used[place]) continue;
+                remaining[count++] = place;
+                enter = Math.min(enter, costs[last][place]);
+                leave = Math.min(leave, costs[place][0]);
+            }
+            if (count == 0) return length + costs[last][0];
+            return length + enter + spanningTree(count) + leave;
+        }
+
+        /**
+         * Weight of a minimum spanning tree of remaining[0..count-1]: Prim's algorithm specialised for a complete
+         * graph given as a table, where scanning an array for the cheapest connection (O(k²) in total) beats a heap.
+         */
+        private double spanningTree(int count) {
+            for (int i = 1; i < count; i++) {
+                connectCost[i] = undirected[remaining[0]][remaining[i]];
+            }
+            double total = 0.0;
+            // remaining[0..treeSize-1] are in the tree; the rest is swapped behind them as it joins
+            for (int treeSize = 1; treeSize < count; treeSize++) {
+                int cheapest = treeSize;
+                for (int i = treeSize + 1; i < count; i++) {
+                    if (connectCost[i] < connectCost[cheapest]) cheapest = i;
+                }
+                total += connectCost[cheapest];
+                swapRemaining(treeSize, cheapest);
+                int joined = remaining[treeSize];
+                for (int i = treeSize + 1; i < count; i++) {
+                    connectCost[i] = Math.min(connectCost[i], undirected[joined][remaining[i]]);
+                }
+            }
+            return total;
+        }
+
+        private void swapRemaining(int i, int j) {
+            int place = remaining[i];
+            remaining[i] = remaining[j];
+            remaining[j] = place;
+            double cost = connectCost[i];
+            connectCost[i] = connectCost[j];
+            connectCost[j] = cost;
+        }
+    }
+
+    /**
+     * A round trip: the places in visiting order (starting with 0) and the total cost including the way back.
+     * Tours of the exact solvers have their own length as lower bound.
+     */
+    public static final class Tour {
+        private final int[] order;
+        private final double length;
+        private final double lowerBound;
+        private final long nodesExpanded;
+        private final long nodesPruned;
+        private final boolean timedOut;
+
+        /**
+         * @param order  places in visiting order, empty if no round trip exists
+         * @param length total cost, infinity if no round trip exists
+         */
+        Tour(int[] order, double length) {
+            this(order, length, length);
+        }
+
+        /**
+         * @param order      places in visiting order, empty if no round trip exists
+         * @param length     total cost, infinity if no round trip exists
+         * @param lowerBound no round trip is shorter than this
+         */
+        Tour(int[] order, double length, double lowerBound) {
+            this(order, length, lowerBound, 0, 0);
+        }
+
+        /**
+         * @param order         places in visiting order, empty if no round trip exists
+         * @param length        total cost, infinity if no round trip exists
+         * @param lowerBound    no round trip is shorter than this
+         * @param nodesExpanded number of search nodes (tour prefixes) expanded
+         * @param nodesPruned   number of search nodes cut off by the lower bound
+         */
+        Tour(int[] order, double length, double lowerBound, long nodesExpanded, long nodesPruned) {
+            this(order, length, lowerBound, nodesExpanded, nodesPruned, false);
+        }
+
+        /**
+         * @param order         places in visiting order, empty if no round trip exists
+         * @param length        total cost, infinity if no round trip exists
+         * @param lowerBound    no round trip is shorter than this
+         * @param nodesExpanded number of search nodes (tour prefixes) expanded
+         * @param nodesPruned   number of search nodes cut off by the lower bound
+         * @param timedOut      whether the time budget ended the search
+         */
+        Tour(int[] order, double length, double lowerBound, long nodesExpanded, long nodesPruned, boolean timedOut) {
+            this.order = order;
+            this.length = length;
+            this.lowerBound = lowerBound;
+            this.nodesExpanded = nodesExpanded;
+            this.nodesPruned = nodesPruned;
+            this.timedOut = timedOut;
+        }
+
+        /**
+         * @return the places in visiting order, starting with 0; empty if no round trip exists
+         */
+        public int[] order() {
+            return order;
+        }
+
+        /**
+         * @return the total cost of the tour, including the way back to place 0
+         */
+        public double length() {
+            return length;
+        }
+
+        /**
+         * @return a length no round trip through the places can be shorter than
+         */
+        public double lowerBound() {
+            return lowerBound;
+        }
+
+        /**
+         * @return how much longer the tour is than the lower bound, as a fraction of the bound (0 for an exact tour);
+         * NaN if no round trip was found, or if the bound is 0 while the tour is longer, since a fraction of 0 has
+         * no meaning
+         */
+        public double gap() {
+            if (!isFound()) return Double.NaN;
+            if (length == lowerBound) return 0.0;
+            if (lowerBound <= 0) return Double.NaN;
+            return (length - lowerBound) / lowerBound;
+        }
+
+        /**
+         * @return number of tour prefixes expanded by the branch and bound search, 0 for the other solvers
+         */
+        public long nodesExpanded() {
+            return nodesExpanded;
+        }
+
+        /**
+         * @return number of tour prefixes cut off by the branch and bound search, 0 for the other solvers
+         */
+        public long nodesPruned() {
+            return nodesPruned;
+        }
+
+        /**
+         * @return true if the time budget ended the search before its own limit (the number of kicks of the
+         * heuristic, or the full search of branch and bound); such a result may differ between runs and machines
+         */
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+
+        /**
+         * @return true if a round trip exists
+         */
+        public boolean isFound() {
+            return length != Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(order) + " (" + length + ")";
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package nl.saxion.cds.collection;
+
+import java.util.Iterator;
+
+/**
+ * Set of non-negative ints stored as one bit each in an array of longs.
+ * <p>
+ * Bit {@code i} lives in word {@code i / 64} at position {@code i % 64}, so {@link #set(int)} and
+ * {@link #get(int)} are a shift and a mask without any hashing or allocation. Graph algorithms use it with the
+ * dense node ids as visited set: one bit per node, and {@link #clear()} makes it ready for the next query.
+ * The set grows when a bit beyond its capacity is set.
+ * </p>
+ * Iterating the set gives the set bits in ascending order.
+ */
+public class SaxBitSet implements SaxCollection<Integer> {
+    private static final int WORD_BITS = 64;
+    private long[] words;
+
+    /**
+     * Creates an empty set with room for the ints 0 up to (not including) capacity.
+     *
+     * @param capacity number of bits to reserve; the set still grows beyond it when needed
+     */
+    public SaxBitSet(int capacity) {
+        words = new long[Math.max(1, (capacity + WORD_BITS - 1) / WORD_BITS)];
+    }
+
+    /**
+     * Adds an int to the set.
+     *
+     * @param index the int to add
+     * @throws IndexOutOfBoundsException if the index is negative
+     */
+    public void set(int index) throws IndexOutOfBoundsException {
+        if (index < 0) throw new IndexOutOfBoundsException(Integer.toString(index));
+        int word = index / WORD_BITS;
+        if (word >= words.length) {
+            long[] grown = new long[Math.max(words.length * 2, word + 1)];
+            System.arraycopy(words, 0, grown, 0, words.length);
+            words = grown;
+        }
+        words[word] |= 1L << index; // shifts of a long only use the lowest 6 bits of index
+    }
+
+    /**
+     * Removes an int from the set.
+     *
+     * @param index the int to remove
+     * @throws IndexOutOfBoundsException if the index is negative
+     */
+    public void clear(int index) throws IndexOutOfBoundsException {
+        if (index < 0) throw new IndexOutOfBoundsException(Integer.toString(index));
+        int word = index / WORD_BITS;
+        if (word < words.length) words[word] &= ~(1L << index);
+    }
+
+    /**
+     * Checks whether an int is in the set.
+     *
+     * @param index the int to check
+     * @return true if the bit is set, false otherwise (also for negative ints)
+     */
+    public boolean get(int index) {
+        int word = index / WORD_BITS;
+        return index >= 0 && word < words.length && (words[word] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the first set bit at or after the given index.
+     *
+     * @param from index to start looking
+     * @return the index of the next set bit, or -1 if there is none
+     */
+    public int nextSetBit(int from) {
+        if (from < 0) from = 0;
+        int word = from / WORD_BITS;
+        if (word >= words.length) return -1;
+
+        long bits = words[word] & (-1L << from); // ignore the bits before from
+        while (true) {
+            if (bits != 0) return word * WORD_BITS + Long.numberOfTrailingZeros(bits);
+            if (++word == words.length) return -1;
+            bits = words[word];
+        }
+    }
+
+    /**
+     * Returns the first bit at or after the given index that is not set.
+     *
+     * @param from index to start looking
+     * @return the index of the next clear bit
+     */
+    public int nextClearBit(int from) {
+        if (from < 0) from = 0;
+        int word = from / WORD_BITS;
+        if (word >= words.length) return from;
+
+        long bits = ~words[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) return word * WORD_BITS + Long.numberOfTrailingZeros(bits);
+            if (++word == words.length) return word * WORD_BITS;
+            bits = ~words[word];
+        }
+    }
+
+    /**
+     * Counts the set bits.
+     *
+     * @return number of ints in the set
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of ints in the set (see {@link #cardinality()}).
+     *
+     * @return number of set bits
+     */
+    @Override
+    public int getSize() {
+        return cardinality();
+    }
+
+    /**
+     * Returns the number of bits the set can hold before it grows.
+     *
+     * @return the capacity in bits
+     */
+    public int getCapacity() {
+        return words.length * WORD_BITS;
+    }
+
+    /**
+     * Removes all ints from the set; the capacity stays the same so the set can be reused.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < words.length; i++) {
+            words[i] = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return defaultToString();
+    }
+
+    @IgnoreCoverage
+    @Override
+    public String graphViz(String name) {
+        StringBuilder sb = new StringBuilder("digraph ").append(name).append(" {\n");
+        sb.append("  node [shape=record];\n  bits [label=\"");
+        for (int i = 0; i < getCapacity(); i++) {
+            if (i > 0) sb.append(" | ");
+            sb.append(get(i) ? '1' : '0');
+        }
+        sb.append("\"];\n}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Iterator over the set bits in ascending order.
+     *
+     * @return iterator over the ints in the set
+     */
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private int next = nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) throw new IndexOutOfBoundsException();
+                int current = next;
+                next = nextSetBit(current + 1);
+                return current;
+            }
+        };
+    }
+}
@@ -0,0 +1,604 @@
+package nl.saxion.cds.collection;
+
+import java.util.Iterator;
+
+/**
+ * A read-only snapshot of a {@link SaxGraph} in compressed sparse row (CSR) form.
+ * <p>
+ * Every node has a dense integer id (0..size-1). The outgoing edges of node {@code i} are stored at the
+ * positions {@code offsets[i]} up to (not including) {@code offsets[i + 1]} of the flat
+ * {@code targets} and {@code weights} arrays. Walking the neighbours of a node is therefore a tight array loop
+ * without any object per edge. Instances are created by {@link SaxGraph#freeze()}.
+ * </p>
+ * The algorithms return the same result types as their {@link SaxGraph} counterparts.
+ *
+ * @param <V> type of the nodes in the graph
+ */
+public class SaxCompactGraph<V> implements Iterable<V> {
+    // graph this snapshot was taken from; only used to create DirectedEdge results
+    private final SaxGraph<V> source;
+    private final Object[] values;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    // the same edges grouped by target: the incoming edges of node i are at reverseOffsets[i] up to
+    // reverseOffsets[i + 1] of reverseSources and reverseWeights, for searches that walk the graph backwards
+    private final int[] reverseOffsets;
+    private final int[] reverseSources;
+    private final double[] reverseWeights;
+    private final SaxOpenHashMap<V, Integer> ids;
+
+    /**
+     * Creates the snapshot from the prepared CSR arrays (see {@link SaxGraph#freeze()}).
+     *
+     * @param source  the graph the snapshot was taken from
+     * @param values  node values by id
+     * @param offsets start of the edges of each node; offsets[size] is the number of edges
+     * @param targets target node id of each edge
+     * @param weights weight of each edge
+     */
+    SaxCompactGraph(SaxGraph<V> source, Object[] values, int[] offsets, int[] targets, double[] weights) {
+        this.source = source;
+        this.values = values;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.ids = new SaxOpenHashMap<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            ids.put(value(i), i);
+        }
+
+        // counting sort of the edges by target
+        reverseOffsets = new int[values.length + 1];
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int i = 0; i < values.length; i++) {
+            reverseOffsets[i + 1] += reverseOffsets[i];
+        }
+        reverseSources = new int[targets.length];
+        reverseWeights = new double[targets.length];
+        int[] next = new int[values.length];
+        System.arraycopy(reverseOffsets, 0, next, 0, values.length);
+        for (int from = 0; from < values.length; from++) {
+            for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+                int position = next[targets[e]]++;
+                reverseSources[position] = from;
+                reverseWeights[position] = weights[e];
+            }
+        }
+    }
+
+    /**
+     * Returns the number of nodes in the graph.
+     *
+     * @return number of nodes
+     */
+    public int getSize() {
+        return values.length;
+    }
+
+    /**
+     * Returns the number of directed edges in the graph.
+     *
+     * @return number of edges
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Checks whether a node with the given value exists in the graph.
+     *
+     * @param value the value to look for
+     * @return true if the node exists, false otherwise
+     */
+    public boolean contains(V value) {
+        return value != null && ids.containsKey(value);
+    }
+
+    /**
+     * Returns the id of the node with the given value.
+     *
+     * @param value the value to look for
+     * @return the node id or -1 if the value is not part of this graph
+     */
+    public int getId(V value) {
+        return value == null ? -1 : ids.getOrDefault(value, -1);
+    }
+
+    /**
+     * Returns the value of the node with the given id.
+     *
+     * @param id the node id
+     * @return the node value
+     * @throws IndexOutOfBoundsException if the id is invalid
+     */
+    @SuppressWarnings("unchecked")
+    public V value(int id) throws IndexOutOfBoundsException {
+        return (V) values[id];
+    }
+
+    /**
+     * Returns GraphViz dot syntax for visualizing the graph.
+     *
+     * @param name graph name
+     * @return dot format string
+     */
+    @IgnoreCoverage
+    public String graphViz(String name) {
+        StringBuilder sb = new StringBuilder("digraph ").append(name).append(" {\n");
+        for (int from = 0; from < values.length; from++) {
+            for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+                sb.append("  \"").append(value(from)).append("\" -> \"")
+                        .append(value(targets[e])).append("\" [label=").append(weights[e]).append("]\n");
+            }
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * Iterator over node values, in id order.
+     *
+     * @return iterator of node values (V)
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<>() {
+            private int id = 0;
+
+            @Override
+            public boolean hasNext() {
+                return id < values.length;
+            }
+
+            @Override
+            public V next() {
+                if (!hasNext()) throw new IndexOutOfBoundsException();
+                return value(id++);
+            }
+        };
+    }
+
+    /**
+     * Execute the Dijkstra algorithm; find shortest paths to all other nodes.
+     *
+     * @param startNode the node to start from
+     * @return new graph containing shortest paths only (see {@link SaxGraph#shortestPathsDijkstra(Object)})
+     * @throws IllegalArgumentException if startNode is null or not in the graph
+     */
+    public SaxGraph<V> shortestPathsDijkstra(V startNode) throws IllegalArgumentException {
+        int start = requireId(startNode);
+
+        double[] dist = new double[values.length];
+        int[] prevEdge = new int[values.length];
+        int[] prevNode = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            dist[i] = Double.POSITIVE_INFINITY;
+            prevEdge[i] = -1;
+        }
+
+        SaxIndexedHeap queue = new SaxIndexedHeap(values.length);
+        dist[start] = 0.0;
+        queue.push(start, 0.0);
+
+        while (queue.getSize() > 0) {
+            int current = queue.pop();
+
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                int to = targets[e];
+                double newDist = dist[current] + weights[e];
+                if (newDist < dist[to]) {
+                    dist[to] = newDist;
+                    prevEdge[to] = e;
+                    prevNode[to] = current;
+                    queue.update(to, newDist);
+                }
+            }
+        }
+
+        SaxGraph<V> result = new SaxGraph<>();
+        for (int i = 0; i < values.length; i++) {
+            result.addNode(value(i));
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (prevEdge[i] >= 0) {
+                result.addEdge(value(prevNode[i]), value(i), weights[prevEdge[i]]);
+            } else if (i == start) {
+                result.addEdge(value(i), value(i), 0.0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the shortest path between two nodes; the search stops as soon as the end node is settled
+     * (see {@link SaxGraph#shortestPath(Object, Object)}).
+     *
+     * @param startNode the node to start from
+     * @param endNode   the node to find the path to
+     * @return the path with its total distance; a path without edges and an infinite distance if there is no path
+     * @throws IllegalArgumentException if startNode or endNode is null or not in the graph
+     */
+    public SaxGraph<V>.Path shortestPath(V startNode, V endNode) throws IllegalArgumentException {
+        int start = requireId(startNode);
+        int end = requireId(endNode);
+
+        double[] dist = new double[values.length];
+        int[] prevEdge = new int[values.length];
+        int[] prevNode = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            dist[i] = Double.POSITIVE_INFINITY;
+        }
+
+        SaxIndexedHeap queue = new SaxIndexedHeap(values.length);
+        dist[start] = 0.0;
+        queue.push(start, 0.0);
+
+        while (queue.getSize() > 0) {
+            int current = queue.pop();
+            if (current == end) return source.new Path(buildPath(start, end, prevNode, prevEdge), dist[end]);
+
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                int to = targets[e];
+                double newDist = dist[current] + weights[e];
+                if (newDist < dist[to]) {
+                    dist[to] = newDist;
+                    prevEdge[to] = e;
+                    prevNode[to] = current;
+                    queue.update(to, newDist);
+                }
+            }
+        }
+        return source.new Path(new SaxList<>(), Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Execute the A* algorithm to determine the shortest path from startNode to endNode.
+     *
+     * @param startNode the node to start searching
+     * @param endNode   the target node
+     * @param estimator a (handler) function to estimate the distance (weight) between two nodes
+     * @return a list of edges (from start to end) which comprise the shortest path from startNode to endNode. An empty list will be returned if no path can be found
+     * @throws IllegalArgumentException if any parameter is null or a node is not in the graph
+     */
+    public SaxList<SaxGraph<V>.DirectedEdge> shortestPathAStar(V startNode, V endNode, SaxGraph.Estimator<V> estimator) throws IllegalArgumentException {
+        if (estimator == null) throw new IllegalArgumentException("Estimator is null");
+        int start = requireId(startNode);
+        int end = requireId(endNode);
+
+        double[] gScore = new double[values.length];
+        int[] prevEdge = new int[values.length];
+        int[] prevNode = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            gScore[i] = Double.POSITIVE_INFINITY;
+            prevEdge[i] = -1;
+        }
+
+        SaxIndexedHeap openSet = new SaxIndexedHeap(values.length);
+        gScore[start] = 0.0;
+        openSet.push(start, estimator.estimate(startNode, endNode));
+
+        while (openSet.getSize() > 0) {
+            int current = openSet.pop();
+            if (current == end) return buildPath(start, end, prevNode, prevEdge);
+
+            // expanded nodes are opened again when a shorter path to them turns up (see SaxGraph#shortestPathAStar)
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                int neighbor = targets[e];
+                double tentativeG = gScore[current] + weights[e];
+                if (tentativeG < gScore[neighbor]) {
+                    gScore[neighbor] = tentativeG;
+                    prevEdge[neighbor] = e;
+                    prevNode[neighbor] = current;
+                    openSet.update(neighbor, tentativeG + estimator.estimate(value(neighbor), endNode));
+                }
+            }
+        }
+        return new SaxList<>();
+    }
+
+    /**
+     * Do a depth first traversal through the graph. The edges are visited in the same order as
+     * {@link SaxGraph#depthFirstTraversal(Object)}, but without recursion.
+     *
+     * @param startNode node to start searching
+     * @return the list of edges
+     * @throws IllegalArgumentException if startNode is null or not in the graph
+     */
+    public SaxList<SaxGraph<V>.DirectedEdge> depthFirstTraversal(V startNode) throws IllegalArgumentException {
+        int start = requireId(startNode);
+
+        SaxList<SaxGraph<V>.DirectedEdge> result = new SaxList<>();
+        SaxBitSet visited = new SaxBitSet(values.length);
+        // explicit stack: the node and the next edge to examine for every node on the current path
+        int[] stackNode = new int[values.length];
+        int[] stackEdge = new int[values.length];
+        int top = 0;
+
+        visited.set(start);
+        stackNode[0] = start;
+        stackEdge[0] = offsets[start];
+
+        while (top >= 0) {
+            int current = stackNode[top];
+            int e = stackEdge[top];
+            if (e == offsets[current + 1]) {
+                top--; // all edges examined; go back
+                continue;
+            }
+            stackEdge[top] = e + 1;
+
+            int next = targets[e];
+            if (!visited.get(next)) {
+                visited.set(next);
+                result.addElement(edge(current, e));
+                top++;
+                stackNode[top] = next;
+                stackEdge[top] = offsets[next];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Determine the minimal cost (total weight) of edges which are necessary to connect all nodes,
+     * using Prim's algorithm on every disconnected part of the graph.
+     *
+     * @return the MCST graph (a copy)
+     */
+    public SaxGraph<V> minimumCostSpanningTree() {
+        SaxGraph<V> result = new SaxGraph<>();
+        SaxBitSet visited = new SaxBitSet(values.length);
+        // the queue holds every reached node with the weight of its cheapest connecting edge
+        SaxIndexedHeap queue = new SaxIndexedHeap(values.length);
+        int[] cheapestEdge = new int[values.length];
+        int[] cheapestFrom = new int[values.length];
+
+        for (int start = 0; start < values.length; start++) {
+            if (visited.get(start)) continue;
+            cheapestEdge[start] = -1;
+            queue.push(start, 0.0);
+
+            while (queue.getSize() > 0) {
+                int current = queue.pop();
+                visited.set(current);
+                result.addNode(value(current));
+                if (cheapestEdge[current] >= 0) {
+                    result.addEdge(value(cheapestFrom[current]), value(current), weights[cheapestEdge[current]]);
+                }
+
+                for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                    int to = targets[e];
+                    if (visited.get(to)) continue;
+                    if (!queue.contains(to) || weights[e] < queue.getPriority(to)) {
+                        queue.update(to, weights[e]);
+                        cheapestEdge[to] = e;
+                        cheapestFrom[to] = current;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the shortest distances between all pairs of nodes by running Dijkstra from every node,
+     * spread over as many threads as there are processors.
+     *
+     * @return the distance matrix with next-hop table
+     */
+    public DistanceMatrix<V> distanceMatrix() {
+        return distanceMatrix(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Computes the shortest distances between all pairs of nodes by running Dijkstra from every node.
+     *
+     * @param threads number of threads to spread the searches over
+     * @return the distance matrix with next-hop table
+     * @throws IllegalArgumentException if threads is less than 1
+     */
+    public DistanceMatrix<V> distanceMatrix(int threads) throws IllegalArgumentException {
+        if (threads < 1) throw new IllegalArgumentException("At least one thread is needed: " + threads);
+        return new DistanceMatrix<>(this, threads);
+    }
+
+    /**
+     * Selects landmarks and computes the distances from and to each of them, for lower bounds in A*
+     * (see {@link Landmarks}). The searches are spread over as many threads as there are processors.
+     *
+     * @param count number of landmarks; fewer are used if the graph has fewer nodes
+     * @return the landmark tables
+     * @throws IllegalArgumentException if count is less than 1
+     */
+    public Landmarks<V> landmarks(int count) throws IllegalArgumentException {
+        return landmarks(count, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Selects landmarks and computes the distances from and to each of them (see {@link Landmarks}).
+     *
+     * @param count   number of landmarks; fewer are used if the graph has fewer nodes
+     * @param threads number of threads to spread the searches over
+     * @return the landmark tables
+     * @throws IllegalArgumentException if count or threads is less than 1
+     */
+    public Landmarks<V> landmarks(int count, int threads) throws IllegalArgumentException {
+        if (count < 1) throw new IllegalArgumentException("At least one landmark is needed: " + count);
+        if (threads < 1) throw new IllegalArgumentException("At least one thread is needed: " + threads);
+        return new Landmarks<>(this, count, threads);
+    }
+
+    /**
+     * Preprocesses the graph into a contraction hierarchy for fast point to point queries
+     * (see {@link ContractionHierarchy}).
+     *
+     * @return the hierarchy
+     */
+    public ContractionHierarchy<V> contractionHierarchy() {
+        return new ContractionHierarchy<>(this);
+    }
+
+    /**
+     * @param node a node id
+     * @return position of the first outgoing edge of the node; the edges of node i end where those of i + 1 start
+     */
+    int firstEdge(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * @param e position of an edge
+     * @return id of the node the edge goes to
+     */
+    int target(int e) {
+        return targets[e];
+    }
+
+    /**
+     * @param e position of an edge
+     * @return weight of the edge
+     */
+    double weight(int e) {
+        return weights[e];
+    }
+
+    /**
+     * Creates a DirectedEdge result object of the graph this snapshot was taken from.
+     *
+     * @param from   id of the node the edge starts at
+     * @param to     id of the node the edge goes to
+     * @param weight weight of the edge
+     * @return the edge
+     */
+    SaxGraph<V>.DirectedEdge newEdge(int from, int to, double weight) {
+        return source.new DirectedEdge(value(from), value(to), weight);
+    }
+
+    /**
+     * Dijkstra from start over the outgoing edges, or over the incoming edges to get the distance from every
+     * node to start.
+     *
+     * @param start    id of the node to start from
+     * @param backward true to follow the edges in reverse
+     * @param dist     receives the distance of every node, infinity if unreachable
+     * @param queue    empty scratch heap with capacity getSize()
+     */
+    void fillDistances(int start, boolean backward, double[] dist, SaxIndexedHeap queue) {
+        int[] starts = backward ? reverseOffsets : offsets;
+        int[] ends = backward ? reverseSources : targets;
+        double[] lengths = backward ? reverseWeights : weights;
+        for (int i = 0; i < values.length; i++) {
+            dist[i] = Double.POSITIVE_INFINITY;
+        }
+        dist[start] = 0.0;
+        queue.push(start, 0.0);
+
+        while (queue.getSize() > 0) {
+            int current = queue.pop();
+            for (int e = starts[current]; e < starts[current + 1]; e++) {
+                int to = ends[e];
+                double newDist = dist[current] + lengths[e];
+                if (newDist < dist[to]) {
+                    dist[to] = newDist;
+                    queue.update(to, newDist);
+                }
+            }
+        }
+    }
+
+    /**
+     * Dijkstra from start, filling one row of a distance matrix. The parent, order and queue arrays are
+     * scratch space of the caller so a worker thread can reuse them for all its rows.
+     *
+     * @param start   id of the start node
+     * @param dist    receives the distance to every node, infinity if unreachable
+     * @param nextHop receives the first node after start on the path to every node, -1 if unreachable
+     * @param parent  scratch array of size getSize()
+     * @param order   scratch array of size getSize()
+     * @param queue   empty scratch heap with capacity getSize()
+     */
+    void fillRow(int start, double[] dist, int[] nextHop, int[] parent, int[] order, SaxIndexedHeap queue) {
+        for (int i = 0; i < values.length; i++) {
+            dist[i] = Double.POSITIVE_INFINITY;
+            nextHop[i] = -1;
+        }
+        dist[start] = 0.0;
+        queue.push(start, 0.0);
+
+        int settled = 0;
+        while (queue.getSize() > 0) {
+            int current = queue.pop();
+            order[settled++] = current;
+
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                int to = targets[e];
+                double newDist = dist[current] + weights[e];
+                if (newDist < dist[to]) {
+                    dist[to] = newDist;
+                    parent[to] = current;
+                    queue.update(to, newDist);
+                }
+            }
+        }
+
+        // a node is settled after its parent, so the parent's next hop is always known first
+        nextHop[start] = start;
+        for (int i = 1; i < settled; i++) {
+            int node = order[i];
+            nextHop[node] = parent[node] == start ? node : nextHop[parent[node]];
+        }
+    }
+
+    /**
+     * Returns the cheapest edge between two adjacent nodes.
+     *
+     * @param from id of the node the edge starts at
+     * @param to   id of the node the edge goes to
+     * @return the edge, or null if there is no edge between the nodes
+     */
+    SaxGraph<V>.DirectedEdge cheapestEdge(int from, int to) {
+        int best = -1;
+        for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+            if (targets[e] == to && (best < 0 || weights[e] < weights[best])) best = e;
+        }
+        return best < 0 ? null : edge(from, best);
+    }
+
+    /**
+     * Wraps a list of edges into a path of the graph this snapshot was taken from.
+     *
+     * @param edges    the edges of the path
+     * @param distance total weight of the path
+     * @return the path
+     */
+    SaxGraph<V>.Path newPath(SaxList<SaxGraph<V>.DirectedEdge> edges, double distance) {
+        return source.new Path(edges, distance);
+    }
+
+    // Reconstruct the path from start to end by walking back over the predecessors
+    private SaxList<SaxGraph<V>.DirectedEdge> buildPath(int start, int end, int[] prevNode, int[] prevEdge) {
+        SaxList<SaxGraph<V>.DirectedEdge> path = new SaxList<>();
+        int node = end;
+        while (node != start) {
+            path.addElementAt(edge(prevNode[node], prevEdge[node]), 0); // prepend
+            node = prevNode[node];
+        }
+        return path;
+    }
+
+    // Create the DirectedEdge object for the edge at the given position
+    private SaxGraph<V>.DirectedEdge edge(int from, int e) {
+        return newEdge(from, targets[e], weights[e]);
+    }
+
+    // Look up the id of a node, which must exist
+    int requireId(V value) throws IllegalArgumentException {
+        if (value == null) throw new IllegalArgumentException("Node value cannot be null");
+        int id = getId(value);
+        if (id < 0) throw new IllegalArgumentException("Node not in graph: " + value);
+        return id;
+    }
+}
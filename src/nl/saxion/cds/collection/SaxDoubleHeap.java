@@ -0,0 +1,180 @@
+package nl.saxion.cds.collection;
+
+import nl.saxion.cds.collection.exceptions.EmptyCollectionException;
+
+import java.util.Iterator;
+
+/**
+ * Binary min-heap of int values with a double priority each, in growable primitive arrays.
+ * <p>
+ * Unlike {@link SaxIndexedHeap} the values are not limited to a fixed range and may occur more than once, so
+ * there is no decrease-key. Searches that only visit a small part of a large graph push a node again when its
+ * distance improves and skip the outdated entry when it is popped ("lazy deletion"); the heap then only grows
+ * with the part of the graph that is actually visited. Pushing allocates nothing except when the arrays double.
+ * </p>
+ * Example:
+ * <pre>
+ *     SaxDoubleHeap queue = new SaxDoubleHeap();
+ *     queue.push(startId, 0.0);
+ *     double distance = queue.peekPriority();
+ *     int nearest = queue.pop();
+ *     if (distance > dist.get(nearest)) continue; // outdated entry
+ * </pre>
+ */
+public class SaxDoubleHeap implements SaxCollection<Integer> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private int[] values;
+    private double[] priorities;
+    private int size = 0;
+
+    /**
+     * Creates an empty heap with room for 16 entries before it grows.
+     */
+    public SaxDoubleHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty heap with room for the given number of entries before it grows.
+     *
+     * @param capacity initial capacity; if less than or equal to 0, 16 will be used
+     */
+    public SaxDoubleHeap(int capacity) {
+        if (capacity <= 0) capacity = DEFAULT_CAPACITY;
+        values = new int[capacity];
+        priorities = new double[capacity];
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds a value with the given priority to the heap.
+     *
+     * @param value    the value
+     * @param priority its priority (lower comes first)
+     */
+    public void push(int value, double priority) {
+        if (size == values.length) {
+            int[] grownValues = new int[values.length * 2];
+            double[] grownPriorities = new double[values.length * 2];
+            System.arraycopy(values, 0, grownValues, 0, size);
+            System.arraycopy(priorities, 0, grownPriorities, 0, size);
+            values = grownValues;
+            priorities = grownPriorities;
+        }
+
+        // percolate up: move parents down until the place for the new entry is found
+        int position = size++;
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (priority >= priorities[parent]) break;
+            values[position] = values[parent];
+            priorities[position] = priorities[parent];
+            position = parent;
+        }
+        values[position] = value;
+        priorities[position] = priority;
+    }
+
+    /**
+     * Returns the value with the lowest priority without removing it.
+     *
+     * @return value at the root
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    public int peek() throws EmptyCollectionException {
+        if (size == 0) throw new EmptyCollectionException();
+        return values[0];
+    }
+
+    /**
+     * Returns the lowest priority in the heap.
+     *
+     * @return priority of the root
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    public double peekPriority() throws EmptyCollectionException {
+        if (size == 0) throw new EmptyCollectionException();
+        return priorities[0];
+    }
+
+    /**
+     * Removes and returns the value with the lowest priority.
+     *
+     * @return value that was at the root
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    public int pop() throws EmptyCollectionException {
+        int root = peek();
+        size--;
+        if (size == 0) return root;
+
+        // percolate the last entry down from the root
+        int value = values[size];
+        double priority = priorities[size];
+        int position = 0;
+        while (true) {
+            int smallest = 2 * position + 1;
+            if (smallest >= size) break;
+            if (smallest + 1 < size && priorities[smallest + 1] < priorities[smallest]) smallest++;
+            if (priority <= priorities[smallest]) break;
+            values[position] = values[smallest];
+            priorities[position] = priorities[smallest];
+            position = smallest;
+        }
+        values[position] = value;
+        priorities[position] = priority;
+        return root;
+    }
+
+    @Override
+    public String toString() {
+        return defaultToString();
+    }
+
+    @IgnoreCoverage
+    @Override
+    public String graphViz(String name) {
+        StringBuilder sb = new StringBuilder("digraph ").append(name).append(" {\n");
+        for (int i = 0; i < size; i++) {
+            sb.append("  n").append(i).append(" [label=\"").append(values[i])
+                    .append(" (").append(priorities[i]).append(")\"];\n");
+            for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                sb.append("  n").append(i).append(" -> n").append(child).append(";\n");
+            }
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Iterator that traverses the values in array order (not sorted).
+     *
+     * @return iterator over the values in the heap
+     */
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                return position < size;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) throw new IndexOutOfBoundsException();
+                return values[position++];
+            }
+        };
+    }
+}
@@ -1,7 +1,11 @@
 package nl.saxion.cds.collection;
 
+import nl.saxion.cds.collection.exceptions.ElementNotFoundException;
+
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * A directed, weighted graph data structure with nodes and edges. The graph CAN be disconnected.
@@ -9,8 +13,33 @@ import java.util.Iterator;
  * @param <V> type of the nodes in the graph
  */
 public class SaxGraph<V> implements SaxCollection<V> {
+    private static final int[] NO_TARGETS = new int[0];
+    private static final double[] NO_WEIGHTS = new double[0];
+    // Yen's algorithm only starts a thread for at least this many spur searches
+    private static final int SPURS_PER_THREAD = 16;
+
     // main list holding all graph nodes
     private SaxIndexedCollection<SaxGraph<V>.Node> nodes = new SaxArrayList<>();
+    // index from node value to its node, so lookups do not have to scan the node list
+    private SaxOpenHashMap<V, SaxGraph<V>.Node> index = new SaxOpenHashMap<>();
+    // number of edges ever added: the id of the next edge
+    private int edgeIds = 0;
+    // disabled nodes and edges of a masked view (see withMask), null for the graph itself
+    private final GraphMask<V> mask;
+
+    /**
+     * Creates an empty graph.
+     */
+    public SaxGraph() {
+        this.mask = null;
+    }
+
+    // A masked view on the nodes and edges of another graph
+    private SaxGraph(SaxGraph<V> graph, GraphMask<V> mask) {
+        this.nodes = graph.nodes;
+        this.index = graph.index;
+        this.mask = mask;
+    }
 
     /**
      * Adds a new node with the given value to the graph.
@@ -19,9 +48,91 @@ public class SaxGraph<V> implements SaxCollection<V> {
      * @throws IllegalArgumentException if value is null or already exists
      */
     public void addNode(V value) throws IllegalArgumentException {
+        requireChangeable();
         if (value == null) throw new IllegalArgumentException("Node value cannot be null.");
         if (contains(value)) throw new IllegalArgumentException("Node already exists: " + value);
-        nodes.addElement(new Node(value));
+        createNode(value);
+    }
+
+    /**
+     * Creates a new node for the given value and registers it in both the node list and the index.
+     *
+     * @param value the value of the new node (must not be in the graph yet)
+     * @return the created node
+     */
+    private Node createNode(V value) {
+        Node node = new Node(value, nodes.getSize());
+        nodes.addElement(node);
+        index.put(value, node);
+        return node;
+    }
+
+    /**
+     * Looks up the node holding the given value.
+     *
+     * @param value the value to look for
+     * @return the node or null if the value is not part of this graph
+     */
+    private Node findNode(V value) {
+        if (value == null) return null;
+        return index.getOrDefault(value, null);
+    }
+
+    /**
+     * Returns the dense id of a node: its position in the node list.
+     *
+     * @param value the value to look for
+     * @return the id of the node or -1 if the value is not part of this graph
+     */
+    int idOf(V value) {
+        Node node = findNode(value);
+        return node == null ? -1 : node.id;
+    }
+
+    /**
+     * @param id a node id
+     * @return the number of edges leaving the node
+     */
+    int degreeOf(int id) {
+        return nodes.getElementAt(id).degree;
+    }
+
+    /**
+     * @param id       a node id
+     * @param position position of an edge in the edge arrays of the node, below its degree
+     * @return the id of the node the edge goes to
+     */
+    int targetOf(int id, int position) {
+        return nodes.getElementAt(id).targets[position];
+    }
+
+    /**
+     * @param id       a node id
+     * @param position position of an edge in the edge arrays of the node, below its degree
+     * @return the graph wide id of the edge (see {@link DirectedEdge#id()})
+     */
+    int edgeIdOf(int id, int position) {
+        return nodes.getElementAt(id).edgeIds[position];
+    }
+
+    /**
+     * Returns the number of ids handed out to edges so far; every edge id is lower.
+     *
+     * @return the id the next edge will get
+     */
+    int getEdgeIdLimit() {
+        return edgeIds;
+    }
+
+    /**
+     * Returns the value of the node with the given id.
+     *
+     * @param id the node id
+     * @return the node value
+     * @throws IndexOutOfBoundsException if the id is invalid
+     */
+    V valueAt(int id) throws IndexOutOfBoundsException {
+        return nodes.getElementAt(id).value;
     }
 
     /**
@@ -42,12 +153,7 @@ public class SaxGraph<V> implements SaxCollection<V> {
      * @return true if the node exists, false otherwise
      */
     public boolean contains(V value) {
-        for (int i = 0; i < nodes.getSize(); i++) {
-            if (nodes.getElementAt(i).value.equals(value)) {
-                return true;
-            }
-        }
-        return false;
+        return value != null && index.containsKey(value);
     }
 
     @Override
@@ -57,12 +163,191 @@ public class SaxGraph<V> implements SaxCollection<V> {
 
     /**
      * Inner class representing a graph node with a value and edges.
+     * The outgoing edges are stored in parallel arrays that double when full: edge i goes to the node with
+     * id targets[i], has weight weights[i] and the graph wide id edgeIds[i]. The algorithms loop over these
+     * arrays directly; a
+     * {@link DirectedEdge} is only created when an edge is handed out.
+     * The incoming edges are indexed as well, for searches that walk the graph backwards: incoming edge i
+     * is edge sourcePositions[i] of the node with id sources[i].
      */
     private class Node {
         V value;
-        SaxList<DirectedEdge> edges = new SaxList<>();
-        Node(V value) {
+        // dense index of this node: its position in the node list
+        final int id;
+        int[] targets = NO_TARGETS;
+        double[] weights = NO_WEIGHTS;
+        int[] edgeIds = NO_TARGETS;
+        int degree = 0;
+        int[] sources = NO_TARGETS;
+        int[] sourcePositions = NO_TARGETS;
+        int inDegree = 0;
+        Node(V value, int id) {
             this.value = value;
+            this.id = id;
+        }
+
+        void addEdge(int target, double weight, int edgeId) {
+            if (degree == targets.length) {
+                int capacity = Math.max(4, degree << 1);
+                int[] newTargets = new int[capacity];
+                double[] newWeights = new double[capacity];
+                int[] newIds = new int[capacity];
+                System.arraycopy(targets, 0, newTargets, 0, degree);
+                System.arraycopy(weights, 0, newWeights, 0, degree);
+                System.arraycopy(edgeIds, 0, newIds, 0, degree);
+                targets = newTargets;
+                weights = newWeights;
+                edgeIds = newIds;
+            }
+            targets[degree] = target;
+            weights[degree] = weight;
+            edgeIds[degree] = edgeId;
+            degree++;
+        }
+
+        void addIncoming(int source, int position) {
+            if (inDegree == sources.length) {
+                int capacity = Math.max(4, inDegree << 1);
+                int[] newSources = new int[capacity];
+                int[] newPositions = new int[capacity];
+                System.arraycopy(sources, 0, newSources, 0, inDegree);
+                System.arraycopy(sourcePositions, 0, newPositions, 0, inDegree);
+                sources = newSources;
+                sourcePositions = newPositions;
+            }
+            sources[inDegree] = source;
+            sourcePositions[inDegree] = position;
+            inDegree++;
+        }
+
+        DirectedEdge edge(int position) {
+            return new DirectedEdge(value, nodes.getElementAt(targets[position]).value, weights[position], edgeIds[position]);
+        }
+    }
+
+    /**
+     * Read-only view on the outgoing edges of a node, returned by {@link #getEdges(Object)}. It reads the
+     * adjacency arrays of the node, so it costs no copy and shows edges that are added later. Every call to
+     * {@link #getElementAt(int)} or the iterator creates a new {@link DirectedEdge}; changing the view throws
+     * an {@link UnsupportedOperationException}.
+     */
+    private class EdgeView implements SaxIndexedCollection<DirectedEdge> {
+        // null for a value that is not in the graph: the view is empty
+        private final Node node;
+
+        EdgeView(Node node) {
+            this.node = node;
+        }
+
+        @Override
+        public int getSize() {
+            return node == null ? 0 : node.degree;
+        }
+
+        @Override
+        public DirectedEdge getElementAt(int index) throws IndexOutOfBoundsException {
+            if (index < 0 || index >= getSize()) throw new IndexOutOfBoundsException("Invalid index: " + index);
+            return node.edge(index);
+        }
+
+        @Override
+        public DirectedEdge getLastElement() throws IndexOutOfBoundsException {
+            if (getSize() == 0) throw new IndexOutOfBoundsException();
+            return node.edge(node.degree - 1);
+        }
+
+        /**
+         * Finds the first edge to the same node with the same weight.
+         */
+        @Override
+        public int getIndexOfElement(DirectedEdge element) throws ElementNotFoundException {
+            if (element != null) {
+                for (int i = 0; i < getSize(); i++) {
+                    if (node.weights[i] == element.weight() && valueAt(node.targets[i]).equals(element.to()))
+                        return i;
+                }
+            }
+            throw new ElementNotFoundException(String.valueOf(element));
+        }
+
+        /**
+         * Checks whether the edges are in ascending order of weight, the order of {@link DirectedEdge#compare}.
+         */
+        @Override
+        public boolean isSorted() {
+            for (int i = 1; i < getSize(); i++) {
+                if (node.weights[i - 1] > node.weights[i]) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Iterator<DirectedEdge> iterator() {
+            return new Iterator<>() {
+                private int position = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return position < getSize();
+                }
+
+                @Override
+                public DirectedEdge next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    return node.edge(position++);
+                }
+            };
+        }
+
+        @IgnoreCoverage
+        @Override
+        public String graphViz(String name) {
+            StringBuilder sb = new StringBuilder("digraph ").append(name).append(" {\n");
+            for (int i = 0; i < getSize(); i++) {
+                sb.append("  \"").append(node.value).append("\" -> \"")
+                        .append(valueAt(node.targets[i])).append("\" [label=").append(node.weights[i]).append("]\n");
+            }
+            sb.append("}");
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return defaultToString();
+        }
+
+        @Override
+        public void addElement(DirectedEdge element) {
+            throw readOnly();
+        }
+
+        @Override
+        public void addElementAt(DirectedEdge element, int index) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setElementAt(DirectedEdge element, int index) {
+            throw readOnly();
+        }
+
+        @Override
+        public DirectedEdge removeElementAt(int index) {
+            throw readOnly();
+        }
+
+        @Override
+        public void sort(Comparator<DirectedEdge> comparator) {
+            throw readOnly();
+        }
+
+        @Override
+        public void clear() {
+            throw readOnly();
+        }
+
+        private UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("Edges can only be added through the graph");
         }
     }
 
@@ -81,7 +366,10 @@ public class SaxGraph<V> implements SaxCollection<V> {
      */
     @Override
     public void clear() {
-        nodes = new SaxList<>();
+        requireChangeable();
+        nodes = new SaxArrayList<>();
+        index = new SaxOpenHashMap<>();
+        edgeIds = 0;
     }
 
     /**
@@ -93,12 +381,10 @@ public class SaxGraph<V> implements SaxCollection<V> {
     @Override
     public String graphViz(String name) {
         StringBuilder sb = new StringBuilder("digraph ").append(name).append(" {\n");
-        for (int i = 0; i < nodes.getSize(); i++) {
-            Node node = nodes.getElementAt(i);
-            for (int j = 0; j < node.edges.getSize(); j++) {
-                DirectedEdge e = node.edges.getElementAt(j);
-                sb.append("  \"").append(e.from()).append("\" -> \"")
-                        .append(e.to()).append("\" [label=").append(e.weight()).append("]\n");
+        for (Node node : nodes) {
+            for (int i = 0; i < node.degree; i++) {
+                sb.append("  \"").append(node.value).append("\" -> \"")
+                        .append(valueAt(node.targets[i])).append("\" [label=").append(node.weights[i]).append("]\n");
             }
         }
         sb.append("}");
@@ -110,17 +396,17 @@ public class SaxGraph<V> implements SaxCollection<V> {
     /**
      * Gets a list of edges from the given node.
      *
+     * The edges are not copied: the result is a read-only view on the adjacency arrays of the node, so it
+     * shows edges added later and all methods that change it throw an {@link UnsupportedOperationException}.
+     * Earlier versions returned a mutable copy in a {@link SaxList}; to change the edges, copy them into a new
+     * list first.
+     *
      * @param element the element of the node the edges originate from
-     * @return a list of edges which originate from the node with the given element
+     * @return a read-only view of the edges which originate from the node with the given element, empty if the
+     * node is not in the graph
      */
-    public SaxList<DirectedEdge> getEdges(V element) {
-        for (int i = 0; i < nodes.getSize(); i++) {
-            Node node = nodes.getElementAt(i);
-            if (node.value.equals(element)) {
-                return node.edges;
-            }
-        }
-        return new SaxList<>(); // return empty if not found
+    public SaxIndexedCollection<DirectedEdge> getEdges(V element) {
+        return new EdgeView(findNode(element));
     }
 
     /**
@@ -150,28 +436,17 @@ public class SaxGraph<V> implements SaxCollection<V> {
      * Adds a directed edge from one node to another.
      */
     public void addEdge(V fromValue, V toValue, double weight) throws IllegalArgumentException {
+        requireChangeable();
         if (fromValue == null || toValue == null) throw new IllegalArgumentException("Node value cannot be null");
 
-        Node fromNode = null;
-        Node toNode = null;
-
-        for (int i = 0; i < nodes.getSize(); i++) {
-            Node n = nodes.getElementAt(i);
-            if (n.value.equals(fromValue)) fromNode = n;
-            if (n.value.equals(toValue)) toNode = n;
-        }
-
-        if (fromNode == null) {
-            fromNode = new Node(fromValue);
-            nodes.addElement(fromNode);
-        }
-        if (toNode == null) {
-            toNode = new Node(toValue);
-            nodes.addElement(toNode);
-        }
+        Node fromNode = findNode(fromValue);
+        if (fromNode == null) fromNode = createNode(fromValue);
+        Node toNode = findNode(toValue);
+        if (toNode == null) toNode = createNode(toValue);
 
         // add directed edge from -> to
-        fromNode.edges.addElement(new DirectedEdge(fromValue, toValue, weight));
+        fromNode.addEdge(toNode.id, weight, edgeIds++);
+        toNode.addIncoming(fromNode.id, fromNode.degree - 1);
     }
 
     /**
@@ -182,15 +457,97 @@ public class SaxGraph<V> implements SaxCollection<V> {
         addEdge(toValue, fromValue, weight);
     }
 
+    /**
+     * Creates an empty mask for this graph: a set of disabled nodes and edges that a view made with
+     * {@link #withMask(GraphMask)} leaves out (see {@link GraphMask}).
+     *
+     * @return the mask, with everything enabled
+     */
+    public GraphMask<V> createMask() {
+        return new GraphMask<>(mask == null ? this : mask.getGraph());
+    }
+
+    /**
+     * Returns a view on this graph without the nodes and edges disabled in a mask, for example the tracks
+     * that are closed today. The view shares the nodes and edges of this graph, so it is made in O(1) and shows
+     * nodes and edges added to the graph later on, but it cannot be changed itself. All searches of the view
+     * (shortest paths, A*, k shortest paths, depth first, the spanning tree and {@link #freeze()}) skip
+     * disabled edges and never enter or leave a disabled node; the node and edge lists ({@link #getNodes()},
+     * {@link #getEdges(Object)}) still show everything. The graph and any number of views can be searched
+     * at the same time from different threads, as long as neither the graph nor the masks change meanwhile.
+     * After {@link #clear()} the view keeps showing the old nodes.
+     *
+     * @param mask the disabled nodes and edges, created by {@link #createMask()} of this graph
+     * @return the view
+     * @throws IllegalArgumentException if mask is null or belongs to another graph
+     */
+    public SaxGraph<V> withMask(GraphMask<V> mask) throws IllegalArgumentException {
+        if (mask == null) throw new IllegalArgumentException("Mask cannot be null");
+        SaxGraph<V> graph = this.mask == null ? this : this.mask.getGraph();
+        if (mask.getGraph() != graph) throw new IllegalArgumentException("Mask belongs to another graph");
+        return new SaxGraph<>(graph, mask);
+    }
+
+    // Views share their nodes with the graph and may not change them
+    private void requireChangeable() throws UnsupportedOperationException {
+        if (mask != null) throw new UnsupportedOperationException("A masked view cannot be changed");
+    }
+
+    // True if the edge at the given position of the node is left out by the mask of this view
+    private boolean isDisabled(Node node, int position) {
+        return mask != null && mask.isDisabled(node.id, node.edgeIds[position], node.targets[position]);
+    }
+
+    /**
+     * Creates a read-only snapshot of this graph in compressed sparse row (CSR) form.
+     * Nodes get the integer ids 0..size-1 (in insertion order) and all edges are stored in flat arrays,
+     * which is more compact than the separate edge arrays of the nodes of this graph.
+     * Changes made to this graph after freezing are not visible in the snapshot. The snapshot of a masked view
+     * has all nodes, but none of the disabled edges or edges of disabled nodes.
+     *
+     * @return the compact snapshot
+     */
+    public SaxCompactGraph<V> freeze() {
+        int nodeCount = nodes.getSize();
+        Object[] values = new Object[nodeCount];
+        int[] offsets = new int[nodeCount + 1];
+        for (int i = 0; i < nodeCount; i++) {
+            Node node = nodes.getElementAt(i);
+            values[i] = node.value;
+            int degree = node.degree;
+            for (int e = 0; mask != null && e < node.degree; e++) {
+                if (isDisabled(node, e)) degree--;
+            }
+            offsets[i + 1] = offsets[i] + degree;
+        }
+
+        int[] targets = new int[offsets[nodeCount]];
+        double[] weights = new double[offsets[nodeCount]];
+        for (int i = 0; i < nodeCount; i++) {
+            Node node = nodes.getElementAt(i);
+            if (mask == null) {
+                System.arraycopy(node.targets, 0, targets, offsets[i], node.degree);
+                System.arraycopy(node.weights, 0, weights, offsets[i], node.degree);
+                continue;
+            }
+            int next = offsets[i];
+            for (int e = 0; e < node.degree; e++) {
+                if (isDisabled(node, e)) continue;
+                targets[next] = node.targets[e];
+                weights[next++] = node.weights[e];
+            }
+        }
+        return new SaxCompactGraph<>(this, values, offsets, targets, weights);
+    }
+
     /**
      * Returns total weight of all edges in the graph.
      */
     public double getTotalWeight() {
         double total = 0;
-        for (int i = 0; i < nodes.getSize(); i++) {
-            Node node = nodes.getElementAt(i);
-            for (int j = 0; j < node.edges.getSize(); j++) {
-                total += node.edges.getElementAt(j).weight();
+        for (Node node : nodes) {
+            for (int i = 0; i < node.degree; i++) {
+                total += node.weights[i];
             }
         }
         return total;
@@ -207,81 +564,530 @@ public class SaxGraph<V> implements SaxCollection<V> {
     public SaxGraph<V> shortestPathsDijkstra(V startNode) throws IllegalArgumentException {
         if (startNode == null) throw new IllegalArgumentException("Start node cannot be null");
 
-        SaxHashMap<V, Double> dist = new SaxHashMap<>();
-        SaxHashMap<V, DirectedEdge> prev = new SaxHashMap<>();
-        SaxHashMap<V, Boolean> visited = new SaxHashMap<>();
-        SaxHeap<DijkstraNode> queue = new SaxHeap<>(DijkstraNode::compareTo);
+        SaxGraph<V> result = new SaxGraph<>();
+        for (int i = 0; i < nodes.getSize(); i++) {
+            result.addNode(nodes.getElementAt(i).value);
+        }
+        if (!contains(startNode)) {
+            result.addEdge(startNode, startNode, 0.0);
+            return result;
+        }
+
+        ShortestPathTree<V> tree = shortestPathTree(startNode);
+        int start = idOf(startNode);
+        for (int id = 0; id < tree.getSize(); id++) {
+            int parent = tree.parentOf(id);
+            if (parent >= 0) {
+                result.addEdge(valueAt(parent), valueAt(id), tree.parentWeightOf(id));
+            } else if (id == start) {
+                result.addEdge(startNode, startNode, 0.0);
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Execute the Dijkstra algorithm and return the distances and shortest paths to all nodes as a tree.
+     * Distances ({@link ShortestPathTree#distanceTo(Object)}) can be read in O(1)
+     * and paths ({@link ShortestPathTree#pathTo(Object)}) in O(path length).
+     *
+     * @param startNode the node to start from
+     * @return the shortest path tree rooted at startNode
+     * @throws IllegalArgumentException if startNode is null or not in the graph
+     */
+    public ShortestPathTree<V> shortestPathTree(V startNode) throws IllegalArgumentException {
+        if (startNode == null) throw new IllegalArgumentException("Start node cannot be null");
+        Node start = findNode(startNode);
+        if (start == null) throw new IllegalArgumentException("Start node not in graph: " + startNode);
+
+        int size = nodes.getSize();
+        double[] dist = new double[size];
+        int[] parents = new int[size];
+        double[] parentWeights = new double[size];
+        for (int i = 0; i < size; i++) {
+            dist[i] = Double.POSITIVE_INFINITY;
+            parents[i] = -1;
+        }
+
+        SaxIndexedHeap queue = new SaxIndexedHeap(size);
+        dist[start.id] = 0.0;
+        queue.push(start.id, 0.0);
+        settleAll(queue, dist, parents, parentWeights, null);
+        return new ShortestPathTree<>(this, start.id, dist, parents, parentWeights);
+    }
 
-        dist.put(startNode, 0.0);
-        queue.push(new DijkstraNode(startNode, 0.0));
+    /**
+     * Execute the Dijkstra algorithm from a set of sources at once: all sources start in the queue at distance 0,
+     * so every node is reached first from the source nearest to it. One search gives the nearest source and the
+     * distance to it for every node, where asking it per source would take one search for each of them.
+     *
+     * @param sources the nodes to start from; duplicates are ignored
+     * @return the shortest path forest with a tree for every source
+     * @throws IllegalArgumentException if sources is null or a source is null or not in the graph
+     */
+    public ShortestPathForest<V> shortestPathForest(SaxCollection<V> sources) throws IllegalArgumentException {
+        if (sources == null) throw new IllegalArgumentException("Sources cannot be null");
+        int size = nodes.getSize();
+        double[] dist = new double[size];
+        int[] roots = new int[size];
+        int[] parents = new int[size];
+        double[] parentWeights = new double[size];
+        for (int i = 0; i < size; i++) {
+            dist[i] = Double.POSITIVE_INFINITY;
+            roots[i] = -1;
+            parents[i] = -1;
+        }
 
+        SaxIndexedHeap queue = new SaxIndexedHeap(size);
+        for (V value : sources) {
+            if (value == null) throw new IllegalArgumentException("Source cannot be null");
+            Node source = findNode(value);
+            if (source == null) throw new IllegalArgumentException("Source not in graph: " + value);
+            if (roots[source.id] >= 0) continue;
+            dist[source.id] = 0.0;
+            roots[source.id] = source.id;
+            queue.push(source.id, 0.0);
+        }
+        settleAll(queue, dist, parents, parentWeights, roots);
+        return new ShortestPathForest<>(this, dist, roots, parents, parentWeights);
+    }
+
+    /**
+     * Runs Dijkstra until the queue is empty, starting from the nodes already in it.
+     *
+     * @param queue         the nodes to start from, with their distances
+     * @param dist          distance of every node id, filled in
+     * @param parents       predecessor of every node id, filled in
+     * @param parentWeights weight of the edge from the predecessor, filled in
+     * @param roots         the source every node id is reached from, passed on to its successors; null for a
+     *                      single source
+     */
+    private void settleAll(SaxIndexedHeap queue, double[] dist, int[] parents, double[] parentWeights, int[] roots) {
+        // every node is at most once in the queue; a popped node is settled for good
         while (queue.getSize() > 0) {
-            DijkstraNode current = queue.pop();
-            if (visited.containsKey(current.node)) continue;
-            visited.put(current.node, true);
-
-            SaxList<DirectedEdge> edges = getEdges(current.node);
-            for (int i = 0; i < edges.getSize(); i++) {
-                DirectedEdge e = edges.getElementAt(i);
-                double newDist = dist.get(current.node) + e.weight();
-
-                if (!dist.containsKey(e.to()) || newDist < dist.get(e.to())) {
-                    if (dist.containsKey(e.to())) dist.remove(e.to());
-                    if (prev.containsKey(e.to())) prev.remove(e.to());
-
-                    dist.put(e.to(), newDist);
-                    prev.put(e.to(), e);
-                    queue.push(new DijkstraNode(e.to(), newDist));
+            Node current = nodes.getElementAt(queue.pop());
+            int[] targets = current.targets;
+            double[] weights = current.weights;
+
+            for (int i = 0; i < current.degree; i++) {
+                if (isDisabled(current, i)) continue;
+                int to = targets[i];
+                double newDist = dist[current.id] + weights[i];
+
+                if (newDist < dist[to]) {
+                    dist[to] = newDist;
+                    parents[to] = current.id;
+                    parentWeights[to] = weights[i];
+                    if (roots != null) roots[to] = roots[current.id];
+                    queue.update(to, newDist);
                 }
+            }
+        }
+    }
 
+    /**
+     * Find the shortest path between two nodes with Dijkstra's algorithm. Unlike {@link #shortestPathsDijkstra(Object)},
+     * the search stops as soon as the end node is settled and no result graph is built, so the cost of a query
+     * only depends on the part of the graph that is closer to the start than the end node.
+     *
+     * @param startNode the node to start from
+     * @param endNode   the node to find the path to
+     * @return the path with its total distance; a path without edges and an infinite distance if there is no path
+     * @throws IllegalArgumentException if startNode or endNode is null
+     */
+    public Path shortestPath(V startNode, V endNode) throws IllegalArgumentException {
+        if (startNode == null || endNode == null) throw new IllegalArgumentException("Start or end node cannot be null");
+
+        Node start = findNode(startNode);
+        Node end = findNode(endNode);
+        if (start == null || end == null) return new Path(new SaxList<>(), Double.POSITIVE_INFINITY);
+
+        // only the visited part of the graph ends up in these primitive maps and the heap; a node is pushed again
+        // when its distance improves, and the outdated entry is skipped when it comes out of the heap
+        SaxIntDoubleMap dist = new SaxIntDoubleMap();
+        SaxIntIntMap prevNode = new SaxIntIntMap();
+        SaxIntIntMap prevEdge = new SaxIntIntMap();
+        SaxDoubleHeap queue = new SaxDoubleHeap();
+
+        dist.put(start.id, 0.0);
+        queue.push(start.id, 0.0);
+
+        while (queue.getSize() > 0) {
+            double currentDist = queue.peekPriority();
+            int current = queue.pop();
+            if (currentDist > dist.get(current)) continue;
+            if (current == end.id) return new Path(buildPath(start.id, end.id, prevNode, prevEdge), currentDist);
+
+            Node node = nodes.getElementAt(current);
+            for (int i = 0; i < node.degree; i++) {
+                if (isDisabled(node, i)) continue;
+                double newDist = currentDist + node.weights[i];
+                int to = node.targets[i];
+                if (newDist < dist.getOrDefault(to, Double.POSITIVE_INFINITY)) {
+                    dist.putOrReplace(to, newDist);
+                    prevNode.putOrReplace(to, current);
+                    prevEdge.putOrReplace(to, i);
+                    queue.push(to, newDist);
+                }
             }
         }
+        return new Path(new SaxList<>(), Double.POSITIVE_INFINITY);
+    }
 
-        SaxGraph<V> result = new SaxGraph<>();
-        
-        for (int i = 0; i < nodes.getSize(); i++) {
-            V value = nodes.getElementAt(i).value;
-            if (!result.contains(value)) {
-                result.addNode(value);
+    /**
+     * Find the shortest path between two nodes with a bidirectional Dijkstra search: one search runs forward
+     * from the start over the outgoing edges, the other backward from the end over the incoming edges, and the
+     * side with the smaller queue head is expanded next. Every edge that connects the two searches is a
+     * candidate meeting point; the search stops as soon as the two queue heads together are no shorter than the
+     * best candidate, since no path through an unsettled node can beat it then. Both searches only cover a ball
+     * of about half the distance, which on a road or rail network is far fewer nodes than {@link #shortestPath}
+     * settles. The distance is the same as that of {@link #shortestPath}; with several shortest paths another
+     * one of them may be returned.
+     *
+     * @param startNode the node to start from
+     * @param endNode   the node to find the path to
+     * @return the path with its total distance; a path without edges and an infinite distance if there is no path
+     * @throws IllegalArgumentException if startNode or endNode is null
+     */
+    public Path shortestPathBidirectional(V startNode, V endNode) throws IllegalArgumentException {
+        if (startNode == null || endNode == null) throw new IllegalArgumentException("Start or end node cannot be null");
+
+        Node start = findNode(startNode);
+        Node end = findNode(endNode);
+        if (start == null || end == null) return new Path(new SaxList<>(), Double.POSITIVE_INFINITY);
+        if (start == end) return new Path(new SaxList<>(), 0.0);
+
+        // forward: distance from start, previous node and the position of the edge from it
+        SaxIntDoubleMap forwardDist = new SaxIntDoubleMap();
+        SaxIntIntMap prevNode = new SaxIntIntMap();
+        SaxIntIntMap prevEdge = new SaxIntIntMap();
+        SaxDoubleHeap forwardQueue = new SaxDoubleHeap();
+        // backward: distance to end, next node and the position of the edge to it in the edges of this node
+        SaxIntDoubleMap backwardDist = new SaxIntDoubleMap();
+        SaxIntIntMap nextNode = new SaxIntIntMap();
+        SaxIntIntMap nextEdge = new SaxIntIntMap();
+        SaxDoubleHeap backwardQueue = new SaxDoubleHeap();
+
+        forwardDist.put(start.id, 0.0);
+        forwardQueue.push(start.id, 0.0);
+        backwardDist.put(end.id, 0.0);
+        backwardQueue.push(end.id, 0.0);
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+
+        while (forwardQueue.getSize() > 0 && backwardQueue.getSize() > 0) {
+            if (forwardQueue.peekPriority() + backwardQueue.peekPriority() >= best) break;
+
+            if (forwardQueue.peekPriority() <= backwardQueue.peekPriority()) {
+                double currentDist = forwardQueue.peekPriority();
+                int current = forwardQueue.pop();
+                if (currentDist > forwardDist.get(current)) continue;
+
+                Node node = nodes.getElementAt(current);
+                for (int i = 0; i < node.degree; i++) {
+                    if (isDisabled(node, i)) continue;
+                    int to = node.targets[i];
+                    double newDist = currentDist + node.weights[i];
+                    if (newDist < forwardDist.getOrDefault(to, Double.POSITIVE_INFINITY)) {
+                        forwardDist.putOrReplace(to, newDist);
+                        prevNode.putOrReplace(to, current);
+                        prevEdge.putOrReplace(to, i);
+                        forwardQueue.push(to, newDist);
+                        double through = newDist + backwardDist.getOrDefault(to, Double.POSITIVE_INFINITY);
+                        if (through < best) {
+                            best = through;
+                            meeting = to;
+                        }
+                    }
+                }
+            } else {
+                double currentDist = backwardQueue.peekPriority();
+                int current = backwardQueue.pop();
+                if (currentDist > backwardDist.get(current)) continue;
+
+                Node node = nodes.getElementAt(current);
+                for (int i = 0; i < node.inDegree; i++) {
+                    int from = node.sources[i];
+                    int position = node.sourcePositions[i];
+                    if (isDisabled(nodes.getElementAt(from), position)) continue;
+                    double newDist = currentDist + nodes.getElementAt(from).weights[position];
+                    if (newDist < backwardDist.getOrDefault(from, Double.POSITIVE_INFINITY)) {
+                        backwardDist.putOrReplace(from, newDist);
+                        nextNode.putOrReplace(from, current);
+                        nextEdge.putOrReplace(from, position);
+                        backwardQueue.push(from, newDist);
+                        double through = newDist + forwardDist.getOrDefault(from, Double.POSITIVE_INFINITY);
+                        if (through < best) {
+                            best = through;
+                            meeting = from;
+                        }
+                    }
+                }
             }
         }
+        if (meeting < 0) return new Path(new SaxList<>(), Double.POSITIVE_INFINITY);
 
-        SaxList<V> keys = dist.getKeys();
-        for (int i = 0; i < keys.getSize(); i++) {
-            V node = keys.getElementAt(i);
+        // start to meeting over the forward predecessors, then meeting to end over the backward successors
+        SaxList<DirectedEdge> path = buildPath(start.id, meeting, prevNode, prevEdge);
+        for (int node = meeting; node != end.id; node = nextNode.get(node)) {
+            path.addElement(nodes.getElementAt(node).edge(nextEdge.get(node)));
+        }
+        return new Path(path, best);
+    }
 
-            if (prev.containsKey(node)) {
-                DirectedEdge e = prev.get(node);
-                if (!result.contains(e.from())) result.addNode(e.from());
-                if (!result.contains(e.to())) result.addNode(e.to());
-                result.addEdge(e.from(), e.to(), e.weight());
-            } else if (node.equals(startNode)) {
-                result.addEdge(node, node, 0.0);
+    /**
+     * Find the k shortest loopless paths between two nodes with Yen's algorithm, spreading the searches over as
+     * many threads as there are processors (see {@link #kShortestPaths(Object, Object, int, int)}).
+     *
+     * @param startNode the node to start from
+     * @param endNode   the node to find the paths to
+     * @param k         the number of paths to find
+     * @return at most k paths, shortest first; fewer if there are no more loopless paths, none if there is no path
+     * @throws IllegalArgumentException if startNode or endNode is null, or k is less than 1
+     */
+    public SaxList<Path> kShortestPaths(V startNode, V endNode, int k) throws IllegalArgumentException {
+        return kShortestPaths(startNode, endNode, k, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Find the k shortest loopless paths between two nodes with Yen's algorithm. The first path is the shortest
+     * path. Every next one deviates from the previous path at one of its nodes, the spur node: it follows the
+     * previous path up to there (the root) and then takes the shortest way to the end that neither uses a root
+     * node again nor leaves the spur node over an edge that an earlier path with the same root took. The
+     * cheapest of all these deviations found so far is the next path. Spur nodes before the node where a path
+     * deviated from its predecessor give the same deviations as for that predecessor, so they are skipped.
+     * <p>
+     * The edges and nodes are masked during the search instead of being removed from a copy of the graph, so
+     * the searches of the spur nodes of one path are independent and are divided over a number of threads.
+     * One backward Dijkstra from the end gives the distance of every node to the end, which is the first path
+     * and, since masking only makes paths longer, an exact lower bound that turns every spur search into a
+     * very focused A*. The graph must not be changed while the paths are searched.
+     * </p>
+     *
+     * @param startNode the node to start from
+     * @param endNode   the node to find the paths to
+     * @param k         the number of paths to find
+     * @param threads   number of threads to spread the spur searches over
+     * @return at most k paths, shortest first; fewer if there are no more loopless paths, none if there is no path
+     * @throws IllegalArgumentException if startNode or endNode is null, or k or threads is less than 1
+     */
+    public SaxList<Path> kShortestPaths(V startNode, V endNode, int k, int threads) throws IllegalArgumentException {
+        if (startNode == null || endNode == null) throw new IllegalArgumentException("Start or end node cannot be null");
+        if (k < 1) throw new IllegalArgumentException("At least one path is needed: " + k);
+        if (threads < 1) throw new IllegalArgumentException("At least one thread is needed: " + threads);
+
+        SaxList<Path> paths = new SaxList<>();
+        Node start = findNode(startNode);
+        Node end = findNode(endNode);
+        if (start == null || end == null) return paths;
+        int size = nodes.getSize();
+        double[] toEnd = new double[size];
+        int[] nextNode = new int[size];
+        int[] nextPosition = new int[size];
+        fillDistancesTo(end.id, toEnd, nextNode, nextPosition);
+        if (toEnd[start.id] == Double.POSITIVE_INFINITY) return paths;
+
+        SaxIntIntMap prevNode = new SaxIntIntMap();
+        SaxIntIntMap prevEdge = new SaxIntIntMap();
+        for (int node = start.id; node != end.id; node = nextNode[node]) {
+            prevNode.put(nextNode[node], node);
+            prevEdge.put(nextNode[node], nextPosition[node]);
+        }
+        Route shortest = toRoute(start.id, end.id, prevNode, prevEdge, toEnd[start.id]);
+
+        SaxArrayList<Route> found = new SaxArrayList<>();
+        found.addElement(shortest);
+        // candidates by index in the list, cheapest first; seen holds every route found or queued
+        SaxArrayList<Route> candidates = new SaxArrayList<>();
+        SaxDoubleHeap queue = new SaxDoubleHeap();
+        SaxHashSet<Route> seen = new SaxHashSet<>();
+        seen.add(shortest);
+
+        while (found.getSize() < k) {
+            Route previous = found.getElementAt(found.getSize() - 1);
+            for (Route route : spurRoutes(previous, found, end.id, toEnd, threads)) {
+                if (route != null && !seen.contains(route)) {
+                    seen.add(route);
+                    candidates.addElement(route);
+                    queue.push(candidates.getSize() - 1, route.distance);
+                }
             }
+            if (queue.getSize() == 0) break;
+            found.addElement(candidates.getElementAt(queue.pop()));
         }
 
-        return result;
+        for (Route route : found) {
+            paths.addElement(toPath(route));
+        }
+        return paths;
     }
 
+    /**
+     * Searches the deviations of a path at each of its nodes from the one where it deviated itself up to the
+     * last but one. A spur search on a network like the railway takes microseconds, so the spur nodes are only
+     * divided over threads when every thread gets at least {@value #SPURS_PER_THREAD} of them.
+     *
+     * @param previous the path to deviate from
+     * @param found    all paths found so far, whose edges from the same root are blocked
+     * @param end      id of the end node
+     * @param toEnd    distance of every node id to the end
+     * @param threads  maximum number of threads to use
+     * @return the shortest deviation at every spur node, null where there is none or it was skipped
+     */
+    private Route[] spurRoutes(Route previous, SaxArrayList<Route> found, int end, double[] toEnd, int threads) {
+        Route[] results = new Route[previous.nodes.length - 1];
+        Thread[] workers = new Thread[Math.min(threads, (results.length - previous.deviation) / SPURS_PER_THREAD)];
+        if (workers.length <= 1) {
+            findSpurRoutes(previous, found, end, toEnd, results, previous.deviation, 1);
+            return results;
+        }
 
-    // Inner helper class
-    private class DijkstraNode implements Comparable<DijkstraNode> {
-        V node;
-        double dist;
+        for (int w = 0; w < workers.length; w++) {
+            int first = previous.deviation + w;
+            workers[w] = new Thread(() -> findSpurRoutes(previous, found, end, toEnd, results, first, workers.length));
+            workers[w].start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while searching alternative paths", e);
+            }
+        }
+        return results;
+    }
 
-        DijkstraNode(V node, double dist) {
-            this.node = node;
-            this.dist = dist;
+    // Worker: search the deviations at spur positions first, first + step, ... of the previous path, with its
+    // own masks so it shares nothing but the graph with the other workers
+    private void findSpurRoutes(Route previous, SaxArrayList<Route> found, int end, double[] toEnd, Route[] results,
+                                int first, int step) {
+        SaxBitSet blockedNodes = new SaxBitSet(nodes.getSize());
+        SaxBitSet blockedPositions = new SaxBitSet(64);
+        for (int j = first; j < results.length; j += step) {
+            int spur = previous.nodes[j];
+            blockedNodes.clear();
+            blockedPositions.clear();
+            double rootDistance = 0.0;
+            for (int m = 0; m < j; m++) {
+                blockedNodes.set(previous.nodes[m]);
+                rootDistance += nodes.getElementAt(previous.nodes[m]).weights[previous.positions[m]];
+            }
+            for (Route route : found) {
+                if (route.sharesRoot(previous, j)) blockedPositions.set(route.positions[j]);
+            }
+
+            Route spurRoute = spurRoute(spur, end, toEnd, blockedNodes, blockedPositions);
+            if (spurRoute != null) results[j] = previous.join(j, rootDistance, spurRoute);
         }
+    }
 
-        @Override
-        public int compareTo(DijkstraNode other) {
-            return Double.compare(this.dist, other.dist);
+    /**
+     * A* from the spur node to the end with the exact distances to the end in the complete graph as estimate,
+     * skipping the blocked nodes and the blocked edges of the spur node. Blocking only makes paths longer, so
+     * the distances stay a lower bound and the search heads straight for the end: it only settles the nodes
+     * whose detour is shorter than that of the route it finds.
+     *
+     * @param spur             id of the node to start from
+     * @param end              id of the node to find the path to
+     * @param toEnd            distance of every node id to the end, infinity if the end cannot be reached
+     * @param blockedNodes     ids of the nodes the route may not visit
+     * @param blockedPositions positions of the edges of the spur node the route may not take
+     * @return the shortest route, or null if there is none
+     */
+    private Route spurRoute(int spur, int end, double[] toEnd, SaxBitSet blockedNodes, SaxBitSet blockedPositions) {
+        SaxIntDoubleMap dist = new SaxIntDoubleMap();
+        SaxIntIntMap prevNode = new SaxIntIntMap();
+        SaxIntIntMap prevEdge = new SaxIntIntMap();
+        SaxDoubleHeap queue = new SaxDoubleHeap();
+        dist.put(spur, 0.0);
+        queue.push(spur, toEnd[spur]);
+
+        while (queue.getSize() > 0) {
+            double estimate = queue.peekPriority();
+            int current = queue.pop();
+            double currentDist = dist.get(current);
+            if (estimate > currentDist + toEnd[current]) continue; // pushed before its distance improved
+            if (current == end) return toRoute(spur, end, prevNode, prevEdge, currentDist);
+
+            Node node = nodes.getElementAt(current);
+            for (int i = 0; i < node.degree; i++) {
+                int to = node.targets[i];
+                if (toEnd[to] == Double.POSITIVE_INFINITY || blockedNodes.get(to) || isDisabled(node, i)) continue;
+                if (current == spur && blockedPositions.get(i)) continue;
+                double newDist = currentDist + node.weights[i];
+                if (newDist < dist.getOrDefault(to, Double.POSITIVE_INFINITY)) {
+                    dist.putOrReplace(to, newDist);
+                    prevNode.putOrReplace(to, current);
+                    prevEdge.putOrReplace(to, i);
+                    queue.push(to, newDist + toEnd[to]);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Runs Dijkstra backwards from the end over the incoming edges, giving the distance of every node to it.
+     *
+     * @param end          id of the node to compute the distances to
+     * @param dist         distance of every node id to end, filled in; infinity if end cannot be reached
+     * @param nextNode     the node after every node id on a shortest path to end, filled in
+     * @param nextPosition position of the edge to that node, filled in
+     */
+    private void fillDistancesTo(int end, double[] dist, int[] nextNode, int[] nextPosition) {
+        for (int i = 0; i < dist.length; i++) {
+            dist[i] = Double.POSITIVE_INFINITY;
+        }
+        SaxIndexedHeap queue = new SaxIndexedHeap(dist.length);
+        dist[end] = 0.0;
+        queue.push(end, 0.0);
+        while (queue.getSize() > 0) {
+            int current = queue.pop();
+            Node node = nodes.getElementAt(current);
+            for (int i = 0; i < node.inDegree; i++) {
+                int from = node.sources[i];
+                int position = node.sourcePositions[i];
+                if (isDisabled(nodes.getElementAt(from), position)) continue;
+                double newDist = dist[current] + nodes.getElementAt(from).weights[position];
+                if (newDist < dist[from]) {
+                    dist[from] = newDist;
+                    nextNode[from] = current;
+                    nextPosition[from] = position;
+                    queue.update(from, newDist);
+                }
+            }
+        }
+    }
+
+    // The route from start to end over the predecessors found by a search
+    private Route toRoute(int start, int end, SaxIntIntMap prevNode, SaxIntIntMap prevEdge, double distance) {
+        int hops = 0;
+        for (int node = end; node != start; node = prevNode.get(node)) hops++;
+        int[] routeNodes = new int[hops + 1];
+        int[] routePositions = new int[hops];
+        routeNodes[hops] = end;
+        for (int node = end; node != start; node = prevNode.get(node)) {
+            routePositions[--hops] = prevEdge.get(node);
+            routeNodes[hops] = prevNode.get(node);
+        }
+        return new Route(routeNodes, routePositions, distance, 0);
+    }
+
+    // Create the Path with the DirectedEdge objects of a route
+    private Path toPath(Route route) {
+        SaxList<DirectedEdge> edges = new SaxList<>();
+        for (int i = 0; i < route.positions.length; i++) {
+            edges.addElement(nodes.getElementAt(route.nodes[i]).edge(route.positions[i]));
         }
+        return new Path(edges, route.distance);
     }
 
     /**
-     * Do a depth first traversal through the graph.
+     * Do a depth first traversal through the graph. Instead of recursion an explicit stack is used, so long
+     * chains of nodes cannot overflow the call stack; the edges are still visited in the recursive order.
      * @param startNode node to start searching
      * @return the list of edges
      * @throws IllegalArgumentException if startNode is null
@@ -290,29 +1096,41 @@ public class SaxGraph<V> implements SaxCollection<V> {
         if (startNode == null) throw new IllegalArgumentException("Start node is null");
 
         SaxList<DirectedEdge> result = new SaxList<>();
-        SaxSet<V> visited = new SaxHashSet<>();
-        dfsVisit(startNode, visited, result);
-        return result;
-    }
-
-    // Helper method
-    private void dfsVisit(V current, SaxSet<V> visited, SaxList<DirectedEdge> result) {
-        visited.add(current);
-
-        SaxList<DirectedEdge> edges = getEdges(current);
-        for (int i = 0; i < edges.getSize(); i++) {
-            DirectedEdge edge = edges.getElementAt(i);
-            V next = edge.to();
-            if (!visited.contains(next)) {
-                result.addElement(edge);
-                dfsVisit(next, visited, result);
+        Node start = findNode(startNode);
+        if (start == null) return result;
+
+        SaxBitSet visited = new SaxBitSet(nodes.getSize());
+        // for every node on the current path: its id and the position of the next edge to examine
+        SaxIntArrayList stack = new SaxIntArrayList();
+        SaxIntArrayList positions = new SaxIntArrayList();
+        visited.set(start.id);
+        stack.addElement(start.id);
+        positions.addElement(0);
+
+        while (stack.getSize() > 0) {
+            int top = stack.getSize() - 1;
+            Node node = nodes.getElementAt(stack.getElementAt(top));
+            int position = positions.getElementAt(top);
+            if (position == node.degree) {
+                stack.removeLastElement(); // all edges examined; go back
+                positions.removeLastElement();
+                continue;
+            }
+            positions.setElementAt(position + 1, top);
+            int next = node.targets[position];
+            if (!visited.get(next) && !isDisabled(node, position)) {
+                visited.set(next);
+                result.addElement(node.edge(position));
+                stack.addElement(next);
+                positions.addElement(0);
             }
         }
+        return result;
     }
 
 
     /**
-     * Do a depth first search through the graph.
+     * Do a depth first search through the graph, with an explicit stack like {@link #depthFirstTraversal(Object)}.
      * @param startNode node to start searching
      * @param endNode node to stop searching or null if all nodes must be returned
      * @return the list of edges
@@ -322,28 +1140,45 @@ public class SaxGraph<V> implements SaxCollection<V> {
         if (startNode == null || endNode == null)
             throw new IllegalArgumentException("Start or end node cannot be null");
 
-        SaxList<DirectedEdge> path = new SaxList<>();
-        SaxSet<V> visited = new SaxHashSet<>();
-        boolean found = dfsPath(startNode, endNode, visited, path);
-        return found ? path : new SaxList<>();
-    }
-
-    // Helper with backtracking
-    private boolean dfsPath(V current, V end, SaxSet<V> visited, SaxList<DirectedEdge> path) {
-        visited.add(current);
-        if (end != null && current.equals(end)) return true;
-
-        SaxList<DirectedEdge> edges = getEdges(current);
-        for (int i = 0; i < edges.getSize(); i++) {
-            DirectedEdge edge = edges.getElementAt(i);
-            V next = edge.to();
-            if (!visited.contains(next)) {
-                path.addElement(edge);
-                if (dfsPath(next, end, visited, path)) return true;
-                path.removeElementAt(path.getSize() - 1); // backtrack
+        Node start = findNode(startNode);
+        int end = idOf(endNode);
+        if (start == null || start.id == end) return new SaxList<>();
+
+        SaxBitSet visited = new SaxBitSet(nodes.getSize());
+        // the stack holds the nodes on the current path with the position of their next edge to examine;
+        // path holds the edges between them
+        SaxIntArrayList stack = new SaxIntArrayList();
+        SaxIntArrayList positions = new SaxIntArrayList();
+        SaxArrayList<DirectedEdge> path = new SaxArrayList<>(nodes.getSize());
+        visited.set(start.id);
+        stack.addElement(start.id);
+        positions.addElement(0);
+
+        while (stack.getSize() > 0) {
+            int top = stack.getSize() - 1;
+            Node node = nodes.getElementAt(stack.getElementAt(top));
+            int position = positions.getElementAt(top);
+            if (position == node.degree) {
+                stack.removeLastElement();
+                positions.removeLastElement();
+                if (path.getSize() > 0) path.removeElementAt(path.getSize() - 1); // backtrack
+                continue;
+            }
+            positions.setElementAt(position + 1, top);
+            int next = node.targets[position];
+            if (!visited.get(next) && !isDisabled(node, position)) {
+                visited.set(next);
+                path.addElement(node.edge(position));
+                if (next == end) {
+                    SaxList<DirectedEdge> result = new SaxList<>();
+                    for (DirectedEdge e : path) result.addElement(e);
+                    return result;
+                }
+                stack.addElement(next);
+                positions.addElement(0);
             }
         }
-        return end == null; // return true if end == null (traversal mode)
+        return new SaxList<>();
     }
 
 
@@ -353,10 +1188,9 @@ public class SaxGraph<V> implements SaxCollection<V> {
      */
     public SaxList<DirectedEdge> getEdges() {
         SaxList<DirectedEdge> all = new SaxList<>();
-        for (int i = 0; i < nodes.getSize(); i++) {
-            Node node = nodes.getElementAt(i);
-            for (int j = 0; j < node.edges.getSize(); j++) {
-                all.addElement(node.edges.getElementAt(j));
+        for (Node node : nodes) {
+            for (int i = 0; i < node.degree; i++) {
+                all.addElement(node.edge(i));
             }
         }
         return all;
@@ -372,38 +1206,40 @@ public class SaxGraph<V> implements SaxCollection<V> {
      */
     public SaxGraph<V> minimumCostSpanningTree() {
         SaxGraph<V> result = new SaxGraph<>();
-        SaxSet<V> visited = new SaxHashSet<>();
+        SaxBitSet visited = new SaxBitSet(nodes.getSize());
+        // Prim's algorithm: the queue holds every reached node with the weight of its cheapest connecting edge
+        SaxIndexedHeap queue = new SaxIndexedHeap(nodes.getSize());
+        // the node the cheapest connecting edge of every queued node comes from, and its weight
+        int[] cheapestFrom = new int[nodes.getSize()];
+        double[] cheapestWeight = new double[nodes.getSize()];
 
         for (int i = 0; i < nodes.getSize(); i++) {
-            V start = nodes.getElementAt(i).value;
-            if (visited.contains(start)) continue;
-
-            // Prim's Algorithm using a Heap
-            Comparator<DirectedEdge> comp = Comparator.comparingDouble(DirectedEdge::weight);
-            SaxHeap<DirectedEdge> edgesHeap = new SaxHeap<>(comp);
-
-            visited.add(start);
-            result.addNode(start);
-            for (int j = 0; j < getEdges(start).getSize(); j++) {
-                edgesHeap.push(getEdges(start).getElementAt(j));
-            }
-
-            while (edgesHeap.getSize() > 0) {
-                DirectedEdge edge = edgesHeap.pop();
-                V to = edge.to();
-
-                if (visited.contains(to)) continue;
-
-                visited.add(to);
-                result.addNode(to);
-                result.addEdge(edge.from(), edge.to(), edge.weight());
-
-                SaxList<DirectedEdge> toEdges = getEdges(to);
-                for (int j = 0; j < toEdges.getSize(); j++) {
-                    DirectedEdge nextEdge = toEdges.getElementAt(j);
-                    if (!visited.contains(nextEdge.to())) {
-                        edgesHeap.push(nextEdge);
+            if (visited.get(i)) continue;
+            queue.push(i, 0.0);
+            cheapestFrom[i] = -1;
+
+            while (queue.getSize() > 0) {
+                Node current = nodes.getElementAt(queue.pop());
+                visited.set(current.id);
+                result.addNode(current.value);
+
+                int via = cheapestFrom[current.id];
+                if (via >= 0) result.addEdge(valueAt(via), current.value, cheapestWeight[current.id]);
+
+                for (int j = 0; j < current.degree; j++) {
+                    int to = current.targets[j];
+                    double weight = current.weights[j];
+                    if (visited.get(to) || isDisabled(current, j)) continue;
+
+                    if (!queue.contains(to)) {
+                        queue.push(to, weight);
+                    } else if (weight < queue.getPriority(to)) {
+                        queue.decreaseKey(to, weight);
+                    } else {
+                        continue;
                     }
+                    cheapestFrom[to] = current.id;
+                    cheapestWeight[to] = weight;
                 }
             }
         }
@@ -421,57 +1257,40 @@ public class SaxGraph<V> implements SaxCollection<V> {
     public SaxQueue<SaxList<DirectedEdge>> roundTrip(SaxList<V> nodes) {
         SaxQueue<SaxList<DirectedEdge>> trip = new SaxQueue<>();
 
-        for (int i = 0; i < nodes.getSize() - 1; i++) {
-            V from = nodes.getElementAt(i);
-            V to = nodes.getElementAt(i + 1);
-
-            // Run Dijkstra and build 'prev' map
-            SaxHashMap<V, DirectedEdge> prev = new SaxHashMap<>();
-            SaxHashMap<V, Double> dist = new SaxHashMap<>();
-            SaxHeap<DijkstraNode> heap = new SaxHeap<>(DijkstraNode::compareTo);
-            SaxSet<V> visited = new SaxHashSet<>();
-
-            dist.put(from, 0.0);
-            heap.push(new DijkstraNode(from, 0.0));
-
-            while (heap.getSize() > 0) {
-                DijkstraNode current = heap.pop();
-                if (visited.contains(current.node)) continue;
-                visited.add(current.node);
-
-                SaxList<DirectedEdge> edges = getEdges(current.node);
-                for (int j = 0; j < edges.getSize(); j++) {
-                    DirectedEdge e = edges.getElementAt(j);
-                    double newDist = dist.get(current.node) + e.weight();
-                    if (!dist.containsKey(e.to()) || newDist < dist.get(e.to())) {
-                        dist.put(e.to(), newDist);
-                        prev.put(e.to(), e);
-                        heap.push(new DijkstraNode(e.to(), newDist));
-                    }
-                }
-            }
-
-            // Now backtrack using prev
-            SaxList<DirectedEdge> leg = new SaxList<>();
-            V current = to;
+        Iterator<V> stops = nodes.iterator();
+        V to = stops.hasNext() ? stops.next() : null;
+        while (stops.hasNext()) {
+            V from = to;
+            to = stops.next();
 
-            while (!current.equals(from)) {
-                if (!prev.containsKey(current)) {
-                    System.out.println(" No path found from " + from + " to " + to + " — aborting leg.");
-                    break;
-                }
-                DirectedEdge edge = prev.get(current);
-                leg.addElementAt(edge, 0);
-                current = edge.from();
+            Path path = shortestPath(from, to);
+            if (!path.isFound()) {
+                System.out.println(" No path found from " + from + " to " + to + " — aborting leg.");
             }
-
-            trip.push(leg);
+            trip.push(path.edges());
         }
 
         return trip;
     }
 
 
+    /**
+     * Rebuilds a path found by a search by walking back from end over the predecessor maps.
+     *
+     * @param start    id of the start node
+     * @param end      id of the end node
+     * @param prevNode id of the previous node of every reached node
+     * @param prevEdge position of the edge from the previous node in its edge list
+     * @return the edges from start to end
+     */
+    private SaxList<DirectedEdge> buildPath(int start, int end, SaxIntIntMap prevNode, SaxIntIntMap prevEdge) {
+        SaxList<DirectedEdge> path = new SaxList<>();
+        for (int node = end; node != start; node = prevNode.get(node)) {
+            path.addElementAt(nodes.getElementAt(prevNode.get(node)).edge(prevEdge.get(node)), 0); // prepend
+        }
+        return path;
+    }
+
     /**
      * Execute the A* algorithm to determine the shortest path from startNode to endNode.
      *
@@ -485,60 +1304,154 @@ public class SaxGraph<V> implements SaxCollection<V> {
         if (startNode == null || endNode == null || estimator == null)
             throw new IllegalArgumentException("Start, end, or estimator is null");
 
-        SaxHashMap<V, Double> gScore = new SaxHashMap<>();
-        SaxHashMap<V, Double> fScore = new SaxHashMap<>();
-        SaxHashMap<V, DirectedEdge> cameFrom = new SaxHashMap<>();
-        SaxSet<V> visited = new SaxHashSet<>();
+        Node start = findNode(startNode);
+        Node end = findNode(endNode);
+        if (start == null || end == null) return new SaxList<>();
 
-        Comparator<V> comp = Comparator.comparingDouble(fScore::get);
-        SaxHeap<V> openSet = new SaxHeap<>(comp);
+        SaxIntDoubleMap gScore = new SaxIntDoubleMap();
+        SaxIntIntMap prevNode = new SaxIntIntMap();
+        SaxIntIntMap prevEdge = new SaxIntIntMap();
+        // the open set stores the f-score (g + estimate) of a node as its priority, fixed at the moment the node
+        // is queued or improved; openF remembers the latest f-score of every open node, so older heap entries
+        // and entries of nodes that were expanded since are recognised and skipped
+        SaxDoubleHeap openSet = new SaxDoubleHeap();
+        SaxIntDoubleMap openF = new SaxIntDoubleMap();
 
-        gScore.put(startNode, 0.0);
-        fScore.put(startNode, estimator.estimate(startNode, endNode));
-        openSet.push(startNode);
+        double startF = estimator.estimate(startNode, endNode);
+        gScore.put(start.id, 0.0);
+        openF.put(start.id, startF);
+        openSet.push(start.id, startF);
 
         while (openSet.getSize() > 0) {
-            V current = openSet.pop();
-
-            if (current.equals(endNode)) {
-                // Reconstruct path
-                SaxList<DirectedEdge> path = new SaxList<>();
-                V node = endNode;
-                while (!node.equals(startNode)) {
-                    DirectedEdge edge = cameFrom.get(node);
-                    path.addElementAt(edge, 0); // prepend
-                    node = edge.from();
+            double f = openSet.peekPriority();
+            int current = openSet.pop();
+            if (!openF.containsKey(current) || openF.get(current) != f) continue;
+            openF.remove(current);
+
+            if (current == end.id) return buildPath(start.id, end.id, prevNode, prevEdge);
+
+            double currentG = gScore.get(current);
+            Node node = nodes.getElementAt(current);
+            for (int i = 0; i < node.degree; i++) {
+                if (isDisabled(node, i)) continue;
+                int neighbor = node.targets[i];
+
+                // a node that was already expanded is opened again if a shorter path to it turns up,
+                // which keeps the result optimal for estimators that are admissible but not consistent
+                double tentativeG = currentG + node.weights[i];
+                if (tentativeG < gScore.getOrDefault(neighbor, Double.POSITIVE_INFINITY)) {
+                    double neighborF = tentativeG + estimator.estimate(valueAt(neighbor), endNode);
+                    gScore.putOrReplace(neighbor, tentativeG);
+                    prevNode.putOrReplace(neighbor, current);
+                    prevEdge.putOrReplace(neighbor, i);
+                    openF.putOrReplace(neighbor, neighborF);
+                    openSet.push(neighbor, neighborF);
                 }
-                return path;
             }
+        }
+        return new SaxList<>();
+    }
 
-            visited.add(current);
 
-            SaxList<DirectedEdge> edges = getEdges(current);
-            for (int i = 0; i < edges.getSize(); i++) {
-                DirectedEdge edge = edges.getElementAt(i);
-                V neighbor = edge.to();
-                if (visited.contains(neighbor)) continue;
+    @FunctionalInterface
+    public interface Estimator<T> {
+        double estimate(T current, T target);
+    }
 
-                double tentativeG = gScore.get(current) + edge.weight();
-                if (!gScore.containsKey(neighbor) || tentativeG < gScore.get(neighbor)) {
-                    cameFrom.put(neighbor, edge);
-                    gScore.put(neighbor, tentativeG);
-                    fScore.put(neighbor, tentativeG + estimator.estimate(neighbor, endNode));
+    /**
+     * A path on node ids, used while searching: the path visits nodes[0], nodes[1], ... and goes from nodes[i]
+     * to nodes[i + 1] over the edge at position positions[i] of nodes[i]. A route found by Yen's algorithm
+     * remembers the index of the node where it deviated from the path it was derived from. Two routes are equal
+     * when they use the same edges.
+     */
+    private static final class Route {
+        final int[] nodes;
+        final int[] positions;
+        final double distance;
+        final int deviation;
+
+        Route(int[] nodes, int[] positions, double distance, int deviation) {
+            this.nodes = nodes;
+            this.positions = positions;
+            this.distance = distance;
+            this.deviation = deviation;
+        }
 
-                    if (!openSet.contains(neighbor)) {
-                        openSet.push(neighbor);
-                    }
-                }
+        /**
+         * @param other a route from the same start
+         * @param spur  index of a node in the other route
+         * @return true if this route leaves node spur after the same edges as the other route
+         */
+        boolean sharesRoot(Route other, int spur) {
+            if (positions.length <= spur) return false;
+            for (int m = 0; m < spur; m++) {
+                if (nodes[m] != other.nodes[m] || positions[m] != other.positions[m]) return false;
             }
+            return nodes[spur] == other.nodes[spur];
+        }
+
+        /**
+         * @param spur         index of the node where the spur route starts
+         * @param rootDistance length of this route up to that node
+         * @param spurRoute    route from that node onwards
+         * @return this route up to the spur node, followed by the spur route
+         */
+        Route join(int spur, double rootDistance, Route spurRoute) {
+            int[] joinedNodes = new int[spur + spurRoute.nodes.length];
+            int[] joinedPositions = new int[spur + spurRoute.positions.length];
+            System.arraycopy(nodes, 0, joinedNodes, 0, spur);
+            System.arraycopy(spurRoute.nodes, 0, joinedNodes, spur, spurRoute.nodes.length);
+            System.arraycopy(positions, 0, joinedPositions, 0, spur);
+            System.arraycopy(spurRoute.positions, 0, joinedPositions, spur, spurRoute.positions.length);
+            return new Route(joinedNodes, joinedPositions, rootDistance + spurRoute.distance, spur);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Route other && Arrays.equals(nodes, other.nodes) && Arrays.equals(positions, other.positions);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(nodes) + Arrays.hashCode(positions);
         }
-        return new SaxList<>();
     }
 
+    /**
+     * A path through the graph: the edges from start to end and their total weight.
+     */
+    public final class Path {
+        private final SaxList<DirectedEdge> edges;
+        private final double distance;
 
-    @FunctionalInterface
-    public interface Estimator<T> {
-        double estimate(T current, T target);
+        /**
+         * @param edges    edges of the path, in order from start to end
+         * @param distance total weight of the edges, or infinity if no path exists
+         */
+        Path(SaxList<DirectedEdge> edges, double distance) {
+            this.edges = edges;
+            this.distance = distance;
+        }
+
+        public SaxList<DirectedEdge> edges() {
+            return edges;
+        }
+
+        public double distance() {
+            return distance;
+        }
+
+        /**
+         * @return true if the end node can be reached (also when start and end are the same node)
+         */
+        public boolean isFound() {
+            return distance != Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public String toString() {
+            return edges + " (" + distance + ")";
+        }
     }
 
     /**
@@ -548,15 +1461,23 @@ public class SaxGraph<V> implements SaxCollection<V> {
         private final V from;
         private final V to;
         private final double weight;
+        // id of the edge in the graph, -1 for edges made outside the graph
+        private final int id;
         /**
          * @param from   from node
          * @param to     to node
          * @param weight weight
          */
         public DirectedEdge(V from, V to, double weight) {
+            this(from, to, weight, -1);
+        }
+
+        // An edge of the graph with its id
+        DirectedEdge(V from, V to, double weight, int id) {
             this.from = from;
             this.to = to;
             this.weight = weight;
+            this.id = id;
         }
 
         public V from() {
@@ -571,6 +1492,17 @@ public class SaxGraph<V> implements SaxCollection<V> {
             return weight;
         }
 
+        /**
+         * Returns the id of this edge in the graph, the id {@link GraphMask#disableEdge(int)} takes. Edges read
+         * from the graph ({@link #getEdges(Object)}, paths and traversals of a {@link SaxGraph}) have one; the
+         * edges of result graphs have their own ids in those graphs.
+         *
+         * @return the edge id, or -1 if the edge was not read from a graph
+         */
+        public int id() {
+            return id;
+        }
+
         public int compare(DirectedEdge o2) {
             return Double.compare(this.weight, o2.weight);
         }
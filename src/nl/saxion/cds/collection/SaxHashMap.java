@@ -4,6 +4,9 @@ import nl.saxion.cds.collection.exceptions.DuplicateKeyException;
 import nl.saxion.cds.collection.exceptions.KeyNotFoundException;
 
 import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Simple hash map implementation using separate chaining with {@link SaxList}.
@@ -90,10 +93,11 @@ public class SaxHashMap<K, T> implements SaxCollection<T> {
         sb.append("  node [shape=record];\n");
         for (int i = 0; i < buckets.length; i++) {
             sb.append("  bucket").append(i).append(" [label=\"{").append(i).append(" | ");
-            for (int j = 0; j < buckets[i].getSize(); j++) {
-                Entry<K, T> e = buckets[i].getElementAt(j);
+            Iterator<Entry<K, T>> entries = buckets[i].iterator();
+            while (entries.hasNext()) {
+                Entry<K, T> e = entries.next();
                 sb.append(e.key).append(" → ").append(e.value);
-                if (j < buckets[i].getSize() - 1) sb.append(" | ");
+                if (entries.hasNext()) sb.append(" | ");
             }
             sb.append("}\"];\n");
         }
@@ -119,15 +123,7 @@ public class SaxHashMap<K, T> implements SaxCollection<T> {
      * @return {@code true} if the key exists, {@code false} otherwise
      */
     public boolean containsKey(K key) {
-        int index = getIndex(key);
-        SaxList<Entry<K, T>> bucket = buckets[index];
-        for (int i = 0; i < bucket.getSize(); i++) {
-            Entry<K, T> entry = bucket.getElementAt(i);
-            if (entry.key.equals(key)) {
-                return true;
-            }
-        }
-        return false;
+        return findEntry(key) != null;
     }
 
     /**
@@ -138,15 +134,9 @@ public class SaxHashMap<K, T> implements SaxCollection<T> {
      * @throws KeyNotFoundException if the key does not exist
      */
     public T get(K key) {
-        int index = getIndex(key);
-        SaxList<Entry<K, T>> bucket = buckets[index];
-        for (int i = 0; i < bucket.getSize(); i++) {
-            Entry<K, T> entry = bucket.getElementAt(i);
-            if (entry.key.equals(key)) {
-                return entry.value;
-            }
-        }
-        throw new KeyNotFoundException(key.toString());
+        Entry<K, T> entry = findEntry(key);
+        if (entry == null) throw new KeyNotFoundException(key.toString());
+        return entry.value;
     }
 
     /**
@@ -157,17 +147,90 @@ public class SaxHashMap<K, T> implements SaxCollection<T> {
      * @throws DuplicateKeyException if the key already exists
      */
     public void put(K key, T value) throws DuplicateKeyException {
-        int index = getIndex(key);
-        SaxList<Entry<K, T>> bucket = buckets[index];
+        if (findEntry(key) != null) throw new DuplicateKeyException(key.toString());
+        addEntry(key, value);
+    }
 
-        for (int i = 0; i < bucket.getSize(); i++) {
-            Entry<K, T> entry = bucket.getElementAt(i);
-            if (entry.key.equals(key)) {
-                throw new DuplicateKeyException(key.toString());
-            }
+    /**
+     * Inserts a mapping, replacing the value if the key already exists. Scans the bucket only once.
+     *
+     * @param key   the key
+     * @param value the value to associate with the key
+     * @return the value that was replaced, or null if the key was new
+     */
+    public T putOrReplace(K key, T value) {
+        Entry<K, T> entry = findEntry(key);
+        if (entry != null) {
+            T old = entry.value;
+            entry.value = value;
+            return old;
+        }
+        addEntry(key, value);
+        return null;
+    }
+
+    /**
+     * Retrieves the value mapped to the specified key, or a default if the key does not exist.
+     *
+     * @param key          the key whose associated value is to be returned
+     * @param defaultValue value to return if the key does not exist
+     * @return the mapped value or defaultValue
+     */
+    public T getOrDefault(K key, T defaultValue) {
+        Entry<K, T> entry = findEntry(key);
+        return entry != null ? entry.value : defaultValue;
+    }
+
+    /**
+     * Returns the value mapped to the key; if the key does not exist, the value is created, stored and returned.
+     *
+     * @param key     the key
+     * @param creator creates the value from the key, only called when the key does not exist
+     * @return the existing or the created value
+     */
+    public T computeIfAbsent(K key, Function<K, T> creator) {
+        Entry<K, T> entry = findEntry(key);
+        if (entry != null) return entry.value;
+        T value = creator.apply(key);
+        addEntry(key, value);
+        return value;
+    }
+
+    /**
+     * Stores the value if the key does not exist, otherwise combines the existing value with it.
+     *
+     * @param key      the key
+     * @param value    the value to store or combine
+     * @param combiner combines the existing value (first argument) with the given value
+     * @return the value now mapped to the key
+     */
+    public T merge(K key, T value, BiFunction<T, T, T> combiner) {
+        Entry<K, T> entry = findEntry(key);
+        if (entry == null) {
+            addEntry(key, value);
+            return value;
+        }
+        entry.value = combiner.apply(entry.value, value);
+        return entry.value;
+    }
+
+    /**
+     * Looks up the entry for a key in its bucket.
+     *
+     * @param key the key
+     * @return the entry, or null if the key does not exist
+     */
+    private Entry<K, T> findEntry(K key) {
+        SaxList<Entry<K, T>> bucket = buckets[getIndex(key)];
+        for (Entry<K, T> entry : bucket) {
+            if (entry.key.equals(key)) return entry;
         }
+        return null;
+    }
 
-        bucket.addElement(new Entry<>(key, value));
+    // Add an entry for a key that does not exist yet
+    private void addEntry(K key, T value) {
+        buckets[getIndex(key)].addElement(new Entry<>(key, value));
         size++;
     }
 
@@ -182,10 +245,11 @@ public class SaxHashMap<K, T> implements SaxCollection<T> {
         int index = getIndex(key);
         SaxList<Entry<K, T>> bucket = buckets[index];
 
-        for (int i = 0; i < bucket.getSize(); i++) {
-            Entry<K, T> entry = bucket.getElementAt(i);
+        ListIterator<Entry<K, T>> entries = bucket.listIterator();
+        while (entries.hasNext()) {
+            Entry<K, T> entry = entries.next();
             if (entry.key.equals(key)) {
-                bucket.removeElementAt(i);
+                entries.remove();
                 size--;
                 return entry.value;
             }
@@ -202,8 +266,8 @@ public class SaxHashMap<K, T> implements SaxCollection<T> {
     public SaxList<K> getKeys() {
         SaxList<K> keys = new SaxList<>();
         for (SaxList<Entry<K, T>> bucket : buckets) {
-            for (int i = 0; i < bucket.getSize(); i++) {
-                keys.addElement(bucket.getElementAt(i).key);
+            for (Entry<K, T> entry : bucket) {
+                keys.addElement(entry.key);
             }
         }
         return keys;
@@ -219,26 +283,21 @@ public class SaxHashMap<K, T> implements SaxCollection<T> {
     public Iterator<T> iterator() {
         return new Iterator<>() {
             int outer = 0;
-            int inner = 0;
+            Iterator<Entry<K, T>> inner = buckets[0].iterator();
 
             @Override
             public boolean hasNext() {
-                while (outer < buckets.length) {
-                    if (inner < buckets[outer].getSize()) {
-                        return true;
-                    } else {
-                        outer++;
-                        inner = 0;
-                    }
+                while (!inner.hasNext()) {
+                    if (outer == buckets.length - 1) return false;
+                    inner = buckets[++outer].iterator();
                 }
-                return false;
+                return true;
             }
 
             @Override
             public T next() {
-                T value = buckets[outer].getElementAt(inner).value;
-                inner++;
-                return value;
+                if (!hasNext()) throw new IndexOutOfBoundsException();
+                return inner.next().value;
             }
         };
     }
@@ -251,7 +310,7 @@ public class SaxHashMap<K, T> implements SaxCollection<T> {
      */
     private static class Entry<K, T> {
         final K key;
-        final T value;
+        T value;
 
         Entry(K key, T value) {
             this.key = key;
@@ -4,13 +4,11 @@ package nl.saxion.cds.collection;
 
 public class SaxHashSet<V> implements SaxSet<V> {
 
-    private final SaxHashMap<V, Boolean> map = new SaxHashMap<>();
+    private final SaxOpenHashMap<V, Boolean> map = new SaxOpenHashMap<>();
 
     @Override
     public void add(V value) {
-        if (!contains(value)) {
-            map.put(value, true);
-        }
+        map.putOrReplace(value, true);
     }
 
     @Override
@@ -0,0 +1,280 @@
+package nl.saxion.cds.collection;
+
+import nl.saxion.cds.collection.exceptions.ElementNotFoundException;
+import nl.saxion.cds.collection.exceptions.EmptyCollectionException;
+
+import java.util.Iterator;
+
+/**
+ * Indexed binary min-heap of integer indices (0 up to the capacity) with a double priority each.
+ * <p>
+ * Next to the heap array, the position of every index in the heap is tracked, so {@link #contains(int)}
+ * is O(1) and the priority of an index already in the heap can be changed in O(log n) with
+ * {@link #decreaseKey(int, double)} or {@link #update(int, double)}. Each index is at most once in the heap,
+ * so the heap never grows beyond its capacity. Graph algorithms use the dense node ids as indices.
+ * </p>
+ * Example:
+ * <pre>
+ *     SaxIndexedHeap queue = new SaxIndexedHeap(graphSize);
+ *     queue.push(startId, 0.0);
+ *     queue.decreaseKey(otherId, 4.2);
+ *     int nearest = queue.pop();
+ * </pre>
+ */
+public class SaxIndexedHeap implements SaxCollection<Integer> {
+    // heap[i] holds an index; the heap order is determined by priorities[heap[i]]
+    private final int[] heap;
+    // positions[index] is the place of index in heap, or -1 if the index is not in the heap
+    private final int[] positions;
+    private final double[] priorities;
+    private int size = 0;
+
+    /**
+     * Creates an empty heap for the indices 0 up to (not including) capacity.
+     *
+     * @param capacity number of different indices this heap can hold
+     */
+    public SaxIndexedHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        priorities = new double[capacity];
+        for (int i = 0; i < capacity; i++) {
+            positions[i] = -1;
+        }
+    }
+
+    /**
+     * Returns the current number of indices in the heap.
+     *
+     * @return number of indices
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of different indices this heap can hold.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return heap.length;
+    }
+
+    /**
+     * Removes all indices from the heap.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Checks if the given index is in the heap.
+     *
+     * @param index the index to check for
+     * @return true if the index is in the heap, false otherwise (also for indices outside the capacity)
+     */
+    public boolean contains(int index) {
+        return index >= 0 && index < positions.length && positions[index] >= 0;
+    }
+
+    /**
+     * Returns the priority of an index in the heap.
+     *
+     * @param index the index
+     * @return its current priority
+     * @throws ElementNotFoundException if the index is not in the heap
+     */
+    public double getPriority(int index) throws ElementNotFoundException {
+        if (!contains(index)) throw new ElementNotFoundException(Integer.toString(index));
+        return priorities[index];
+    }
+
+    /**
+     * Adds an index with the given priority to the heap.
+     *
+     * @param index    index to insert
+     * @param priority its priority (lower comes first)
+     * @throws IndexOutOfBoundsException if the index is outside the capacity
+     * @throws IllegalArgumentException  if the index is already in the heap
+     */
+    public void push(int index, double priority) throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (index < 0 || index >= positions.length) throw new IndexOutOfBoundsException(Integer.toString(index));
+        if (positions[index] >= 0) throw new IllegalArgumentException("Index already in heap: " + index);
+
+        priorities[index] = priority;
+        heap[size] = index;
+        positions[index] = size;
+        percolateUp(size++);
+    }
+
+    /**
+     * Lowers the priority of an index in the heap.
+     *
+     * @param index    index in the heap
+     * @param priority the new priority, which may not be higher than the current one
+     * @throws ElementNotFoundException if the index is not in the heap
+     * @throws IllegalArgumentException if the new priority is higher than the current one
+     */
+    public void decreaseKey(int index, double priority) throws ElementNotFoundException, IllegalArgumentException {
+        if (!contains(index)) throw new ElementNotFoundException(Integer.toString(index));
+        if (priority > priorities[index])
+            throw new IllegalArgumentException("Priority " + priority + " is higher than " + priorities[index]);
+        priorities[index] = priority;
+        percolateUp(positions[index]);
+    }
+
+    /**
+     * Sets the priority of an index; the index is added if it is not in the heap yet.
+     *
+     * @param index    index to add or update
+     * @param priority its new priority
+     * @throws IndexOutOfBoundsException if the index is outside the capacity
+     */
+    public void update(int index, double priority) throws IndexOutOfBoundsException {
+        if (!contains(index)) {
+            push(index, priority);
+            return;
+        }
+        double old = priorities[index];
+        priorities[index] = priority;
+        if (priority < old) percolateUp(positions[index]);
+        else percolateDown(positions[index]);
+    }
+
+    /**
+     * Returns the index with the lowest priority without removing it.
+     *
+     * @return index at the root
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    public int peek() throws EmptyCollectionException {
+        if (size == 0) throw new EmptyCollectionException();
+        return heap[0];
+    }
+
+    /**
+     * Returns the lowest priority in the heap.
+     *
+     * @return priority of the root
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    public double peekPriority() throws EmptyCollectionException {
+        return priorities[peek()];
+    }
+
+    /**
+     * Removes and returns the index with the lowest priority.
+     *
+     * @return index that was at the root
+     * @throws EmptyCollectionException if the heap is empty
+     */
+    public int pop() throws EmptyCollectionException {
+        int root = peek();
+        size--;
+        if (size > 0) {
+            moveTo(heap[size], 0);
+            percolateDown(0);
+        }
+        positions[root] = -1;
+        return root;
+    }
+
+    /**
+     * Returns a simple string representation of the heap.
+     *
+     * @return string with indices in array order
+     */
+    @Override
+    public String toString() {
+        return defaultToString();
+    }
+
+    /**
+     * Returns a GraphViz DOT representation of the heap (for visual debugging).
+     *
+     * @param name name of the graph
+     * @return DOT representation as a string
+     */
+    @IgnoreCoverage
+    @Override
+    public String graphViz(String name) {
+        StringBuilder sb = new StringBuilder("digraph ").append(name).append(" {\n");
+        for (int i = 0; i < size; i++) {
+            sb.append("  ").append(heap[i]).append(" [label=\"").append(heap[i])
+                    .append(" (").append(priorities[heap[i]]).append(")\"];\n");
+            for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                sb.append("  ").append(heap[i]).append(" -> ").append(heap[child]).append(";\n");
+            }
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Iterator that traverses the indices in array order (not sorted).
+     *
+     * @return iterator over the indices in the heap
+     */
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                return position < size;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) throw new IndexOutOfBoundsException();
+                return heap[position++];
+            }
+        };
+    }
+
+    // Place an index at a heap position and remember that position
+    private void moveTo(int index, int position) {
+        heap[position] = index;
+        positions[index] = position;
+    }
+
+    /**
+     * Moves an index upwards until heap order is restored.
+     */
+    private void percolateUp(int position) {
+        int index = heap[position];
+        double priority = priorities[index];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (priority >= priorities[heap[parent]]) break;
+            moveTo(heap[parent], position);
+            position = parent;
+        }
+        moveTo(index, position);
+    }
+
+    /**
+     * Moves an index downwards until heap order is restored.
+     */
+    private void percolateDown(int position) {
+        int index = heap[position];
+        double priority = priorities[index];
+        while (true) {
+            int smallest = 2 * position + 1;
+            if (smallest >= size) break;
+            int right = smallest + 1;
+            if (right < size && priorities[heap[right]] < priorities[heap[smallest]]) smallest = right;
+            if (priority <= priorities[heap[smallest]]) break;
+            moveTo(heap[smallest], position);
+            position = smallest;
+        }
+        moveTo(index, position);
+    }
+}
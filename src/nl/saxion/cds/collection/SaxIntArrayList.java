@@ -0,0 +1,145 @@
+package nl.saxion.cds.collection;
+
+import java.util.Iterator;
+
+/**
+ * Growable list of ints in a primitive array, for node ids and other int data without boxing.
+ * <p>
+ * Adding to the end is amortised O(1): the array doubles when it is full. Iterating the list gives the
+ * elements boxed; use {@link #getElementAt(int)} in loops that must not allocate.
+ * </p>
+ */
+public class SaxIntArrayList implements SaxCollection<Integer> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private int[] elements;
+    private int size = 0;
+
+    /**
+     * Constructs an empty list with room for 16 elements before it grows.
+     */
+    public SaxIntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty list with room for the given number of elements before it grows.
+     *
+     * @param capacity initial capacity; if less than or equal to 0, 16 will be used
+     */
+    public SaxIntArrayList(int capacity) {
+        elements = new int[capacity <= 0 ? DEFAULT_CAPACITY : capacity];
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Removes all elements; the array keeps its size.
+     */
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds an element to the end of the list.
+     *
+     * @param element the element to add
+     */
+    public void addElement(int element) {
+        if (size == elements.length) {
+            int[] grown = new int[elements.length * 2];
+            System.arraycopy(elements, 0, grown, 0, size);
+            elements = grown;
+        }
+        elements[size++] = element;
+    }
+
+    /**
+     * Returns the element at the given index.
+     *
+     * @param index index of the element
+     * @return the element
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public int getElementAt(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * Replaces the element at the given index.
+     *
+     * @param element the new element
+     * @param index   index of the element
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public void setElementAt(int element, int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        elements[index] = element;
+    }
+
+    /**
+     * Removes and returns the last element.
+     *
+     * @return the element that was last
+     * @throws IndexOutOfBoundsException if the list is empty
+     */
+    public int removeLastElement() throws IndexOutOfBoundsException {
+        if (size == 0) throw new IndexOutOfBoundsException("empty collection");
+        return elements[--size];
+    }
+
+    /**
+     * Returns a copy of the elements as an array of exactly the list size.
+     *
+     * @return the elements
+     */
+    public int[] toArray() {
+        int[] copy = new int[size];
+        System.arraycopy(elements, 0, copy, 0, size);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return defaultToString();
+    }
+
+    @IgnoreCoverage
+    @Override
+    public String graphViz(String name) {
+        StringBuilder sb = new StringBuilder("digraph ").append(name).append(" {\n");
+        sb.append("  node [shape=record];\n  list [label=\"");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(" | ");
+            sb.append(elements[i]);
+        }
+        sb.append("\"];\n}\n");
+        return sb.toString();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) throw new IndexOutOfBoundsException();
+                return elements[index++];
+            }
+        };
+    }
+
+    private void checkIndex(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(Integer.toString(index));
+    }
+}
@@ -0,0 +1,273 @@
+package nl.saxion.cds.collection;
+
+import nl.saxion.cds.collection.exceptions.DuplicateKeyException;
+import nl.saxion.cds.collection.exceptions.KeyNotFoundException;
+
+import java.util.Iterator;
+
+/**
+ * Hash map from int keys to double values without boxing, for graph algorithms that work with node ids.
+ * <p>
+ * Keys and values are kept in flat primitive arrays and found with linear probing, in the same way as
+ * {@link SaxOpenHashMap}; a separate array marks the used slots, so every int can be a key. Storing or updating
+ * a value allocates nothing, except when the table doubles because it got more than three quarters full.
+ * </p>
+ * Iterating the map gives the keys (boxed).
+ */
+public class SaxIntDoubleMap implements SaxCollection<Integer> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private int[] keys;
+    private double[] values;
+    private boolean[] used;
+    private int size;
+
+    /**
+     * Constructs a new map with room for 16 entries before it grows.
+     */
+    public SaxIntDoubleMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new map with room for the given number of entries before it grows.
+     *
+     * @param capacity expected number of entries; if less than or equal to 0, 16 will be used
+     */
+    public SaxIntDoubleMap(int capacity) {
+        if (capacity <= 0) capacity = DEFAULT_CAPACITY;
+        int slots = 2;
+        while (slots * 3 / 4 < capacity) slots *= 2;
+        allocate(slots);
+    }
+
+    /**
+     * Returns the number of key-value pairs stored in this map.
+     *
+     * @return the current size
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots in the table; it doubles when more than three quarters are used.
+     *
+     * @return the table length
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    /**
+     * Removes all mappings from this map; the table keeps its size.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < used.length; i++) {
+            used[i] = false;
+        }
+        size = 0;
+    }
+
+    /**
+     * Checks whether this map contains the specified key.
+     *
+     * @param key key whose presence is to be tested
+     * @return {@code true} if the key exists, {@code false} otherwise
+     */
+    public boolean containsKey(int key) {
+        return used[find(key)];
+    }
+
+    /**
+     * Retrieves the value mapped to the specified key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value mapped to the specified key
+     * @throws KeyNotFoundException if the key does not exist
+     */
+    public double get(int key) throws KeyNotFoundException {
+        int slot = find(key);
+        if (!used[slot]) throw new KeyNotFoundException(Integer.toString(key));
+        return values[slot];
+    }
+
+    /**
+     * Retrieves the value mapped to the specified key, or a default if the key does not exist.
+     *
+     * @param key          the key whose associated value is to be returned
+     * @param defaultValue value to return if the key does not exist
+     * @return the mapped value or defaultValue
+     */
+    public double getOrDefault(int key, double defaultValue) {
+        int slot = find(key);
+        return used[slot] ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Inserts a new key-value mapping into this map.
+     *
+     * @param key   the key
+     * @param value the value to associate with the key
+     * @throws DuplicateKeyException if the key already exists
+     */
+    public void put(int key, double value) throws DuplicateKeyException {
+        int slot = find(key);
+        if (used[slot]) throw new DuplicateKeyException(Integer.toString(key));
+        insertAt(slot, key, value);
+    }
+
+    /**
+     * Inserts a mapping, replacing the value if the key already exists.
+     *
+     * @param key   the key
+     * @param value the value to associate with the key
+     */
+    public void putOrReplace(int key, double value) {
+        int slot = find(key);
+        if (used[slot]) {
+            values[slot] = value;
+        } else {
+            insertAt(slot, key, value);
+        }
+    }
+
+    /**
+     * Removes the mapping for the specified key.
+     *
+     * @param key the key whose mapping is to be removed
+     * @return the previously associated value
+     * @throws KeyNotFoundException if the key does not exist
+     */
+    public double remove(int key) throws KeyNotFoundException {
+        int slot = find(key);
+        if (!used[slot]) throw new KeyNotFoundException(Integer.toString(key));
+        double value = values[slot];
+
+        // move later entries of the probe run back (see SaxOpenHashMap#remove)
+        int mask = keys.length - 1;
+        int next = (slot + 1) & mask;
+        while (used[next]) {
+            int home = home(keys[next]);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[slot] = false;
+        size--;
+        return value;
+    }
+
+    /**
+     * Returns a string representation of the keys using {@link SaxCollection#defaultToString()}.
+     *
+     * @return string representation of all keys
+     */
+    @Override
+    public String toString() {
+        return defaultToString();
+    }
+
+    /**
+     * Returns a GraphViz representation of the table (excluded from test coverage).
+     *
+     * @param name name of the graph
+     * @return GraphViz DOT string representing the structure
+     */
+    @IgnoreCoverage
+    @Override
+    public String graphViz(String name) {
+        StringBuilder sb = new StringBuilder("digraph ").append(name).append(" {\n");
+        sb.append("  node [shape=record];\n");
+        sb.append("  table [label=\"");
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) sb.append(" | ");
+            sb.append(i).append(": ");
+            if (used[i]) sb.append(keys[i]).append(" → ").append(values[i]);
+        }
+        sb.append("\"];\n}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Returns an iterator over the keys, in table order.
+     *
+     * @return an iterator over all keys
+     */
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private int slot = skipEmpty(0);
+
+            @Override
+            public boolean hasNext() {
+                return slot < keys.length;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) throw new IndexOutOfBoundsException();
+                int key = keys[slot];
+                slot = skipEmpty(slot + 1);
+                return key;
+            }
+        };
+    }
+
+    // First used slot at or after the given one, or the table length if there is none
+    private int skipEmpty(int slot) {
+        while (slot < used.length && !used[slot]) slot++;
+        return slot;
+    }
+
+    // Home slot of a key: spread the bits so consecutive ids do not fill one run of slots
+    private int home(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (keys.length - 1);
+    }
+
+    // Slot holding the key, or the empty slot where its probe sequence ends
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int slot = home(key);
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Store a new entry in the empty slot found for its key, growing the table if it gets too full
+    private void insertAt(int slot, int key, double value) {
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+        size++;
+        if (size * 4 > keys.length * 3) resize(keys.length * 2);
+    }
+
+    private void allocate(int slots) {
+        keys = new int[slots];
+        values = new double[slots];
+        used = new boolean[slots];
+    }
+
+    // Move all entries to a new table of the given length
+    private void resize(int length) {
+        int[] oldKeys = keys;
+        double[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+}
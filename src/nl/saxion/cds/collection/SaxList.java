@@ -3,11 +3,24 @@ package nl.saxion.cds.collection;
 import nl.saxion.cds.collection.exceptions.ElementNotFoundException;
 
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
 
 /**
  * A doubly linked list implementation of SaxIndexedCollection.
  * Provides basic list operations with support for insertion, deletion, and sorting.
+ * <p>
+ * Indexed access walks from the head, the tail or the node accessed last, whichever is closest, so a loop over
+ * {@link #getElementAt(int)} with increasing indices is linear. A {@link #listIterator()} (cursor) walks the list
+ * in both directions and inserts or removes at its position in O(1).
+ * </p>
+ * The list is not synchronized: changing it from one thread while others use it needs external locking. Reading
+ * it from several threads at once is safe, although {@link #getElementAt(int)} updates the remembered node: the
+ * node and its index are kept in one immutable holder that is replaced in a single write, so a thread never
+ * pairs the node of one lookup with the index of another. Cursors are fail-fast: once the list is changed other
+ * than through the cursor itself, the cursor throws a {@link ConcurrentModificationException}.
  *
  * @param <T> the type of elements held in this collection
  */
@@ -15,6 +28,21 @@ public class SaxList<T> implements SaxIndexedCollection<T> {
     private ListNode head = null;
     private ListNode tail = null;
     private int size = 0;
+    // last node found by index and its index, so sequential indexed access does not start at head or tail
+    private Cached cached = null;
+    // number of structural changes, so cursors can detect changes made behind their back
+    private int modCount = 0;
+
+    // A node and its index, replaced as a whole so readers on other threads always see a matching pair
+    private static final class Cached {
+        final ListNode node;
+        final int index;
+
+        Cached(ListNode node, int index) {
+            this.node = node;
+            this.index = index;
+        }
+    }
 
     /**
      * Returning the number of elements in the list.
@@ -30,6 +58,8 @@ public class SaxList<T> implements SaxIndexedCollection<T> {
         tail = null;
         head = null;
         size = 0;
+        cached = null;
+        modCount++;
     }
 
     /**
@@ -52,6 +82,8 @@ public class SaxList<T> implements SaxIndexedCollection<T> {
      */
     public void setHeadForTest(ListNode node) {
         this.head = node;
+        cached = null;
+        modCount++;
     }
 
 
@@ -95,6 +127,7 @@ public class SaxList<T> implements SaxIndexedCollection<T> {
             tail = newNode;
         }
         size++;
+        modCount++;
     }
     /**
      * Add (insert) an element at the given index
@@ -109,31 +142,43 @@ public class SaxList<T> implements SaxIndexedCollection<T> {
             throw new IndexOutOfBoundsException(index);
         }
 
+        if (index == size) {
+            addElement(element);
+            return;
+        }
+
         ListNode newNode = new ListNode(element);
         if (index == 0) {
             newNode.next = head;
             if (head != null) head.prev = newNode;
             head = newNode;
-            if (size == 0) tail = newNode;
-        } else if (index == size) {
-            addElement(element);
-            return;
         } else {
-            ListNode current = getNode(index);
-            newNode.prev = current.prev;
-            newNode.next = current;
+            linkBefore(newNode, getNode(index));
+        }
+        Cached cache = cached;
+        if (cache != null && cache.index >= index) cached = new Cached(cache.node, cache.index + 1); // moved one place up
+        size++;
+        modCount++;
+    }
 
-            if (current.prev != null) {
-                current.prev.next = newNode;
-            } else {
-                head = newNode;
-            }
+    // Insert a new node in front of an existing node (which may be the head)
+    private void linkBefore(ListNode newNode, ListNode current) {
+        newNode.prev = current.prev;
+        newNode.next = current;
 
-            current.prev = newNode;
+        if (current.prev != null) {
+            current.prev.next = newNode;
+        } else {
+            head = newNode;
         }
-        size++;
+
+        current.prev = newNode;
     }
 
+    /**
+     * Find the node at an index, walking from whichever of head, tail and the last accessed node is closest.
+     * The found node is remembered, so visiting the indices one after the other costs O(1) per step.
+     */
     private ListNode getNode(int index) {
         if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException("Invalid index: " + index);
@@ -143,25 +188,30 @@ public class SaxList<T> implements SaxIndexedCollection<T> {
             throw new IllegalStateException("List is corrupted: head or tail is null while size = " + size);
         }
 
-        ListNode current;
-        if (index < size / 2) {
-            current = head;
-            for (int i = 0; i < index; i++) {
-                if (current == null || current.next == null && i < index - 1) {
-                    throw new IllegalStateException("Broken link at index " + i);
-                }
-                current = current.next;
-            }
-        } else {
+        ListNode current = head;
+        int position = 0;
+        if (size - 1 - index < index) {
             current = tail;
-            for (int i = size - 1; i > index; i--) {
-                if (current == null || current.prev == null && i > index + 1) {
-                    throw new IllegalStateException("Broken link at index " + i);
-                }
-                current = current.prev;
-            }
+            position = size - 1;
+        }
+        Cached cache = cached; // read once: another thread may replace it meanwhile
+        if (cache != null && Math.abs(cache.index - index) < Math.abs(position - index)) {
+            current = cache.node;
+            position = cache.index;
         }
 
+        while (position < index) {
+            current = current.next;
+            if (current == null) throw new IllegalStateException("Broken link at index " + position);
+            position++;
+        }
+        while (position > index) {
+            current = current.prev;
+            if (current == null) throw new IllegalStateException("Broken link at index " + position);
+            position--;
+        }
+
+        cached = new Cached(current, index);
         return current;
     }
     /** Sets an element at a specific index. */
@@ -190,6 +240,16 @@ public class SaxList<T> implements SaxIndexedCollection<T> {
         ListNode node = getNode(index);
         if (node == null) throw new IndexOutOfBoundsException(index); // for having extra safety
 
+        unlink(node);
+        modCount++;
+        Cached cache = cached;
+        if (cache != null && cache.node == node) cached = null;
+        else if (cache != null && cache.index > index) cached = new Cached(cache.node, cache.index - 1);
+        return (T) node.value;
+    }
+
+    // Remove a node from the chain of nodes and adjust the size
+    private void unlink(ListNode node) {
         if (node.prev != null) {
             node.prev.next = node.next;
         } else {
@@ -203,7 +263,6 @@ public class SaxList<T> implements SaxIndexedCollection<T> {
         }
 
         size--;
-        return (T) node.value;
     }
     /** Checks if the list is sorted. */
     @Override
@@ -288,4 +347,141 @@ public class SaxList<T> implements SaxIndexedCollection<T> {
             }
         };
     }
+
+    /**
+     * Returns a cursor positioned before the first element.
+     *
+     * @return a list iterator over this list
+     */
+    public ListIterator<T> listIterator() {
+        return new Cursor(0);
+    }
+
+    /**
+     * Returns a cursor positioned before the element at the given index; {@link ListIterator#next()} returns that
+     * element and {@link ListIterator#previous()} the one before it.
+     *
+     * @param index position of the cursor, from 0 up to and including the size
+     * @return a list iterator over this list
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public ListIterator<T> listIterator(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException(index);
+        return new Cursor(index);
+    }
+
+    /**
+     * Cursor between two nodes of the list. Removing and inserting relink the nodes at the cursor directly;
+     * the cached node of indexed access is forgotten because the indices behind the cursor shift. Like the
+     * cursors of {@link java.util.LinkedList} it remembers the modification count, and throws a
+     * {@link ConcurrentModificationException} once the list was changed in another way than through itself.
+     */
+    private class Cursor implements ListIterator<T> {
+        private ListNode next;          // node returned by next(), null at the end
+        private int nextIndex;
+        private ListNode lastReturned;  // node returned by the last next() or previous(), null after add or remove
+        private int expectedModCount = modCount;
+
+        Cursor(int index) {
+            next = index == size ? null : getNode(index);
+            nextIndex = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            checkForChanges();
+            if (!hasNext()) throw new NoSuchElementException();
+            lastReturned = next;
+            next = next.next;
+            nextIndex++;
+            return (T) lastReturned.value;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T previous() {
+            checkForChanges();
+            if (!hasPrevious()) throw new NoSuchElementException();
+            next = next == null ? tail : next.prev;
+            lastReturned = next;
+            nextIndex--;
+            return (T) lastReturned.value;
+        }
+
+        @Override
+        public int nextIndex() {
+            return nextIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+
+        /**
+         * Removes the element last returned by {@link #next()} or {@link #previous()}.
+         *
+         * @throws IllegalStateException if there is no such element, or it was already removed
+         */
+        @Override
+        public void remove() {
+            checkForChanges();
+            if (lastReturned == null) throw new IllegalStateException();
+            if (lastReturned == next) {
+                next = next.next;       // removed after previous(): the cursor stays where it is
+            } else {
+                nextIndex--;            // removed after next(): the element before the cursor is gone
+            }
+            unlink(lastReturned);
+            lastReturned = null;
+            cached = null;
+            expectedModCount = ++modCount;
+        }
+
+        /**
+         * Replaces the element last returned by {@link #next()} or {@link #previous()}.
+         *
+         * @throws IllegalStateException if there is no such element, or it was removed
+         */
+        @Override
+        public void set(T element) {
+            checkForChanges();
+            if (lastReturned == null) throw new IllegalStateException();
+            lastReturned.value = element;
+        }
+
+        /**
+         * Inserts an element before the cursor; a following {@link #next()} is not affected.
+         */
+        @Override
+        public void add(T element) {
+            checkForChanges();
+            if (next == null) {
+                addElement(element); // at the end
+            } else {
+                linkBefore(new ListNode(element), next);
+                size++;
+                modCount++;
+            }
+            nextIndex++;
+            lastReturned = null;
+            cached = null;
+            expectedModCount = modCount;
+        }
+
+        private void checkForChanges() throws ConcurrentModificationException {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
 }
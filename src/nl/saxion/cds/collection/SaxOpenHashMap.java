@@ -0,0 +1,342 @@
+package nl.saxion.cds.collection;
+
+import nl.saxion.cds.collection.exceptions.DuplicateKeyException;
+import nl.saxion.cds.collection.exceptions.KeyNotFoundException;
+
+import java.util.Iterator;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Hash map using open addressing with linear probing in flat key and value arrays.
+ * <p>
+ * A key is stored in the first free slot at or after its home slot (wrapping around). The table size is a power
+ * of two and doubles as soon as it is more than three quarters full, so probe sequences stay short and
+ * {@link #get(Object)}, {@link #containsKey(Object)}, {@link #put(Object, Object)} and {@link #remove(Object)}
+ * take O(1) on average regardless of the number of entries. The hash code is spread (multiplied by the golden
+ * ratio constant and its high bits folded down) before masking, so keys whose hash codes only differ in the high
+ * bits do not all land in the same slot. Removal shifts later entries of the same probe sequence back instead of
+ * leaving tombstones behind.
+ * </p>
+ * The operations and exceptions are the same as those of {@link SaxHashMap}.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <T> the type of mapped values
+ */
+public class SaxOpenHashMap<K, T> implements SaxCollection<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private Object[] keys;
+    private Object[] values;
+    private int size;
+
+    /**
+     * Constructs a new hash map with room for 16 entries before it grows.
+     */
+    public SaxOpenHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new hash map with room for the given number of entries before it grows.
+     *
+     * @param capacity expected number of entries; if less than or equal to 0, 16 will be used
+     */
+    public SaxOpenHashMap(int capacity) {
+        if (capacity <= 0) capacity = DEFAULT_CAPACITY;
+        // smallest power of two that keeps the table at most three quarters full
+        int slots = 2;
+        while (slots * 3 / 4 < capacity) slots *= 2;
+        keys = new Object[slots];
+        values = new Object[slots];
+    }
+
+    /**
+     * Returns the number of key-value pairs stored in this hash map.
+     *
+     * @return the current size
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots in the table; it doubles when more than three quarters are used.
+     *
+     * @return the table length
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    /**
+     * Removes all mappings from this hash map; the table keeps its size.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = null;
+            values[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns a GraphViz representation of the table (excluded from test coverage).
+     *
+     * @param name name of the graph
+     * @return GraphViz DOT string representing the structure
+     */
+    @IgnoreCoverage
+    @Override
+    public String graphViz(String name) {
+        StringBuilder sb = new StringBuilder("digraph ").append(name).append(" {\n");
+        sb.append("  node [shape=record];\n");
+        sb.append("  table [label=\"");
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) sb.append(" | ");
+            sb.append(i).append(": ");
+            if (keys[i] != null) sb.append(keys[i]).append(" → ").append(values[i]);
+        }
+        sb.append("\"];\n}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Returns a string representation of the hash map using {@link SaxCollection#defaultToString()}.
+     *
+     * @return string representation of all values
+     */
+    @Override
+    public String toString() {
+        return defaultToString();
+    }
+
+    /**
+     * Checks whether this hash map contains the specified key.
+     *
+     * @param key key whose presence is to be tested
+     * @return {@code true} if the key exists, {@code false} otherwise
+     */
+    public boolean containsKey(K key) {
+        return keys[find(key)] != null;
+    }
+
+    /**
+     * Retrieves the value mapped to the specified key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value mapped to the specified key
+     * @throws KeyNotFoundException if the key does not exist
+     */
+    @SuppressWarnings("unchecked")
+    public T get(K key) throws KeyNotFoundException {
+        int slot = find(key);
+        if (keys[slot] == null) throw new KeyNotFoundException(key.toString());
+        return (T) values[slot];
+    }
+
+    /**
+     * Inserts a new key-value mapping into this hash map.
+     *
+     * @param key   the key
+     * @param value the value to associate with the key
+     * @throws DuplicateKeyException if the key already exists
+     */
+    public void put(K key, T value) throws DuplicateKeyException {
+        int slot = find(key);
+        if (keys[slot] != null) throw new DuplicateKeyException(key.toString());
+        insertAt(slot, key, value);
+    }
+
+    /**
+     * Inserts a mapping, replacing the value if the key already exists. Needs only one probe sequence.
+     *
+     * @param key   the key
+     * @param value the value to associate with the key
+     * @return the value that was replaced, or null if the key was new
+     */
+    @SuppressWarnings("unchecked")
+    public T putOrReplace(K key, T value) {
+        int slot = find(key);
+        if (keys[slot] != null) {
+            T old = (T) values[slot];
+            values[slot] = value;
+            return old;
+        }
+        insertAt(slot, key, value);
+        return null;
+    }
+
+    /**
+     * Retrieves the value mapped to the specified key, or a default if the key does not exist.
+     *
+     * @param key          the key whose associated value is to be returned
+     * @param defaultValue value to return if the key does not exist
+     * @return the mapped value or defaultValue
+     */
+    @SuppressWarnings("unchecked")
+    public T getOrDefault(K key, T defaultValue) {
+        int slot = find(key);
+        return keys[slot] != null ? (T) values[slot] : defaultValue;
+    }
+
+    /**
+     * Returns the value mapped to the key; if the key does not exist, the value is created, stored and returned.
+     *
+     * @param key     the key
+     * @param creator creates the value from the key, only called when the key does not exist
+     * @return the existing or the created value
+     */
+    @SuppressWarnings("unchecked")
+    public T computeIfAbsent(K key, Function<K, T> creator) {
+        int slot = find(key);
+        if (keys[slot] != null) return (T) values[slot];
+        T value = creator.apply(key);
+        insertAt(slot, key, value);
+        return value;
+    }
+
+    /**
+     * Stores the value if the key does not exist, otherwise combines the existing value with it.
+     *
+     * @param key      the key
+     * @param value    the value to store or combine
+     * @param combiner combines the existing value (first argument) with the given value
+     * @return the value now mapped to the key
+     */
+    @SuppressWarnings("unchecked")
+    public T merge(K key, T value, BiFunction<T, T, T> combiner) {
+        int slot = find(key);
+        if (keys[slot] == null) {
+            insertAt(slot, key, value);
+            return value;
+        }
+        T merged = combiner.apply((T) values[slot], value);
+        values[slot] = merged;
+        return merged;
+    }
+
+    /**
+     * Removes the mapping for the specified key.
+     *
+     * @param key the key whose mapping is to be removed
+     * @return the previously associated value
+     * @throws KeyNotFoundException if the key does not exist
+     */
+    @SuppressWarnings("unchecked")
+    public T remove(K key) throws KeyNotFoundException {
+        int slot = find(key);
+        if (keys[slot] == null) throw new KeyNotFoundException(key.toString());
+        T value = (T) values[slot];
+        deleteSlot(slot);
+        size--;
+        return value;
+    }
+
+    /**
+     * Returns all keys currently stored in this hash map.
+     *
+     * @return a SaxList containing all keys
+     */
+    @SuppressWarnings("unchecked")
+    public SaxList<K> getKeys() {
+        SaxList<K> result = new SaxList<>();
+        for (Object key : keys) {
+            if (key != null) result.addElement((K) key);
+        }
+        return result;
+    }
+
+    /**
+     * Returns an iterator over the values stored in this hash map, in table order.
+     *
+     * @return an iterator over all values
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int slot = skipEmpty(0);
+
+            @Override
+            public boolean hasNext() {
+                return slot < keys.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) throw new IndexOutOfBoundsException();
+                T value = (T) values[slot];
+                slot = skipEmpty(slot + 1);
+                return value;
+            }
+        };
+    }
+
+    // First used slot at or after the given one, or the table length if there is none
+    private int skipEmpty(int slot) {
+        while (slot < keys.length && keys[slot] == null) slot++;
+        return slot;
+    }
+
+    // Store a new entry in the empty slot found for its key, growing the table if it gets too full
+    private void insertAt(int slot, K key, T value) {
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (size * 4 > keys.length * 3) resize(keys.length * 2);
+    }
+
+    // Home slot of a key: spread the hash code so the high bits also influence the masked low bits
+    private int home(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (keys.length - 1);
+    }
+
+    // Slot holding the key, or the empty slot where its probe sequence ends
+    private int find(Object key) {
+        int mask = keys.length - 1;
+        int slot = home(key);
+        while (keys[slot] != null && !keys[slot].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties a slot and moves later entries of the probe run back, so that every remaining key can still be
+     * reached from its home slot without passing an empty slot.
+     */
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int next = (slot + 1) & mask;
+        while (keys[next] != null) {
+            int home = home(keys[next]);
+            // the entry may move to slot if slot lies (cyclically) between its home and its current place
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[slot] = null;
+        values[slot] = null;
+    }
+
+    // Move all entries to a new table of the given length
+    private void resize(int length) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new Object[length];
+        values = new Object[length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -6,13 +6,40 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 /**
- * SaxQueue implements a simple First-In-First-Out (FIFO) queue using a singly linked list.
+ * SaxQueue implements a simple First-In-First-Out (FIFO) queue using a ring buffer.
+ * <p>
+ * The elements are stored in an array whose length is a power of two; the front moves forward on every
+ * {@link #pop()} and wraps around to the start, so a position is a mask instead of a modulo. When the array is
+ * full it doubles, so {@link #push(Object)} and {@link #pop()} are O(1) (amortised) without allocating anything
+ * per element.
+ * </p>
  * @param <T> the type of elements in this queue
  */
 public class SaxQueue<T> implements SaxOrderedCollection<T> {
-    private SaxQueueNode<T> head = null;
-    private SaxQueueNode<T> tail = null;
+    private static final int DEFAULT_CAPACITY = 16;
+    private Object[] elements;
+    private int head = 0; // position of the front element
     private int size = 0;
+
+    /**
+     * Creates an empty queue with room for 16 elements before it grows.
+     */
+    public SaxQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty queue with room for at least the given number of elements before it grows.
+     *
+     * @param capacity expected number of elements; rounded up to a power of two, 16 if less than or equal to 0
+     */
+    public SaxQueue(int capacity) {
+        if (capacity <= 0) capacity = DEFAULT_CAPACITY;
+        int length = 1;
+        while (length < capacity) length <<= 1;
+        elements = new Object[length];
+    }
+
     /**
      * Adds a new element to the back of the queue.
      *
@@ -20,13 +47,8 @@ public class SaxQueue<T> implements SaxOrderedCollection<T> {
      */
     @Override
     public void push(T value) {
-        SaxQueueNode<T> node = new SaxQueueNode<>(value);
-        if (tail != null) {
-            tail.next = node;
-        } else {
-            head = node;
-        }
-        tail = node;
+        if (size == elements.length) grow();
+        elements[(head + size) & (elements.length - 1)] = value;
         size++;
     }
 
@@ -37,15 +59,14 @@ public class SaxQueue<T> implements SaxOrderedCollection<T> {
      * @throws EmptyCollectionException if the queue is empty
      */
     @Override
+    @SuppressWarnings("unchecked")
     public T pop() throws EmptyCollectionException {
-        if (head == null) {
+        if (size == 0) {
             throw new EmptyCollectionException();
         }
-        T value = head.value;
-        head = head.next;
-        if (head == null) {
-            tail = null;
-        }
+        T value = (T) elements[head];
+        elements[head] = null; // do not keep the element alive
+        head = (head + 1) & (elements.length - 1);
         size--;
         return value;
     }
@@ -57,11 +78,12 @@ public class SaxQueue<T> implements SaxOrderedCollection<T> {
      * @throws EmptyCollectionException if the queue is empty
      */
     @Override
+    @SuppressWarnings("unchecked")
     public T peek() throws EmptyCollectionException {
-        if (head == null) {
+        if (size == 0) {
             throw new EmptyCollectionException();
         }
-        return head.value;
+        return (T) elements[head];
     }
 
     /**
@@ -75,12 +97,23 @@ public class SaxQueue<T> implements SaxOrderedCollection<T> {
     }
 
     /**
-     * Removes all elements from the queue.
+     * Returns the number of elements the queue can hold before the array grows.
+     *
+     * @return the length of the ring buffer, always a power of two
+     */
+    public int getCapacity() {
+        return elements.length;
+    }
+
+    /**
+     * Removes all elements from the queue; the capacity stays the same.
      */
     @Override
     public void clear() {
-        head = null;
-        tail = null;
+        for (int i = 0; i < size; i++) {
+            elements[(head + i) & (elements.length - 1)] = null;
+        }
+        head = 0;
         size = 0;
     }
 
@@ -95,11 +128,10 @@ public class SaxQueue<T> implements SaxOrderedCollection<T> {
     @Override
     public String graphViz(String name) {
         StringBuilder sb = new StringBuilder("digraph " + name + " {\n");
-        SaxQueueNode<T> current = head;
-        while (current != null && current.next != null) {
-            sb.append("\"").append(current.value).append("\" -> \"")
-                    .append(current.next.value).append("\";\n");
-            current = current.next;
+        int mask = elements.length - 1;
+        for (int i = 1; i < size; i++) {
+            sb.append("\"").append(elements[(head + i - 1) & mask]).append("\" -> \"")
+                    .append(elements[(head + i) & mask]).append("\";\n");
         }
         sb.append("}");
         return sb.toString();
@@ -121,19 +153,28 @@ public class SaxQueue<T> implements SaxOrderedCollection<T> {
     @Override
     public Iterator<T> iterator() {
         return new Iterator<>() {
-            private SaxQueueNode<T> current = head;
+            private int index = 0;
 
             @Override
             public boolean hasNext() {
-                return current != null;
+                return index < size;
             }
             @Override
+            @SuppressWarnings("unchecked")
             public T next() {
                 if (!hasNext()) throw new NoSuchElementException();
-                T value = current.value;
-                current = current.next;
-                return value;
+                return (T) elements[(head + index++) & (elements.length - 1)];
             }
         };
     }
+
+    // Double the array, unwrapping the elements so the front is at position 0 again
+    private void grow() {
+        var newElements = new Object[elements.length << 1];
+        int firstPart = elements.length - head; // elements from head up to the end of the array
+        System.arraycopy(elements, head, newElements, 0, firstPart);
+        System.arraycopy(elements, 0, newElements, firstPart, head);
+        elements = newElements;
+        head = 0;
+    }
 }
@@ -3,18 +3,40 @@ package nl.saxion.cds.collection;
 import nl.saxion.cds.collection.exceptions.EmptyCollectionException;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
- * A simple stack implementation based on {@link SaxList}.
+ * A simple stack implementation based on a growable array.
  * <p>
  * Follows the LIFO (Last In First Out) principle:
  * elements are added and removed from the top of the stack.
+ * The top is the last used position of the array, so {@link #push(Object)} and {@link #pop()} are O(1)
+ * (amortised: the array doubles when it is full) and do not allocate anything per element.
  *
  * @param <T> type of elements stored in the stack
  */
 public class SaxStack<T> implements SaxOrderedCollection<T> {
+    private static final int DEFAULT_CAPACITY = 16;
 
-    private final SaxList<T> list = new SaxList<>();
+    // Java prohibits creating an array with a generic type, so we use Object
+    private Object[] elements;
+    private int size = 0;
+
+    /**
+     * Creates an empty stack with room for 16 elements before it grows.
+     */
+    public SaxStack() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty stack with room for the given number of elements before it grows.
+     *
+     * @param capacity initial capacity; if less than or equal to 0, 16 will be used
+     */
+    public SaxStack(int capacity) {
+        elements = new Object[capacity > 0 ? capacity : DEFAULT_CAPACITY];
+    }
 
     /**
      * Pushes an element on top of the stack.
@@ -23,7 +45,12 @@ public class SaxStack<T> implements SaxOrderedCollection<T> {
      */
     @Override
     public void push(T value) {
-        list.addElementAt(value, 0); // top is index 0
+        if (size == elements.length) {
+            var newElements = new Object[elements.length << 1];
+            System.arraycopy(elements, 0, newElements, 0, size);
+            elements = newElements;
+        }
+        elements[size++] = value; // top is the last used index
     }
 
     /**
@@ -33,10 +60,13 @@ public class SaxStack<T> implements SaxOrderedCollection<T> {
      * @throws EmptyCollectionException if the stack is empty
      */
     @Override
+    @SuppressWarnings("unchecked")
     public T pop() throws EmptyCollectionException {
-        if (getSize() == 0)
+        if (size == 0)
             throw new EmptyCollectionException();
-        return list.removeElementAt(0);
+        T value = (T) elements[--size];
+        elements[size] = null; // do not keep the element alive
+        return value;
     }
 
     /**
@@ -46,10 +76,11 @@ public class SaxStack<T> implements SaxOrderedCollection<T> {
      * @throws EmptyCollectionException if the stack is empty
      */
     @Override
+    @SuppressWarnings("unchecked")
     public T peek() throws EmptyCollectionException {
-        if (getSize() == 0)
+        if (size == 0)
             throw new EmptyCollectionException();
-        return list.getElementAt(0);
+        return (T) elements[size - 1];
     }
 
     /**
@@ -59,15 +90,27 @@ public class SaxStack<T> implements SaxOrderedCollection<T> {
      */
     @Override
     public int getSize() {
-        return list.getSize();
+        return size;
+    }
+
+    /**
+     * Returns the number of elements the stack can hold before the array grows.
+     *
+     * @return the length of the array
+     */
+    public int getCapacity() {
+        return elements.length;
     }
 
     /**
-     * Removes all elements from the stack.
+     * Removes all elements from the stack; the capacity stays the same.
      */
     @Override
     public void clear() {
-        list.clear();
+        for (int i = 0; i < size; i++) {
+            elements[i] = null;
+        }
+        size = 0;
     }
 
     /**
@@ -84,11 +127,11 @@ public class SaxStack<T> implements SaxOrderedCollection<T> {
         sb.append(name).append(" {\n");
         sb.append("  node [shape=box, style=filled, color=lightblue];\n");
 
-        for (int i = 0; i < getSize(); i++) {
-            sb.append("  \"").append(list.getElementAt(i)).append("\";\n");
-            if (i < getSize() - 1) {
-                sb.append("  \"").append(list.getElementAt(i))
-                        .append("\" -> \"").append(list.getElementAt(i + 1)).append("\";\n");
+        for (int i = size - 1; i >= 0; i--) {
+            sb.append("  \"").append(elements[i]).append("\";\n");
+            if (i > 0) {
+                sb.append("  \"").append(elements[i])
+                        .append("\" -> \"").append(elements[i - 1]).append("\";\n");
             }
         }
 
@@ -103,7 +146,7 @@ public class SaxStack<T> implements SaxOrderedCollection<T> {
      */
     @Override
     public String toString() {
-        return list.toString();
+        return defaultToString();
     }
 
     /**
@@ -114,16 +157,18 @@ public class SaxStack<T> implements SaxOrderedCollection<T> {
     @Override
     public Iterator<T> iterator() {
         return new Iterator<>() {
-            private int index = 0;
+            private int index = size - 1;
 
             @Override
             public boolean hasNext() {
-                return index < getSize();
+                return index >= 0;
             }
 
             @Override
+            @SuppressWarnings("unchecked")
             public T next() {
-                return list.getElementAt(index++);
+                if (!hasNext()) throw new NoSuchElementException();
+                return (T) elements[index--];
             }
         };
     }
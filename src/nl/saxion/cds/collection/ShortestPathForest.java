@@ -0,0 +1,46 @@
+package nl.saxion.cds.collection;
+
+/**
+ * Result of a multi-source shortest path search on a {@link SaxGraph}: for every node the nearest of a set of
+ * sources, the distance from it and the predecessor on a shortest path from it.
+ * <p>
+ * The search is one run of Dijkstra with all sources in the queue at distance 0, so every node is settled by
+ * the source it is closest to. Finding the nearest source for all nodes costs the same as one single source
+ * search instead of one search per source. Like {@link ShortestPathTree} the tables are arrays indexed by the
+ * dense node ids, so {@link #nearestSourceOf(Object)} and {@link #distanceTo(Object)} are O(1) and
+ * {@link #pathTo(Object)} is O(path length); distances and paths start at the nearest source. Nodes added to
+ * the graph afterwards are reported as unreachable.
+ * </p>
+ *
+ * @param <V> type of the nodes in the graph
+ */
+public class ShortestPathForest<V> extends ShortestPaths<V> {
+    // roots[id] is the id of the nearest source, or -1 if no source can reach the node
+    private final int[] roots;
+
+    /**
+     * Creates the forest from the arrays filled by the search (see {@link SaxGraph#shortestPathForest(SaxCollection)}).
+     *
+     * @param graph         graph that was searched
+     * @param distances     distance of every node id from its nearest source, infinity if unreachable
+     * @param roots         nearest source id of every node id, -1 if none
+     * @param parents       predecessor id of every node id, -1 if none
+     * @param parentWeights weight of the edge from the predecessor
+     */
+    ShortestPathForest(SaxGraph<V> graph, double[] distances, int[] roots, int[] parents, double[] parentWeights) {
+        super(graph, distances, parents, parentWeights);
+        this.roots = roots;
+    }
+
+    /**
+     * Returns the source that is closest to the given node.
+     *
+     * @param node the node to look up
+     * @return the nearest source (the node itself for a source), or null if the node cannot be reached from any
+     * source or is not in the graph
+     */
+    public V nearestSourceOf(V node) {
+        int id = idOf(node);
+        return id < 0 || roots[id] < 0 ? null : graph.valueAt(roots[id]);
+    }
+}
@@ -0,0 +1,39 @@
+package nl.saxion.cds.collection;
+
+/**
+ * Result of a single source shortest path search on a {@link SaxGraph}: for every node the distance from the
+ * source and the predecessor on a shortest path, stored in arrays indexed by the dense node ids of the graph.
+ * <p>
+ * {@link #distanceTo(Object)} is O(1) and {@link #pathTo(Object)} is O(path length), so many paths can be
+ * taken from one search without searching any edge list. The tree reflects the graph at the moment it was
+ * computed; nodes added to the graph afterwards are reported as unreachable.
+ * </p>
+ *
+ * @param <V> type of the nodes in the graph
+ */
+public class ShortestPathTree<V> extends ShortestPaths<V> {
+    private final int source;
+
+    /**
+     * Creates the tree from the arrays filled by the search (see {@link SaxGraph#shortestPathTree(Object)}).
+     *
+     * @param graph         graph that was searched
+     * @param source        id of the source node
+     * @param distances     distance of every node id, infinity if unreachable
+     * @param parents       predecessor id of every node id, -1 if none
+     * @param parentWeights weight of the edge from the predecessor
+     */
+    ShortestPathTree(SaxGraph<V> graph, int source, double[] distances, int[] parents, double[] parentWeights) {
+        super(graph, distances, parents, parentWeights);
+        this.source = source;
+    }
+
+    /**
+     * Returns the node the paths start from.
+     *
+     * @return the source node
+     */
+    public V getSource() {
+        return graph.valueAt(source);
+    }
+}
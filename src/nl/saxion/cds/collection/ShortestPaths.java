@@ -0,0 +1,120 @@
+package nl.saxion.cds.collection;
+
+/**
+ * Distances and predecessors found by a Dijkstra search on a {@link SaxGraph}, stored in arrays indexed by the
+ * dense node ids of the graph. Every reachable node has the distance from the source its path starts at and the
+ * previous node on that path; {@link ShortestPathTree} has one source and {@link ShortestPathForest} several.
+ * <p>
+ * {@link #distanceTo(Object)} is O(1) and {@link #pathTo(Object)} is O(path length), so many paths can be
+ * taken from one search without searching any edge list. The result reflects the graph at the moment it was
+ * computed; nodes added to the graph afterwards are reported as unreachable.
+ * </p>
+ *
+ * @param <V> type of the nodes in the graph
+ */
+public abstract class ShortestPaths<V> {
+    final SaxGraph<V> graph;
+    private final double[] distances;
+    // parents[id] is the id of the previous node on the shortest path, or -1 for the sources and unreachable nodes
+    private final int[] parents;
+    private final double[] parentWeights;
+
+    /**
+     * Wraps the arrays filled by the search.
+     *
+     * @param graph         graph that was searched
+     * @param distances     distance of every node id, infinity if unreachable
+     * @param parents       predecessor id of every node id, -1 if none
+     * @param parentWeights weight of the edge from the predecessor
+     */
+    ShortestPaths(SaxGraph<V> graph, double[] distances, int[] parents, double[] parentWeights) {
+        this.graph = graph;
+        this.distances = distances;
+        this.parents = parents;
+        this.parentWeights = parentWeights;
+    }
+
+    /**
+     * Checks whether a path to the given node exists.
+     *
+     * @param node the node to check
+     * @return true if the node is reachable (a source itself is always reachable)
+     */
+    public boolean hasPathTo(V node) {
+        return distanceTo(node) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the length of the shortest path to the given node.
+     *
+     * @param node the node to get the distance to
+     * @return the distance, or infinity if the node cannot be reached or is not in the graph
+     */
+    public double distanceTo(V node) {
+        int id = idOf(node);
+        return id < 0 ? Double.POSITIVE_INFINITY : distances[id];
+    }
+
+    /**
+     * Returns the shortest path to the given node.
+     *
+     * @param node the node to get the path to
+     * @return the edges from the source to node, empty if node is a source or cannot be reached
+     */
+    public SaxList<SaxGraph<V>.DirectedEdge> pathTo(V node) {
+        SaxList<SaxGraph<V>.DirectedEdge> path = new SaxList<>();
+        int id = idOf(node);
+        if (id < 0) return path;
+
+        while (parents[id] >= 0) {
+            int parent = parents[id];
+            path.addElementAt(graph.new DirectedEdge(graph.valueAt(parent), graph.valueAt(id), parentWeights[id]), 0); // prepend
+            id = parent;
+        }
+        return path;
+    }
+
+    /**
+     * Returns the number of node ids covered by this result.
+     *
+     * @return the number of nodes in the graph when the search was done
+     */
+    int getSize() {
+        return distances.length;
+    }
+
+    /**
+     * @param id a node id
+     * @return the id of its predecessor, or -1 for the sources and unreachable nodes
+     */
+    int parentOf(int id) {
+        return parents[id];
+    }
+
+    /**
+     * @param id a node id with a predecessor
+     * @return weight of the edge from the predecessor to the node
+     */
+    double parentWeightOf(int id) {
+        return parentWeights[id];
+    }
+
+    /**
+     * @param id a node id
+     * @return the distance from the source, infinity if unreachable
+     */
+    double distanceTo(int id) {
+        return distances[id];
+    }
+
+    /**
+     * Looks up the id of a node in this result.
+     *
+     * @param node the node to look up
+     * @return its id, or -1 if the node is not in the graph or was added after the search
+     */
+    int idOf(V node) {
+        int id = graph.idOf(node);
+        return id < distances.length ? id : -1;
+    }
+}
@@ -0,0 +1,110 @@
+package collection;
+
+import nl.saxion.cds.collection.ContractionHierarchy;
+import nl.saxion.cds.collection.SaxCompactGraph;
+import nl.saxion.cds.collection.SaxGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestContractionHierarchy {
+    private SaxCompactGraph<Integer> network;
+
+    /**
+     * A random directed graph of 120 nodes: a two way ring with different weights in both directions, one way
+     * shortcuts, a parallel edge, a loop and a node that cannot be reached. The weights are random doubles, so
+     * every shortest path is unique.
+     */
+    @BeforeEach
+    void createGraph() {
+        Random random = new Random(22);
+        SaxGraph<Integer> graph = new SaxGraph<>();
+        for (int i = 0; i < 119; i++) {
+            graph.addEdge(i, (i + 1) % 119, 5 + 10 * random.nextDouble());
+            graph.addEdge((i + 1) % 119, i, 5 + 10 * random.nextDouble());
+        }
+        for (int i = 0; i < 150; i++) {
+            graph.addEdge(random.nextInt(119), random.nextInt(119), 10 + 30 * random.nextDouble());
+        }
+        graph.addEdge(3, 4, 0.5);    // parallel to the ring edge, and cheaper
+        graph.addEdge(7, 7, 1.0);    // loop
+        graph.addEdge(119, 50, 2.0); // can be left but not entered
+        network = graph.freeze();
+    }
+
+    @Test
+    void testPathsEqualDijkstra() {
+        ContractionHierarchy<Integer> hierarchy = network.contractionHierarchy();
+        System.out.println(hierarchy);
+        assertTrue(hierarchy.getShortcutCount() > 0);
+
+        for (int from = 0; from < network.getSize(); from++) {
+            for (int to = 0; to < network.getSize(); to++) {
+                SaxGraph<Integer>.Path expected = network.shortestPath(from, to);
+                SaxGraph<Integer>.Path actual = hierarchy.shortestPath(from, to);
+                assertEquals(expected.isFound(), actual.isFound(), from + " -> " + to);
+                assertEquals(expected.distance(), actual.distance(), 1e-9, from + " -> " + to);
+                assertEquals(expected.edges().getSize(), actual.edges().getSize(), from + " -> " + to);
+                for (int i = 0; i < expected.edges().getSize(); i++) {
+                    SaxGraph<Integer>.DirectedEdge expectedEdge = expected.edges().getElementAt(i);
+                    SaxGraph<Integer>.DirectedEdge actualEdge = actual.edges().getElementAt(i);
+                    assertEquals(expectedEdge.from(), actualEdge.from());
+                    assertEquals(expectedEdge.to(), actualEdge.to());
+                    assertEquals(expectedEdge.weight(), actualEdge.weight());
+                }
+            }
+        }
+        System.out.println("Expected: " + network.shortestPath(0, 60).distance() + " | Actual: "
+                + hierarchy.shortestPath(0, 60).distance());
+        System.out.println("testPathsEqualDijkstra passed");
+    }
+
+    @Test
+    void testSpecialCases() {
+        ContractionHierarchy<Integer> hierarchy = network.contractionHierarchy();
+
+        // the cheaper of the parallel edges is used, the loop is left out
+        SaxGraph<Integer>.Path parallel = hierarchy.shortestPath(3, 4);
+        System.out.println("Expected distance 3 -> 4: 0.5 | Actual: " + parallel.distance());
+        assertEquals(0.5, parallel.distance());
+        assertTrue(hierarchy.getEdgeCount() - hierarchy.getShortcutCount() < network.getEdgeCount());
+
+        SaxGraph<Integer>.Path unreachable = hierarchy.shortestPath(50, 119);
+        assertFalse(unreachable.isFound());
+        assertEquals(Double.POSITIVE_INFINITY, unreachable.distance());
+        assertTrue(hierarchy.shortestPath(119, 60).isFound());
+
+        SaxGraph<Integer>.Path empty = hierarchy.shortestPath(8, 8);
+        assertEquals(0.0, empty.distance());
+        assertEquals(0, empty.edges().getSize());
+
+        assertThrows(IllegalArgumentException.class, () -> hierarchy.shortestPath(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> hierarchy.shortestPath(1, 1000));
+        System.out.println("testSpecialCases passed");
+    }
+
+    @Test
+    void testLineNeedsShortcuts() {
+        // on a one way line every contracted inner node needs a shortcut, unless a neighbour was contracted first
+        SaxGraph<String> line = new SaxGraph<>();
+        line.addEdge("a", "b", 1);
+        line.addEdge("b", "c", 2);
+        line.addEdge("c", "d", 3);
+        line.addEdge("d", "e", 4);
+        ContractionHierarchy<String> hierarchy = line.freeze().contractionHierarchy();
+        SaxGraph<String>.Path path = hierarchy.shortestPath("a", "e");
+        System.out.println("Expected: a b c d e, 10.0 | Actual: " + path.edges() + ", " + path.distance());
+        assertEquals(10.0, path.distance());
+        assertEquals(4, path.edges().getSize());
+        assertEquals("a", path.edges().getElementAt(0).from());
+        assertEquals("e", path.edges().getLastElement().to());
+        assertFalse(hierarchy.shortestPath("e", "a").isFound());
+
+        ContractionHierarchy<String> nothing = new SaxGraph<String>().freeze().contractionHierarchy();
+        assertEquals(0, nothing.getEdgeCount());
+        System.out.println("testLineNeedsShortcuts passed");
+    }
+}
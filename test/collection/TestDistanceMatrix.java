@@ -0,0 +1,104 @@
+package collection;
+
+import nl.saxion.cds.collection.DistanceMatrix;
+import nl.saxion.cds.collection.SaxCompactGraph;
+import nl.saxion.cds.collection.SaxGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDistanceMatrix {
+    private SaxGraph<String> dijkstraGraph;
+    private SaxCompactGraph<String> compact;
+
+    /**
+     * The Dijkstra example graph from the Graph algorithms sheets, with a one-way edge and an island added.
+     */
+    @BeforeEach
+    void createGraph() {
+        dijkstraGraph = TestSaxGraphAdvanced.createDijkstraExample();
+        dijkstraGraph.addEdge("f", "h", 2);
+        dijkstraGraph.addNode("z");
+        compact = dijkstraGraph.freeze();
+    }
+
+    @Test
+    void testDistancesMatchShortestPath() {
+        DistanceMatrix<String> matrix = compact.distanceMatrix(3);
+        for (String from : dijkstraGraph) {
+            for (String to : dijkstraGraph) {
+                double expected = dijkstraGraph.shortestPath(from, to).distance();
+                assertEquals(expected, matrix.distance(from, to), 0.0001, from + " -> " + to);
+            }
+        }
+        System.out.println("Expected a -> f: 10.0 | Actual: " + matrix.distance("a", "f"));
+        assertEquals(10.0, matrix.distance("a", "f"), 0.0001);
+        System.out.println("testDistancesMatchShortestPath passed");
+    }
+
+    @Test
+    void testThreadCountDoesNotChangeResult() {
+        DistanceMatrix<String> single = compact.distanceMatrix(1);
+        DistanceMatrix<String> parallel = compact.distanceMatrix(4);
+        System.out.println("Threads: " + single.getThreadCount() + " and " + parallel.getThreadCount());
+        assertEquals(1, single.getThreadCount());
+        assertEquals(4, parallel.getThreadCount());
+        for (int from = 0; from < single.getSize(); from++) {
+            for (int to = 0; to < single.getSize(); to++) {
+                assertEquals(single.distance(from, to), parallel.distance(from, to));
+                assertEquals(single.nextHop(from, to), parallel.nextHop(from, to));
+            }
+        }
+        System.out.println("testThreadCountDoesNotChangeResult passed");
+    }
+
+    @Test
+    void testPathFollowsNextHops() {
+        DistanceMatrix<String> matrix = compact.distanceMatrix(2);
+        SaxGraph<String>.Path path = matrix.path("a", "h");
+        double length = 0;
+        for (var edge : path.edges()) length += edge.weight();
+        System.out.println("Expected length: 12.0 | Actual: " + length + " via " + path);
+        assertEquals(12.0, length, 0.0001);
+        assertEquals(12.0, path.distance(), 0.0001);
+        assertEquals("a", path.edges().getElementAt(0).from());
+        assertEquals("h", path.edges().getLastElement().to());
+        for (int i = 1; i < path.edges().getSize(); i++) {
+            assertEquals(path.edges().getElementAt(i - 1).to(), path.edges().getElementAt(i).from());
+        }
+        assertEquals(compact.getId("b"), matrix.nextHop(compact.getId("a"), compact.getId("d")));
+
+        SaxGraph<String>.Path self = matrix.path("c", "c");
+        assertTrue(self.isFound());
+        assertEquals(0, self.edges().getSize());
+        System.out.println("testPathFollowsNextHops passed");
+    }
+
+    @Test
+    void testUnreachablePairs() {
+        DistanceMatrix<String> matrix = compact.distanceMatrix(2);
+        System.out.println("Expected h -> a: Infinity | Actual: " + matrix.distance("h", "a"));
+        assertEquals(Double.POSITIVE_INFINITY, matrix.distance("h", "a"));
+        assertEquals(Double.POSITIVE_INFINITY, matrix.distance("a", "z"));
+        assertEquals(-1, matrix.nextHop(compact.getId("h"), compact.getId("a")));
+        assertFalse(matrix.path("h", "a").isFound());
+        assertEquals(0, matrix.path("h", "a").edges().getSize());
+        System.out.println("testUnreachablePairs passed");
+    }
+
+    @Test
+    void testStatsAndInvalidArguments() {
+        DistanceMatrix<String> matrix = compact.distanceMatrix();
+        System.out.println(matrix);
+        assertEquals(compact.getSize(), matrix.getSize());
+        assertEquals(9L * 9 * 12, matrix.getMemoryBytes());
+        assertTrue(matrix.getBuildTimeMillis() >= 0);
+        assertTrue(matrix.toString().startsWith("Distance matrix: 9 nodes"));
+
+        assertThrows(IllegalArgumentException.class, () -> compact.distanceMatrix(0));
+        assertThrows(IllegalArgumentException.class, () -> matrix.distance("a", "unknown"));
+        assertThrows(IllegalArgumentException.class, () -> matrix.path(null, "a"));
+        System.out.println("testStatsAndInvalidArguments passed");
+    }
+}
@@ -0,0 +1,282 @@
+package collection;
+
+import nl.saxion.cds.collection.ContractionHierarchy;
+import nl.saxion.cds.collection.GraphMask;
+import nl.saxion.cds.collection.SaxCompactGraph;
+import nl.saxion.cds.collection.SaxGraph;
+import nl.saxion.cds.collection.SaxList;
+import nl.saxion.cds.collection.SaxQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestGraphMask {
+    private SaxGraph<String> dijkstraGraph;
+
+    /**
+     * The Dijkstra example graph from the Graph algorithms sheets; the shortest path from a to e is a b d g e (7).
+     */
+    @BeforeEach
+    void createGraph() {
+        dijkstraGraph = TestSaxGraphAdvanced.createDijkstraExample();
+    }
+
+    @Test
+    void testClosedEdgeAndNodeAreAvoided() {
+        GraphMask<String> mask = dijkstraGraph.createMask();
+        SaxGraph<String> view = dijkstraGraph.withMask(mask);
+        assertEquals(7.0, view.shortestPath("a", "e").distance(), 0.0001);
+
+        // closing d -> g only closes that direction
+        assertEquals(1, mask.disableEdge("d", "g"));
+        System.out.println("Expected: 8 | Actual: " + view.shortestPath("a", "e"));
+        assertEquals(8.0, view.shortestPath("a", "e").distance(), 0.0001);
+        assertEquals(7.0, view.shortestPath("e", "a").distance(), 0.0001);
+        assertTrue(mask.isEdgeDisabled("d", "g"));
+        assertFalse(mask.isEdgeDisabled("g", "d"));
+        assertFalse(mask.isEdgeDisabled("a", "f")); // no such edge
+
+        // closing g as well leaves a b d e
+        mask.disableNode("g");
+        System.out.println("Expected: 9 | Actual: " + view.shortestPath("a", "e"));
+        assertEquals(9.0, view.shortestPath("a", "e").distance(), 0.0001);
+        assertFalse(view.shortestPath("a", "g").isFound());
+        assertFalse(view.shortestPath("g", "a").isFound());
+        assertTrue(mask.isNodeDisabled("g"));
+        assertEquals(1, mask.getDisabledNodeCount());
+        assertEquals(1, mask.getDisabledEdgeCount());
+        System.out.println(mask);
+
+        // the graph itself is not affected
+        assertEquals(7.0, dijkstraGraph.shortestPath("a", "e").distance(), 0.0001);
+
+        // opening everything again restores the original route
+        mask.enableNode("g");
+        assertEquals(1, mask.enableEdge("d", "g"));
+        assertEquals(7.0, view.shortestPath("a", "e").distance(), 0.0001);
+        mask.disableNode("b");
+        mask.disableEdge("a", "c");
+        mask.clear();
+        assertEquals(0, mask.getDisabledNodeCount() + mask.getDisabledEdgeCount());
+        assertEquals(7.0, view.shortestPath("a", "e").distance(), 0.0001);
+        System.out.println("testClosedEdgeAndNodeAreAvoided passed");
+    }
+
+    @Test
+    void testAllAlgorithmsMatchRebuiltGraph() {
+        Random random = new Random(25);
+        int size = 60;
+        int[] from = new int[400];
+        int[] to = new int[from.length];
+        double[] weight = new double[from.length];
+        SaxGraph<Integer> graph = new SaxGraph<>();
+        for (int i = 0; i < size; i++) graph.addNode(i);
+        for (int e = 0; e < from.length; e++) {
+            from[e] = random.nextInt(size);
+            to[e] = random.nextInt(size);
+            weight[e] = 1 + random.nextInt(20);
+            graph.addEdge(from[e], to[e], weight[e]);
+        }
+
+        // close about one in six edges and a few nodes, then build the same graph without them
+        GraphMask<Integer> mask = graph.createMask();
+        boolean[] closedNode = new boolean[size];
+        for (int i = 0; i < 4; i++) {
+            int node = random.nextInt(size);
+            closedNode[node] = true;
+            mask.disableNode(node);
+        }
+        SaxGraph<Integer> rebuilt = new SaxGraph<>();
+        for (int i = 0; i < size; i++) rebuilt.addNode(i);
+        boolean[] closedPair = new boolean[size * size];
+        for (int e = 0; e < from.length; e++) {
+            if (random.nextInt(6) == 0) {
+                mask.disableEdge(from[e], to[e]);
+                closedPair[from[e] * size + to[e]] = true;
+            }
+        }
+        for (int e = 0; e < from.length; e++) {
+            if (!closedPair[from[e] * size + to[e]] && !closedNode[from[e]] && !closedNode[to[e]]) {
+                rebuilt.addEdge(from[e], to[e], weight[e]);
+            }
+        }
+        SaxGraph<Integer> view = graph.withMask(mask);
+        SaxCompactGraph<Integer> frozen = view.freeze();
+        System.out.println(mask + ", expected edges: " + rebuilt.freeze().getEdgeCount() + " | Actual: " + frozen.getEdgeCount());
+        assertEquals(rebuilt.freeze().getEdgeCount(), frozen.getEdgeCount());
+        ContractionHierarchy<Integer> hierarchy = frozen.contractionHierarchy();
+
+        for (int start = 0; start < size; start += 7) {
+            for (int end = 0; end < size; end += 5) {
+                SaxGraph<Integer>.Path expected = rebuilt.shortestPath(start, end);
+                assertEquals(expected.isFound(), view.shortestPath(start, end).isFound(), start + " -> " + end);
+                if (!expected.isFound()) continue;
+                assertEquals(expected.distance(), view.shortestPath(start, end).distance(), 0.0001);
+                assertEquals(expected.distance(), view.shortestPathBidirectional(start, end).distance(), 0.0001);
+                assertEquals(expected.distance(), frozen.shortestPath(start, end).distance(), 0.0001);
+                assertEquals(expected.distance(), hierarchy.shortestPath(start, end).distance(), 0.0001);
+                assertEquals(expected.distance(), view.shortestPathTree(start).distanceTo(end), 0.0001);
+                assertEquals(expected.distance(), totalWeight(view.shortestPathAStar(start, end, (a, b) -> 0.0)), 0.0001);
+
+                SaxList<SaxGraph<Integer>.Path> expectedPaths = rebuilt.kShortestPaths(start, end, 3, 1);
+                SaxList<SaxGraph<Integer>.Path> actualPaths = view.kShortestPaths(start, end, 3, 1);
+                assertEquals(expectedPaths.getSize(), actualPaths.getSize());
+                for (int i = 0; i < expectedPaths.getSize(); i++) {
+                    assertEquals(expectedPaths.getElementAt(i).distance(), actualPaths.getElementAt(i).distance(), 0.0001);
+                }
+            }
+            assertEquals(rebuilt.depthFirstTraversal(start).getSize(), view.depthFirstTraversal(start).getSize());
+        }
+        assertEquals(rebuilt.minimumCostSpanningTree().getTotalWeight(), view.minimumCostSpanningTree().getTotalWeight(), 0.0001);
+        System.out.println("testAllAlgorithmsMatchRebuiltGraph passed");
+    }
+
+    @Test
+    void testRoundTripAndDepthFirstSearch() {
+        GraphMask<String> mask = dijkstraGraph.createMask();
+        mask.disableNode("d");
+        SaxGraph<String> view = dijkstraGraph.withMask(mask);
+
+        SaxList<SaxGraph<String>.DirectedEdge> path = view.depthFirstSearch("a", "e");
+        for (SaxGraph<String>.DirectedEdge edge : path) {
+            assertNotEquals("d", edge.from());
+            assertNotEquals("d", edge.to());
+        }
+        assertEquals("e", path.getLastElement().to());
+        assertTrue(view.depthFirstSearch("a", "d").getSize() == 0);
+
+        SaxList<String> stops = new SaxList<>();
+        stops.addElement("a");
+        stops.addElement("e");
+        stops.addElement("a");
+        SaxQueue<SaxList<SaxGraph<String>.DirectedEdge>> trip = view.roundTrip(stops);
+        double total = 0;
+        while (trip.getSize() > 0) total += totalWeight(trip.pop());
+        System.out.println("Expected: 16 | Actual: " + total);
+        assertEquals(16.0, total, 0.0001); // a b c g e and back
+        System.out.println("testRoundTripAndDepthFirstSearch passed");
+    }
+
+    @Test
+    void testToggleEdgesById() {
+        GraphMask<String> mask = dijkstraGraph.createMask();
+        SaxGraph<String> view = dijkstraGraph.withMask(mask);
+
+        // the edges on the shortest path carry their ids, so one can be closed without a search
+        SaxGraph<String>.DirectedEdge dToG = null;
+        for (SaxGraph<String>.DirectedEdge edge : dijkstraGraph.shortestPath("a", "e").edges()) {
+            if (edge.from().equals("d")) dToG = edge;
+        }
+        assertNotNull(dToG);
+        assertEquals("g", dToG.to());
+        int id = dToG.id();
+        assertTrue(id >= 0);
+        for (SaxGraph<String>.DirectedEdge edge : view.getEdges("d")) {
+            if (edge.to().equals("g")) assertEquals(id, edge.id(), "a view shows the ids of the graph");
+        }
+
+        mask.disableEdge(id);
+        System.out.println("Expected: 8 | Actual: " + view.shortestPath("a", "e").distance());
+        assertEquals(8.0, view.shortestPath("a", "e").distance(), 0.0001);
+        assertTrue(mask.isEdgeDisabled(id));
+        assertTrue(mask.isEdgeDisabled("d", "g"));
+        mask.enableEdge(id);
+        assertFalse(mask.isEdgeDisabled(id));
+        assertEquals(7.0, view.shortestPath("a", "e").distance(), 0.0001);
+
+        // ids of edges made outside the graph, or beyond the last edge, are refused
+        assertEquals(-1, dijkstraGraph.new DirectedEdge("d", "g", 1).id());
+        assertThrows(IllegalArgumentException.class, () -> mask.disableEdge(-1));
+        assertThrows(IllegalArgumentException.class, () -> mask.enableEdge(24)); // 12 two way edges: ids 0 to 23
+        assertFalse(mask.isEdgeDisabled(1000));
+        System.out.println("testToggleEdgesById passed");
+    }
+
+    @Test
+    void testCopyIsIndependent() {
+        GraphMask<String> today = dijkstraGraph.createMask();
+        today.disableEdge("d", "g");
+        GraphMask<String> tomorrow = today.copy();
+        tomorrow.enableEdge("d", "g");
+        tomorrow.disableNode("c");
+
+        assertTrue(today.isEdgeDisabled("d", "g"));
+        assertFalse(today.isNodeDisabled("c"));
+        assertEquals(8.0, dijkstraGraph.withMask(today).shortestPath("a", "e").distance(), 0.0001);
+        assertEquals(7.0, dijkstraGraph.withMask(tomorrow).shortestPath("a", "e").distance(), 0.0001);
+        System.out.println("testCopyIsIndependent passed");
+    }
+
+    @Test
+    void testViewSharesGraphButCannotChangeIt() {
+        GraphMask<String> mask = dijkstraGraph.createMask();
+        SaxGraph<String> view = dijkstraGraph.withMask(mask);
+        assertThrows(UnsupportedOperationException.class, () -> view.addNode("x"));
+        assertThrows(UnsupportedOperationException.class, () -> view.addEdge("a", "x", 1));
+        assertThrows(UnsupportedOperationException.class, view::clear);
+
+        // nodes and edges added to the graph later are seen by the view and can be closed
+        dijkstraGraph.addEdge("a", "e", 6);
+        assertEquals(6.0, view.shortestPath("a", "e").distance(), 0.0001);
+        mask.disableEdge("a", "e");
+        assertEquals(7.0, view.shortestPath("a", "e").distance(), 0.0001);
+        dijkstraGraph.addEdge("e", "h", 1);
+        mask.disableNode("h");
+        assertFalse(view.shortestPath("a", "h").isFound());
+        assertEquals(7.0, dijkstraGraph.shortestPath("a", "h").distance(), 0.0001);
+
+        // a view of a view uses the same graph; masks of other graphs are refused
+        GraphMask<String> other = view.createMask();
+        assertEquals(6.0, view.withMask(other).shortestPath("a", "e").distance(), 0.0001);
+        SaxGraph<String> otherGraph = new SaxGraph<>();
+        otherGraph.addEdge("a", "e", 1);
+        assertThrows(IllegalArgumentException.class, () -> dijkstraGraph.withMask(otherGraph.createMask()));
+        assertThrows(IllegalArgumentException.class, () -> dijkstraGraph.withMask(null));
+
+        assertThrows(IllegalArgumentException.class, () -> mask.disableNode(null));
+        assertThrows(IllegalArgumentException.class, () -> mask.disableNode("x"));
+        assertThrows(IllegalArgumentException.class, () -> mask.disableEdge("a", "f"));
+        assertThrows(IllegalArgumentException.class, () -> mask.enableEdge(null, "a"));
+        assertFalse(mask.isNodeDisabled("x"));
+        System.out.println("testViewSharesGraphButCannotChangeIt passed");
+    }
+
+    @Test
+    void testConcurrentQueriesWithAndWithoutMask() throws InterruptedException {
+        GraphMask<String> mask = dijkstraGraph.createMask();
+        mask.disableNode("g");
+        SaxGraph<String> view = dijkstraGraph.withMask(mask);
+
+        boolean[] correct = new boolean[4];
+        Thread[] workers = new Thread[correct.length];
+        for (int w = 0; w < workers.length; w++) {
+            int worker = w;
+            SaxGraph<String> graph = w % 2 == 0 ? dijkstraGraph : view;
+            double expected = w % 2 == 0 ? 7.0 : 9.0;
+            workers[w] = new Thread(() -> {
+                boolean ok = true;
+                for (int i = 0; i < 2000; i++) {
+                    ok &= graph.shortestPath("a", "e").distance() == expected;
+                    ok &= graph.shortestPathBidirectional("e", "a").distance() == expected;
+                }
+                correct[worker] = ok;
+            });
+            workers[w].start();
+        }
+        for (Thread worker : workers) worker.join();
+        for (int w = 0; w < correct.length; w++) {
+            System.out.println("Worker " + w + " expected: true | Actual: " + correct[w]);
+            assertTrue(correct[w]);
+        }
+        System.out.println("testConcurrentQueriesWithAndWithoutMask passed");
+    }
+
+    private static <V> double totalWeight(SaxList<SaxGraph<V>.DirectedEdge> edges) {
+        double total = 0;
+        for (SaxGraph<V>.DirectedEdge edge : edges) total += edge.weight();
+        return total;
+    }
+}
@@ -0,0 +1,148 @@
+package collection;
+
+import nl.saxion.cds.collection.DistanceMatrix;
+import nl.saxion.cds.collection.Landmarks;
+import nl.saxion.cds.collection.SaxCompactGraph;
+import nl.saxion.cds.collection.SaxGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLandmarks {
+    private SaxCompactGraph<Integer> network;
+
+    /**
+     * A random directed graph of 80 nodes: a two way ring (so most nodes are connected) plus one way shortcuts,
+     * and two nodes that can only be left or only be entered.
+     */
+    @BeforeEach
+    void createGraph() {
+        Random random = new Random(21);
+        SaxGraph<Integer> graph = new SaxGraph<>();
+        for (int i = 0; i < 78; i++) {
+            graph.addEdgeBidirectional(i, (i + 1) % 78, 5 + random.nextInt(10));
+        }
+        for (int i = 0; i < 60; i++) {
+            graph.addEdge(random.nextInt(78), random.nextInt(78), 10 + random.nextInt(30));
+        }
+        graph.addEdge(78, 3, 4);   // source only
+        graph.addEdge(40, 79, 4);  // sink only
+        network = graph.freeze();
+    }
+
+    @Test
+    void testLowerBoundsAreAdmissible() {
+        Landmarks<Integer> landmarks = network.landmarks(6, 3);
+        DistanceMatrix<Integer> matrix = network.distanceMatrix(2);
+        System.out.println(landmarks);
+
+        double boundTotal = 0;
+        double distanceTotal = 0;
+        for (int from = 0; from < network.getSize(); from++) {
+            for (int to = 0; to < network.getSize(); to++) {
+                double bound = landmarks.lowerBound(from, to);
+                double distance = matrix.distance(from, to);
+                assertTrue(bound >= 0, "bound must not be negative");
+                assertTrue(bound <= distance + 1e-9, "bound " + bound + " exceeds distance " + distance + " for " + from + " -> " + to);
+                if (distance != Double.POSITIVE_INFINITY) {
+                    boundTotal += bound;
+                    distanceTotal += distance;
+                }
+            }
+        }
+        System.out.printf("Expected: bounds at most the distances | Actual: bounds are %.0f%% of the distances%n",
+                100 * boundTotal / distanceTotal);
+        assertEquals(0.0, landmarks.lowerBound(7, 7));
+        System.out.println("testLowerBoundsAreAdmissible passed");
+    }
+
+    @Test
+    void testAStarWithLandmarksFindsShortestPaths() {
+        SaxGraph.Estimator<Integer> estimator = network.landmarks(4).estimator();
+        for (int from = 0; from < network.getSize(); from += 7) {
+            for (int to = 0; to < network.getSize(); to += 3) {
+                SaxGraph<Integer>.Path expected = network.shortestPath(network.value(from), network.value(to));
+                double actual = 0;
+                for (SaxGraph<Integer>.DirectedEdge edge : network.shortestPathAStar(network.value(from), network.value(to), estimator)) {
+                    actual += edge.weight();
+                }
+                if (expected.isFound()) assertEquals(expected.distance(), actual, 1e-9, from + " -> " + to);
+            }
+        }
+        assertEquals(0.0, estimator.estimate(1, 1000)); // unknown node
+        System.out.println("testAStarWithLandmarksFindsShortestPaths passed");
+    }
+
+    @Test
+    void testFarthestPointSelection() {
+        // a line 0 - 1 - ... - 9: the farthest node from 0 is 9, and the farthest from 9 is 0
+        SaxGraph<Integer> line = new SaxGraph<>();
+        for (int i = 1; i < 10; i++) line.addEdgeBidirectional(i - 1, i, 1);
+        Landmarks<Integer> landmarks = line.freeze().landmarks(3, 2);
+
+        System.out.println("Expected landmarks: 9, 0, 4 or 5 | Actual: " + landmarks.getLandmark(0) + ", "
+                + landmarks.getLandmark(1) + ", " + landmarks.getLandmark(2));
+        assertEquals(9, landmarks.getLandmark(0));
+        assertEquals(0, landmarks.getLandmark(1));
+        assertTrue(landmarks.getLandmark(2) == 4 || landmarks.getLandmark(2) == 5);
+        // on a line a landmark at the end gives the exact distance
+        assertEquals(6.0, landmarks.lowerBound(2, 8));
+
+        // more landmarks than nodes: every node becomes a landmark once
+        Landmarks<Integer> all = line.freeze().landmarks(50, 4);
+        assertEquals(10, all.getCount());
+        assertThrows(IllegalArgumentException.class, () -> network.landmarks(0));
+        assertThrows(IllegalArgumentException.class, () -> network.landmarks(2, 0));
+        System.out.println("testFarthestPointSelection passed");
+    }
+
+    @Test
+    void testCombinedEstimatorTakesMaximum() {
+        Landmarks<Integer> landmarks = network.landmarks(4);
+        SaxGraph.Estimator<Integer> combined = landmarks.estimator((a, b) -> 1.0);
+        for (int to = 0; to < 20; to++) {
+            double expected = Math.max(1.0, landmarks.lowerBound(0, to));
+            assertEquals(expected, combined.estimate(0, to));
+        }
+        assertThrows(IllegalArgumentException.class, () -> landmarks.estimator(null));
+        System.out.println("testCombinedEstimatorTakesMaximum passed");
+    }
+
+    @Test
+    void testSaveAndLoad(@TempDir File folder) throws IOException {
+        Landmarks<Integer> original = network.landmarks(5, 2);
+        File file = new File(folder, "landmarks.bin");
+        original.save(file);
+        Landmarks<Integer> loaded = Landmarks.load(network, file);
+        System.out.println("Loaded: " + loaded + " from " + file.length() + " bytes");
+
+        assertEquals(original.getCount(), loaded.getCount());
+        for (int l = 0; l < original.getCount(); l++) {
+            assertEquals(original.getLandmark(l), loaded.getLandmark(l));
+        }
+        for (int from = 0; from < network.getSize(); from++) {
+            for (int to = 0; to < network.getSize(); to++) {
+                assertEquals(original.lowerBound(from, to), loaded.lowerBound(from, to));
+            }
+        }
+
+        // a file made for another graph, or no landmark file at all, is refused
+        SaxGraph<Integer> other = new SaxGraph<>();
+        other.addEdge(1, 2, 1);
+        assertThrows(IOException.class, () -> Landmarks.load(other.freeze(), file));
+        File garbage = new File(folder, "garbage.bin");
+        try (FileOutputStream out = new FileOutputStream(garbage)) {
+            out.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        }
+        assertThrows(IOException.class, () -> Landmarks.load(network, garbage));
+        assertThrows(IOException.class, () -> Landmarks.load(network, new File(folder, "missing.bin")));
+        System.out.println("testSaveAndLoad passed");
+    }
+}
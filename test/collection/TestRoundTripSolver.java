@@ -0,0 +1,309 @@
+package collection;
+
+import nl.saxion.cds.collection.RoundTripSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRoundTripSolver {
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    // Symmetric costs between random points in a 100 x 100 square
+    private static double[][] randomCosts(int n, long seed) {
+        Random random = new Random(seed);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextDouble() * 100;
+            y[i] = random.nextDouble() * 100;
+        }
+        double[][] costs = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                costs[i][j] = Math.hypot(x[i] - x[j], y[i] - y[j]);
+            }
+        }
+        return costs;
+    }
+
+    // A tour must start at 0 and visit every place exactly once
+    private static void assertValidTour(int n, int[] order) {
+        assertEquals(n, order.length);
+        assertEquals(0, order[0]);
+        boolean[] seen = new boolean[n];
+        for (int place : order) {
+            assertFalse(seen[place], "place visited twice: " + place);
+            seen[place] = true;
+        }
+    }
+
+    @Test
+    void testHeldKarpMatchesBruteForce() {
+        for (int n = 2; n <= 8; n++) {
+            double[][] costs = randomCosts(n, n);
+            RoundTripSolver.Tour expected = RoundTripSolver.bruteForce(costs);
+            RoundTripSolver.Tour actual = RoundTripSolver.heldKarp(costs);
+            System.out.println("n=" + n + " Expected: " + expected + " | Actual: " + actual);
+            assertEquals(expected.length(), actual.length(), 0.0001);
+            assertValidTour(n, actual.order());
+            assertEquals(actual.length(), RoundTripSolver.tourLength(costs, actual.order()), 0.0001);
+        }
+        System.out.println("testHeldKarpMatchesBruteForce passed");
+    }
+
+    @Test
+    void testAsymmetricCosts() {
+        double[][] costs = {
+                {0, 1, 10, 10},
+                {10, 0, 1, 10},
+                {10, 10, 0, 1},
+                {1, 10, 10, 0}
+        };
+        RoundTripSolver.Tour tour = RoundTripSolver.heldKarp(costs);
+        System.out.println("Expected: [0, 1, 2, 3] (4.0) | Actual: " + tour);
+        assertArrayEquals(new int[]{0, 1, 2, 3}, tour.order());
+        assertEquals(4.0, tour.length());
+        assertEquals(4.0, RoundTripSolver.bruteForce(costs).length());
+        System.out.println("testAsymmetricCosts passed");
+    }
+
+    @Test
+    void testNoRoundTripWhenPlaceUnreachable() {
+        double[][] costs = {
+                {0, 1, INF},
+                {1, 0, INF},
+                {INF, INF, 0}
+        };
+        RoundTripSolver.Tour tour = RoundTripSolver.heldKarp(costs);
+        System.out.println("Expected: not found | Actual: " + tour);
+        assertFalse(tour.isFound());
+        assertEquals(0, tour.order().length);
+        assertFalse(RoundTripSolver.bruteForce(costs).isFound());
+        System.out.println("testNoRoundTripWhenPlaceUnreachable passed");
+    }
+
+    @Test
+    void testSinglePlaceAndLargestSize() {
+        RoundTripSolver.Tour single = RoundTripSolver.heldKarp(new double[][]{{0}});
+        assertArrayEquals(new int[]{0}, single.order());
+        assertEquals(0.0, single.length());
+
+        double[][] costs = randomCosts(RoundTripSolver.HELD_KARP_LIMIT, 42);
+        long start = System.currentTimeMillis();
+        RoundTripSolver.Tour tour = RoundTripSolver.heldKarp(costs);
+        System.out.println("Held-Karp with " + costs.length + " places: " + tour.length()
+                + " in " + (System.currentTimeMillis() - start) + " ms");
+        assertValidTour(costs.length, tour.order());
+        assertEquals(tour.length(), RoundTripSolver.tourLength(costs, tour.order()), 0.0001);
+        System.out.println("testSinglePlaceAndLargestSize passed");
+    }
+
+    @Test
+    void testInvalidCostTables() {
+        System.out.println("Expected: IllegalArgumentException for empty, non-square and too large tables");
+        assertThrows(IllegalArgumentException.class, () -> RoundTripSolver.heldKarp(null));
+        assertThrows(IllegalArgumentException.class, () -> RoundTripSolver.heldKarp(new double[0][0]));
+        assertThrows(IllegalArgumentException.class, () -> RoundTripSolver.heldKarp(new double[][]{{0, 1}, {1}}));
+        int tooMany = RoundTripSolver.HELD_KARP_LIMIT + 1;
+        assertThrows(IllegalArgumentException.class, () -> RoundTripSolver.heldKarp(new double[tooMany][tooMany]));
+        assertThrows(IllegalArgumentException.class, () -> RoundTripSolver.bruteForce(new double[][]{{0, 1}}));
+        System.out.println("testInvalidCostTables passed");
+    }
+
+    @Test
+    void testHeuristicFindsOptimumOfSmallTours() {
+        for (int n = 5; n <= 12; n++) {
+            double[][] costs = randomCosts(n, 100 + n);
+            double expected = RoundTripSolver.heldKarp(costs).length();
+            RoundTripSolver.Tour tour = RoundTripSolver.heuristic(costs, 5000, 7);
+            System.out.println("n=" + n + " Expected: " + expected + " | Actual: " + tour.length());
+            assertValidTour(n, tour.order());
+            assertEquals(expected, tour.length(), 0.0001);
+            assertTrue(tour.lowerBound() <= tour.length());
+        }
+        System.out.println("testHeuristicFindsOptimumOfSmallTours passed");
+    }
+
+    @Test
+    void testHeuristicLargeTourIsValidAndReproducible() {
+        double[][] costs = randomCosts(150, 9);
+        RoundTripSolver.Tour first = RoundTripSolver.heuristic(costs, 60_000, 1234, 50);
+        RoundTripSolver.Tour second = RoundTripSolver.heuristic(costs, 60_000, 1234, 50);
+        System.out.println("150 places: " + first.length() + ", lower bound " + first.lowerBound()
+                + ", gap " + Math.round(first.gap() * 100) + "%");
+        assertValidTour(150, first.order());
+        assertEquals(first.length(), RoundTripSolver.tourLength(costs, first.order()), 0.0001);
+        assertArrayEquals(first.order(), second.order());
+        assertFalse(first.isTimedOut(), "the kick limit, not the budget, must end a reproducible search");
+        assertTrue(first.gap() > 0 && first.gap() < 1, "gap to the MST bound should be well below 100%");
+        System.out.println("testHeuristicLargeTourIsValidAndReproducible passed");
+    }
+
+    @Test
+    void testHeuristicReportsTimeBudgetStop() {
+        double[][] costs = randomCosts(40, 3);
+        RoundTripSolver.Tour stopped = RoundTripSolver.heuristic(costs, 0, 1234, 1000);
+        System.out.println("Expected: timed out | Actual: " + stopped.isTimedOut());
+        assertTrue(stopped.isTimedOut());
+        assertValidTour(40, stopped.order());
+
+        // too few places for a kick: nothing left for the budget to stop
+        assertFalse(RoundTripSolver.heuristic(randomCosts(4, 3), 0, 1234, 1000).isTimedOut());
+        System.out.println("testHeuristicReportsTimeBudgetStop passed");
+    }
+
+    @Test
+    void testHeuristicImprovesAsymmetricTour() {
+        double[][] costs = {
+                {0, 1, 10, 10, 10},
+                {10, 0, 10, 1, 10},
+                {10, 10, 0, 10, 1},
+                {10, 10, 1, 0, 10},
+                {1, 10, 10, 10, 0}
+        };
+        RoundTripSolver.Tour tour = RoundTripSolver.heuristic(costs, 1000, 3);
+        System.out.println("Expected: [0, 1, 3, 2, 4] (5.0) | Actual: " + tour);
+        assertArrayEquals(new int[]{0, 1, 3, 2, 4}, tour.order());
+        assertEquals(5.0, tour.length());
+        System.out.println("testHeuristicImprovesAsymmetricTour passed");
+    }
+
+    @Test
+    void testSpanningTreeBound() {
+        double[][] costs = {
+                {0, 2, 9},
+                {3, 0, 4},
+                {1, 5, 0}
+        };
+        System.out.println("Expected bound: 3.0 | Actual: " + RoundTripSolver.spanningTreeBound(costs));
+        assertEquals(3.0, RoundTripSolver.spanningTreeBound(costs), 0.0001);
+        RoundTripSolver.Tour exact = RoundTripSolver.heldKarp(costs);
+        assertEquals(0.0, exact.gap());
+        assertEquals(exact.length(), exact.lowerBound());
+        System.out.println("testSpanningTreeBound passed");
+    }
+
+    @Test
+    void testGapOfMissingTourIsNaN() {
+        double[][] costs = {
+                {0, 1, INF},
+                {1, 0, INF},
+                {INF, INF, 0}
+        };
+        RoundTripSolver.Tour heuristic = RoundTripSolver.heuristic(costs, 100, 1, 10);
+        RoundTripSolver.Tour exact = RoundTripSolver.heldKarp(costs);
+        System.out.println("Expected gap: NaN | Actual: " + heuristic.gap() + " and " + exact.gap());
+        assertFalse(heuristic.isFound());
+        assertTrue(Double.isNaN(heuristic.gap()));
+        assertTrue(Double.isNaN(exact.gap()));
+        System.out.println("testGapOfMissingTourIsNaN passed");
+    }
+
+    @Test
+    void testGapWithZeroBound() {
+        // the zero cost edges 0 - 1 - 2 form a spanning tree, but the way back to 0 costs 5
+        double[][] costs = {
+                {0, 0, 5},
+                {0, 0, 0},
+                {5, 0, 0}
+        };
+        RoundTripSolver.Tour tour = RoundTripSolver.heuristic(costs, 100, 1, 10);
+        System.out.println("Expected: length 5, bound 0, gap NaN | Actual: length " + tour.length()
+                + ", bound " + tour.lowerBound() + ", gap " + tour.gap());
+        assertEquals(5.0, tour.length());
+        assertEquals(0.0, tour.lowerBound());
+        assertTrue(Double.isNaN(tour.gap()));
+
+        // a tour of length 0 matches a zero bound exactly
+        RoundTripSolver.Tour free = RoundTripSolver.heuristic(new double[3][3], 100, 1, 10);
+        assertEquals(0.0, free.gap());
+        System.out.println("testGapWithZeroBound passed");
+    }
+
+    @Test
+    void testParallelSearchMatchesHeldKarp() {
+        for (int n = 1; n <= 10; n++) {
+            double[][] costs = randomCosts(n, 200 + n);
+            double expected = RoundTripSolver.heldKarp(costs).length();
+            RoundTripSolver.Tour tour = RoundTripSolver.parallelSearch(costs, 3);
+            System.out.println("n=" + n + " Expected: " + expected + " | Actual: " + tour.length());
+            assertValidTour(n, tour.order());
+            assertEquals(expected, tour.length(), 0.0001);
+            assertEquals(tour.length(), RoundTripSolver.tourLength(costs, tour.order()), 0.0001);
+        }
+        System.out.println("testParallelSearchMatchesHeldKarp passed");
+    }
+
+    @Test
+    void testParallelSearchAsymmetricAndUnreachable() {
+        double[][] costs = {
+                {0, 1, 10, 10, 10},
+                {10, 0, 10, 1, 10},
+                {10, 10, 0, 10, 1},
+                {10, 10, 1, 0, 10},
+                {1, 10, 10, 10, 0}
+        };
+        RoundTripSolver.Tour tour = RoundTripSolver.parallelSearch(costs, 2);
+        System.out.println("Expected: [0, 1, 3, 2, 4] (5.0) | Actual: " + tour);
+        assertArrayEquals(new int[]{0, 1, 3, 2, 4}, tour.order());
+
+        costs[2] = new double[]{INF, INF, 0, INF, INF};
+        assertFalse(RoundTripSolver.parallelSearch(costs, 2).isFound());
+        assertThrows(IllegalArgumentException.class, () -> RoundTripSolver.parallelSearch(costs, 0));
+        System.out.println("testParallelSearchAsymmetricAndUnreachable passed");
+    }
+
+    @Test
+    void testBranchAndBoundMatchesHeldKarp() {
+        for (int n = 1; n <= 14; n++) {
+            double[][] costs = randomCosts(n, 300 + n);
+            double expected = RoundTripSolver.heldKarp(costs).length();
+            RoundTripSolver.Tour tour = RoundTripSolver.branchAndBound(costs, 60_000);
+            System.out.println("n=" + n + " Expected: " + expected + " | Actual: " + tour.length()
+                    + " (expanded " + tour.nodesExpanded() + ", pruned " + tour.nodesPruned() + ")");
+            assertValidTour(n, tour.order());
+            assertEquals(expected, tour.length(), 0.0001);
+            assertEquals(0.0, tour.gap());
+        }
+        System.out.println("testBranchAndBoundMatchesHeldKarp passed");
+    }
+
+    @Test
+    void testBranchAndBoundPrunesAndSolvesAsymmetricTour() {
+        double[][] costs = randomCosts(16, 77);
+        costs[3][4] = 0.5; // make the table asymmetric
+        RoundTripSolver.Tour tour = RoundTripSolver.branchAndBound(costs, 60_000);
+        System.out.println("Expected: " + RoundTripSolver.heldKarp(costs).length() + " | Actual: " + tour.length()
+                + " (expanded " + tour.nodesExpanded() + ", pruned " + tour.nodesPruned() + ")");
+        assertEquals(RoundTripSolver.heldKarp(costs).length(), tour.length(), 0.0001);
+        assertTrue(tour.nodesExpanded() > 0);
+        assertTrue(tour.nodesPruned() > 0);
+        System.out.println("testBranchAndBoundPrunesAndSolvesAsymmetricTour passed");
+    }
+
+    @Test
+    void testBranchAndBoundDeadlineReturnsBestSoFar() {
+        double[][] costs = randomCosts(60, 5);
+        long start = System.currentTimeMillis();
+        RoundTripSolver.Tour tour = RoundTripSolver.branchAndBound(costs, 200);
+        long elapsed = System.currentTimeMillis() - start;
+        System.out.println("60 places in " + elapsed + " ms: " + tour.length() + ", gap " + tour.gap());
+        assertValidTour(60, tour.order());
+        assertTrue(elapsed < 2000, "deadline must stop the search");
+        assertTrue(tour.gap() > 0, "an unfinished search cannot prove optimality");
+        assertTrue(tour.isTimedOut());
+        assertFalse(RoundTripSolver.branchAndBound(randomCosts(8, 5), 60_000).isTimedOut());
+        assertEquals(tour.length(), RoundTripSolver.tourLength(costs, tour.order()), 0.0001);
+
+        double[][] unreachable = {
+                {0, 1, INF, 1},
+                {1, 0, INF, 1},
+                {INF, INF, 0, INF},
+                {1, 1, INF, 0}
+        };
+        assertFalse(RoundTripSolver.branchAndBound(unreachable, 1000).isFound());
+        System.out.println("testBranchAndBoundDeadlineReturnsBestSoFar passed");
+    }
+}
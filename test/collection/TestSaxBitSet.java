@@ -0,0 +1,87 @@
+package collection;
+
+import nl.saxion.cds.collection.SaxBitSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSaxBitSet {
+
+    @Test
+    void testSetGetAndClearBits() {
+        SaxBitSet bits = new SaxBitSet(128);
+        bits.set(0);
+        bits.set(63);
+        bits.set(64);
+        bits.set(127);
+        System.out.println("Expected: [0, 63, 64, 127] | Actual: " + bits);
+        assertEquals("[0, 63, 64, 127]", bits.toString());
+        assertTrue(bits.get(63));
+        assertFalse(bits.get(62));
+        assertFalse(bits.get(-1));
+        assertFalse(bits.get(1000));
+
+        bits.clear(63);
+        bits.clear(5000); // beyond the capacity: nothing to clear
+        assertFalse(bits.get(63));
+        assertEquals(3, bits.cardinality());
+        assertEquals(3, bits.getSize());
+        assertThrows(IndexOutOfBoundsException.class, () -> bits.set(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> bits.clear(-1));
+        System.out.println("testSetGetAndClearBits passed");
+    }
+
+    @Test
+    void testNextSetAndClearBit() {
+        SaxBitSet bits = new SaxBitSet(200);
+        for (int i = 10; i < 140; i++) bits.set(i);
+        bits.clear(70);
+        System.out.println("Expected next set from 0: 10 | Actual: " + bits.nextSetBit(0));
+        assertEquals(10, bits.nextSetBit(0));
+        assertEquals(10, bits.nextSetBit(-5));
+        assertEquals(71, bits.nextSetBit(70));
+        assertEquals(139, bits.nextSetBit(139));
+        assertEquals(-1, bits.nextSetBit(140));
+        assertEquals(-1, bits.nextSetBit(10_000));
+
+        assertEquals(0, bits.nextClearBit(0));
+        assertEquals(70, bits.nextClearBit(10));
+        assertEquals(140, bits.nextClearBit(71));
+        assertEquals(10_000, bits.nextClearBit(10_000));
+
+        SaxBitSet full = new SaxBitSet(64);
+        for (int i = 0; i < 64; i++) full.set(i);
+        assertEquals(64, full.nextClearBit(0));
+        System.out.println("testNextSetAndClearBit passed");
+    }
+
+    @Test
+    void testGrowsAndClearsForReuse() {
+        SaxBitSet bits = new SaxBitSet(0);
+        int initial = bits.getCapacity();
+        bits.set(1000);
+        System.out.println("Capacity grew from " + initial + " to " + bits.getCapacity());
+        assertTrue(bits.getCapacity() > 1000);
+        assertTrue(bits.get(1000));
+
+        bits.clear();
+        assertEquals(0, bits.cardinality());
+        assertFalse(bits.get(1000));
+        assertTrue(bits.getCapacity() > 1000);
+        System.out.println("testGrowsAndClearsForReuse passed");
+    }
+
+    @Test
+    void testIteratorGivesAscendingBits() {
+        SaxBitSet bits = new SaxBitSet(300);
+        int[] expected = {2, 65, 130, 299};
+        for (int i = expected.length - 1; i >= 0; i--) bits.set(expected[i]);
+        Iterator<Integer> it = bits.iterator();
+        for (int exp : expected) assertEquals(exp, it.next());
+        assertFalse(it.hasNext());
+        assertThrows(IndexOutOfBoundsException.class, it::next);
+        System.out.println("testIteratorGivesAscendingBits passed");
+    }
+}
@@ -0,0 +1,162 @@
+package collection;
+
+import nl.saxion.cds.collection.SaxCompactGraph;
+import nl.saxion.cds.collection.SaxGraph;
+import nl.saxion.cds.collection.SaxList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSaxCompactGraph {
+    private SaxGraph<String> dijkstraGraph;
+    private SaxCompactGraph<String> compact;
+
+    /**
+     * The Dijkstra example graph from the Graph algorithms sheets, frozen into CSR form.
+     */
+    @BeforeEach
+    void createGraph() {
+        dijkstraGraph = TestSaxGraphAdvanced.createDijkstraExample();
+        compact = dijkstraGraph.freeze();
+    }
+
+    @Test
+    void testFreezeKeepsNodesAndEdges() {
+        System.out.println("Expected nodes: " + dijkstraGraph.getSize() + " | Actual: " + compact.getSize());
+        System.out.println("Expected edges: " + dijkstraGraph.getEdges().getSize() + " | Actual: " + compact.getEdgeCount());
+        assertEquals(dijkstraGraph.getSize(), compact.getSize());
+        assertEquals(dijkstraGraph.getEdges().getSize(), compact.getEdgeCount());
+        for (String node : dijkstraGraph) {
+            assertTrue(compact.contains(node));
+            assertEquals(node, compact.value(compact.getId(node)));
+        }
+        assertFalse(compact.contains("z"));
+        assertEquals(-1, compact.getId("z"));
+        System.out.println("testFreezeKeepsNodesAndEdges passed");
+    }
+
+    @Test
+    void testIdsFollowInsertionOrder() {
+        int index = 0;
+        for (String node : compact) {
+            assertEquals(index, compact.getId(node));
+            index++;
+        }
+        System.out.println("Expected iterated nodes: " + compact.getSize() + " | Actual: " + index);
+        assertEquals(compact.getSize(), index);
+        System.out.println("testIdsFollowInsertionOrder passed");
+    }
+
+    @Test
+    void testSnapshotIgnoresLaterChanges() {
+        dijkstraGraph.addEdge("a", "z", 1);
+        System.out.println("Expected: 'z' not in snapshot | Actual: " + compact.contains("z"));
+        assertFalse(compact.contains("z"));
+        System.out.println("testSnapshotIgnoresLaterChanges passed");
+    }
+
+    @Test
+    void testDijkstraMatchesGraph() {
+        SaxGraph<String> expected = dijkstraGraph.shortestPathsDijkstra("a");
+        SaxGraph<String> actual = compact.shortestPathsDijkstra("a");
+        System.out.println("Expected weight: " + expected.getTotalWeight() + " | Actual: " + actual.getTotalWeight());
+        assertEquals(expected.getSize(), actual.getSize());
+        assertEquals(expected.getTotalWeight(), actual.getTotalWeight(), 0.0001);
+        assertEquals(expected.getEdges().getSize(), actual.getEdges().getSize());
+        System.out.println("testDijkstraMatchesGraph passed");
+    }
+
+    @Test
+    void testDijkstraHandlesUnreachableNode() {
+        SaxGraph<String> g = new SaxGraph<>();
+        g.addEdgeBidirectional("X", "Y", 1);
+        g.addNode("Z");
+        SaxGraph<String> result = g.freeze().shortestPathsDijkstra("X");
+        System.out.println("Expected: contains 'Z' without edges | Actual: " + result.contains("Z"));
+        assertTrue(result.contains("Z"));
+        assertEquals(0, result.getEdges("Z").getSize());
+        System.out.println("testDijkstraHandlesUnreachableNode passed");
+    }
+
+    @Test
+    void testDijkstraThrowsOnUnknownOrNullNode() {
+        System.out.println("Expected: IllegalArgumentException for null and unknown start nodes");
+        assertThrows(IllegalArgumentException.class, () -> compact.shortestPathsDijkstra(null));
+        assertThrows(IllegalArgumentException.class, () -> compact.shortestPathsDijkstra("z"));
+        System.out.println("testDijkstraThrowsOnUnknownOrNullNode passed");
+    }
+
+    @Test
+    void testAStarFindsShortestPath() {
+        SaxList<SaxGraph<String>.DirectedEdge> path = compact.shortestPathAStar("a", "f", (x, y) -> 0.0);
+        double length = 0;
+        for (var edge : path) length += edge.weight();
+        System.out.println("Expected length: 10.0 | Actual: " + length + " via " + path);
+        assertEquals(10.0, length, 0.0001);
+        assertEquals("a", path.getElementAt(0).from());
+        assertEquals("f", path.getLastElement().to());
+        System.out.println("testAStarFindsShortestPath passed");
+    }
+
+    @Test
+    void testAStarReturnsEmptyIfNoPath() {
+        SaxGraph<String> g = new SaxGraph<>();
+        g.addEdgeBidirectional("X", "Y", 1);
+        g.addNode("Z");
+        int actual = g.freeze().shortestPathAStar("X", "Z", (x, y) -> 1.0).getSize();
+        System.out.println("Expected path size: 0 | Actual: " + actual);
+        assertEquals(0, actual);
+        assertThrows(IllegalArgumentException.class, () -> compact.shortestPathAStar("a", "f", null));
+        System.out.println("testAStarReturnsEmptyIfNoPath passed");
+    }
+
+    @Test
+    void testDepthFirstTraversalMatchesGraph() {
+        SaxList<SaxGraph<String>.DirectedEdge> expected = dijkstraGraph.depthFirstTraversal("a");
+        SaxList<SaxGraph<String>.DirectedEdge> actual = compact.depthFirstTraversal("a");
+        System.out.println("Expected: " + expected + " | Actual: " + actual);
+        assertEquals(expected.toString(), actual.toString());
+        System.out.println("testDepthFirstTraversalMatchesGraph passed");
+    }
+
+    @Test
+    void testMinimumCostSpanningTreeMatchesGraph() {
+        double expected = dijkstraGraph.minimumCostSpanningTree().getTotalWeight();
+        SaxGraph<String> mcst = compact.minimumCostSpanningTree();
+        System.out.println("Expected weight: " + expected + " | Actual: " + mcst.getTotalWeight());
+        assertEquals(expected, mcst.getTotalWeight(), 0.0001);
+        assertEquals(compact.getSize(), mcst.getSize());
+        assertEquals(compact.getSize() - 1, mcst.getEdges().getSize());
+        System.out.println("testMinimumCostSpanningTreeMatchesGraph passed");
+    }
+
+    @Test
+    void testMinimumCostSpanningTreeOfDisconnectedGraph() {
+        SaxGraph<String> g = new SaxGraph<>();
+        g.addEdgeBidirectional("A", "B", 2);
+        g.addEdgeBidirectional("C", "D", 3);
+        g.addNode("E");
+        SaxGraph<String> mcst = g.freeze().minimumCostSpanningTree();
+        System.out.println("Expected weight: 5.0 | Actual: " + mcst.getTotalWeight());
+        assertEquals(5.0, mcst.getTotalWeight(), 0.0001);
+        assertEquals(5, mcst.getSize());
+        System.out.println("testMinimumCostSpanningTreeOfDisconnectedGraph passed");
+    }
+
+    @Test
+    void testShortestPathMatchesGraph() {
+        SaxGraph<String>.Path expected = dijkstraGraph.shortestPath("a", "f");
+        SaxGraph<String>.Path actual = compact.shortestPath("a", "f");
+        System.out.println("Expected: " + expected + " | Actual: " + actual);
+        assertEquals(expected.distance(), actual.distance(), 0.0001);
+        assertEquals(expected.edges().toString(), actual.edges().toString());
+
+        SaxGraph<String> g = new SaxGraph<>();
+        g.addEdgeBidirectional("X", "Y", 1);
+        g.addNode("Z");
+        assertFalse(g.freeze().shortestPath("X", "Z").isFound());
+        System.out.println("testShortestPathMatchesGraph passed");
+    }
+
+}
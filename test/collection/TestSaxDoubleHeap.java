@@ -0,0 +1,81 @@
+package collection;
+
+import nl.saxion.cds.collection.SaxDoubleHeap;
+import nl.saxion.cds.collection.exceptions.EmptyCollectionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSaxDoubleHeap {
+
+    @Test
+    void testPopsInPriorityOrder() {
+        SaxDoubleHeap heap = new SaxDoubleHeap(2);
+        double[] priorities = {13, 21, 16, 19, 31, 24, 68, 65, 26, 32};
+        for (int i = 0; i < priorities.length; i++) heap.push(i, priorities[i]);
+        int[] expected = {0, 2, 3, 1, 5, 8, 4, 9, 7, 6};
+
+        for (int exp : expected) {
+            int actual = heap.pop();
+            System.out.printf("Expected: %-3d | Actual: %-3d%n", exp, actual);
+            assertEquals(exp, actual);
+        }
+        assertEquals(0, heap.getSize());
+        assertThrows(EmptyCollectionException.class, heap::pop);
+        assertThrows(EmptyCollectionException.class, heap::peek);
+        assertThrows(EmptyCollectionException.class, heap::peekPriority);
+    }
+
+    @Test
+    void testDuplicateValuesForLazyDeletion() {
+        SaxDoubleHeap heap = new SaxDoubleHeap();
+        heap.push(7, 10.0);
+        heap.push(3, 5.0);
+        heap.push(7, 2.0); // improved priority for 7; the entry with 10.0 becomes outdated
+        System.out.println("Expected: 7 (2.0), 3 (5.0), 7 (10.0)");
+        assertEquals(2.0, heap.peekPriority());
+        assertEquals(7, heap.pop());
+        assertEquals(3, heap.pop());
+        assertEquals(10.0, heap.peekPriority());
+        assertEquals(7, heap.pop());
+        System.out.println("testDuplicateValuesForLazyDeletion passed");
+    }
+
+    @Test
+    void testRandomPrioritiesComeOutSorted() {
+        SaxDoubleHeap heap = new SaxDoubleHeap();
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) heap.push(i, random.nextDouble());
+        double previous = -1;
+        while (heap.getSize() > 0) {
+            assertTrue(heap.peekPriority() >= previous);
+            previous = heap.peekPriority();
+            heap.pop();
+        }
+        System.out.println("testRandomPrioritiesComeOutSorted passed");
+    }
+
+    @Test
+    void testIteratorAndClear() {
+        SaxDoubleHeap heap = new SaxDoubleHeap(0);
+        heap.push(1, 1.0);
+        heap.push(2, 0.5);
+        Iterator<Integer> it = heap.iterator();
+        int count = 0;
+        while (it.hasNext()) {
+            it.next();
+            count++;
+        }
+        System.out.println("Expected iterator count: 2 | Actual: " + count + " " + heap);
+        assertEquals(2, count);
+        assertThrows(IndexOutOfBoundsException.class, it::next);
+        assertEquals("[2, 1]", heap.toString());
+
+        heap.clear();
+        assertEquals(0, heap.getSize());
+        System.out.println("testIteratorAndClear passed");
+    }
+}
@@ -1,12 +1,14 @@
 package collection;
 
 import nl.saxion.cds.collection.SaxGraph;
+import nl.saxion.cds.collection.SaxIndexedCollection;
 import nl.saxion.cds.collection.SaxList;
 import nl.saxion.cds.collection.SaxQueue;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.util.Iterator;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,22 +21,29 @@ class TestSaxGraphAdvanced {
      */
     @BeforeAll
     static void createDijkstraGraph() {
-        saxDijkstraGraph = new SaxGraph<>();
-        saxDijkstraGraph.addEdgeBidirectional("a", "b", 1);
-        saxDijkstraGraph.addEdgeBidirectional("a", "c", 4);
-        saxDijkstraGraph.addEdgeBidirectional("b", "c", 2);
-        saxDijkstraGraph.addEdgeBidirectional("b", "d", 3);
-        saxDijkstraGraph.addEdgeBidirectional("b", "e", 10);
-        saxDijkstraGraph.addEdgeBidirectional("c", "d", 6);
-        saxDijkstraGraph.addEdgeBidirectional("c", "g", 3);
-        saxDijkstraGraph.addEdgeBidirectional("d", "e", 5);
-        saxDijkstraGraph.addEdgeBidirectional("d", "g", 1);
-        saxDijkstraGraph.addEdgeBidirectional("e", "f", 7);
-        saxDijkstraGraph.addEdgeBidirectional("e", "g", 2);
-        saxDijkstraGraph.addEdgeBidirectional("f", "g", 5);
+        saxDijkstraGraph = createDijkstraExample();
         System.out.println(saxDijkstraGraph.graphViz("DijkstraGraph"));
     }
 
+    // The Dijkstra example graph; a fresh copy for tests that must not depend on the shared one (which is cleared),
+    // also used as the fixture of the other graph test classes
+    static SaxGraph<String> createDijkstraExample() {
+        SaxGraph<String> g = new SaxGraph<>();
+        g.addEdgeBidirectional("a", "b", 1);
+        g.addEdgeBidirectional("a", "c", 4);
+        g.addEdgeBidirectional("b", "c", 2);
+        g.addEdgeBidirectional("b", "d", 3);
+        g.addEdgeBidirectional("b", "e", 10);
+        g.addEdgeBidirectional("c", "d", 6);
+        g.addEdgeBidirectional("c", "g", 3);
+        g.addEdgeBidirectional("d", "e", 5);
+        g.addEdgeBidirectional("d", "g", 1);
+        g.addEdgeBidirectional("e", "f", 7);
+        g.addEdgeBidirectional("e", "g", 2);
+        g.addEdgeBidirectional("f", "g", 5);
+        return g;
+    }
+
     /**
      * Create the Prim and Kruskal example graph from the Graph algorithms sheets.
      */
@@ -157,7 +166,7 @@ class TestSaxGraphAdvanced {
 
     @Test
     void testGetEdgesOfUnknownNodeReturnsEmpty() {
-        SaxList<SaxGraph<String>.DirectedEdge> edges = saxDijkstraGraph.getEdges("ZZZ");
+        SaxIndexedCollection<SaxGraph<String>.DirectedEdge> edges = saxDijkstraGraph.getEdges("ZZZ");
         int expected = 0;
         int actual = edges.getSize();
         System.out.println("Expected edge count: " + expected + " | Actual: " + actual);
@@ -236,7 +245,7 @@ class TestSaxGraphAdvanced {
     void testGetEdgesReturnsEmptyForIsolatedNode() {
         SaxGraph<String> g = new SaxGraph<>();
         g.addNode("Isolated");
-        SaxList<?> edges = g.getEdges("Isolated");
+        SaxIndexedCollection<?> edges = g.getEdges("Isolated");
         int expected = 0;
         int actual = edges.getSize();
         System.out.println("Expected edges: " + expected + " | Actual: " + actual);
@@ -460,5 +469,318 @@ class TestSaxGraphAdvanced {
         System.out.println("testDirectedEdgeCompareWorks passed");
     }
 
-}
+    @Test
+    void testShortestPathsDijkstraBuildsCorrectTree() {
+        SaxGraph<String> g = new SaxGraph<>();
+        g.addEdgeBidirectional("a", "b", 1);
+        g.addEdgeBidirectional("a", "c", 4);
+        g.addEdgeBidirectional("b", "c", 2);
+        g.addEdgeBidirectional("b", "d", 3);
+        g.addEdgeBidirectional("c", "d", 6);
 
+        SaxGraph<String> tree = g.shortestPathsDijkstra("a");
+        double expected = 6.0; // a-b, b-c and b-d (plus the zero weight start edge)
+        double actual = tree.getTotalWeight();
+        System.out.println("Expected tree weight: " + expected + " | Actual: " + actual);
+
+        assertEquals(expected, actual, 0.0001);
+        assertEquals("c", tree.getEdges("b").getElementAt(0).to());
+        assertEquals(0, tree.getEdges("c").getSize());
+        System.out.println("testShortestPathsDijkstraBuildsCorrectTree passed");
+    }
+
+    @Test
+    void testRoundTripLegHandlesImprovedDistances() {
+        SaxGraph<String> g = new SaxGraph<>();
+        g.addEdgeBidirectional("a", "c", 4);
+        g.addEdgeBidirectional("a", "b", 1);
+        g.addEdgeBidirectional("b", "c", 2);
+
+        SaxList<String> trip = new SaxList<>();
+        trip.addElement("a");
+        trip.addElement("c");
+        SaxList<SaxGraph<String>.DirectedEdge> leg = g.roundTrip(trip).peek();
+
+        int expected = 2;
+        int actual = leg.getSize();
+        System.out.println("Expected leg via 'b' with " + expected + " edges | Actual: " + leg);
+        assertEquals(expected, actual);
+        assertEquals("b", leg.getElementAt(0).to());
+        System.out.println("testRoundTripLegHandlesImprovedDistances passed");
+    }
+
+    @Test
+    void testAStarFindsShortestPathWhenQueuedNodeImproves() {
+        SaxGraph<String> g = new SaxGraph<>();
+        g.addEdge("s", "t", 10);
+        g.addEdge("s", "a", 1);
+        g.addEdge("a", "b", 1);
+        g.addEdge("b", "t", 1);
+        g.addEdge("s", "x", 4);
+        g.addEdge("x", "t", 7);
+
+        SaxList<SaxGraph<String>.DirectedEdge> path = g.shortestPathAStar("s", "t", (from, to) -> 0.0);
+        double expected = 3.0;
+        double actual = 0;
+        for (var edge : path) actual += edge.weight();
+        System.out.println("Expected length: " + expected + " | Actual: " + actual + " via " + path);
+
+        assertEquals(expected, actual, 0.0001);
+        assertEquals(3, path.getSize());
+        System.out.println("testAStarFindsShortestPathWhenQueuedNodeImproves passed");
+    }
+
+    @Test
+    void testAStarReopensNodesForInconsistentEstimator() {
+        SaxGraph<String> g = new SaxGraph<>();
+        g.addEdge("s", "a", 1);
+        g.addEdge("s", "b", 3);
+        g.addEdge("a", "b", 1);
+        g.addEdge("b", "t", 3);
+        // admissible (never overestimates) but not consistent: 'a' looks much further away than it is
+        SaxGraph.Estimator<String> estimator = (from, to) -> from.equals("a") ? 4.0 : 0.0;
+
+        SaxList<SaxGraph<String>.DirectedEdge> path = g.shortestPathAStar("s", "t", estimator);
+        double expected = 5.0;
+        double actual = 0;
+        for (var edge : path) actual += edge.weight();
+        System.out.println("Expected length: " + expected + " | Actual: " + actual + " via " + path);
+
+        assertEquals(expected, actual, 0.0001);
+        assertEquals("a", path.getElementAt(0).to());
+        System.out.println("testAStarReopensNodesForInconsistentEstimator passed");
+    }
+
+    @Test
+    void testShortestPathReturnsEdgesAndDistance() {
+        SaxGraph<String> g = new SaxGraph<>();
+        g.addEdgeBidirectional("a", "b", 1);
+        g.addEdgeBidirectional("a", "c", 4);
+        g.addEdgeBidirectional("b", "c", 2);
+        g.addEdgeBidirectional("c", "d", 1);
+        g.addEdgeBidirectional("d", "e", 50);
+
+        SaxGraph<String>.Path path = g.shortestPath("a", "d");
+        double expected = 4.0;
+        double actual = path.distance();
+        System.out.println("Expected distance: " + expected + " | Actual: " + actual + " via " + path);
+
+        assertTrue(path.isFound());
+        assertEquals(expected, actual, 0.0001);
+        assertEquals(3, path.edges().getSize());
+        assertEquals("a", path.edges().getElementAt(0).from());
+        assertEquals("d", path.edges().getLastElement().to());
+        double sum = 0;
+        for (var edge : path.edges()) sum += edge.weight();
+        assertEquals(path.distance(), sum, 0.0001);
+        System.out.println("testShortestPathReturnsEdgesAndDistance passed");
+    }
+
+    @Test
+    void testShortestPathWithoutRouteOrToItself() {
+        SaxGraph<String> g = new SaxGraph<>();
+        g.addEdgeBidirectional("X", "Y", 1);
+        g.addNode("Z");
+
+        SaxGraph<String>.Path none = g.shortestPath("X", "Z");
+        System.out.println("Expected: not found, 0 edges | Actual: " + none.isFound() + ", " + none.edges().getSize());
+        assertFalse(none.isFound());
+        assertEquals(0, none.edges().getSize());
+        assertFalse(g.shortestPath("X", "unknown").isFound());
+
+        SaxGraph<String>.Path self = g.shortestPath("X", "X");
+        System.out.println("Expected: found with distance 0 | Actual: " + self.isFound() + ", " + self.distance());
+        assertTrue(self.isFound());
+        assertEquals(0.0, self.distance());
+        assertThrows(IllegalArgumentException.class, () -> g.shortestPath(null, "X"));
+        System.out.println("testShortestPathWithoutRouteOrToItself passed");
+    }
+
+    @Test
+    void testBidirectionalMatchesShortestPathOnExample() {
+        SaxGraph<String> example = createDijkstraExample();
+        for (String from : example) {
+            for (String to : example) {
+                SaxGraph<String>.Path expected = example.shortestPath(from, to);
+                SaxGraph<String>.Path actual = example.shortestPathBidirectional(from, to);
+                assertEquals(expected.distance(), actual.distance(), 1e-9, from + " -> " + to);
+                assertConnectedPath(from, to, actual);
+            }
+        }
+        SaxGraph<String>.Path ag = example.shortestPathBidirectional("a", "f");
+        System.out.println("Expected a -> f: 10.0 | Actual: " + ag);
+        assertEquals(10.0, ag.distance(), 1e-9);
+        System.out.println("testBidirectionalMatchesShortestPathOnExample passed");
+    }
+
+    @Test
+    void testBidirectionalMatchesShortestPathOnRandomDirectedGraph() {
+        // one way edges with random weights, so the backward search really has to use the incoming edges
+        Random random = new Random(20);
+        SaxGraph<Integer> g = new SaxGraph<>();
+        for (int i = 0; i < 60; i++) g.addNode(i);
+        for (int i = 0; i < 180; i++) {
+            g.addEdge(random.nextInt(60), random.nextInt(60), 1 + random.nextInt(20));
+        }
+
+        int found = 0;
+        for (int from = 0; from < 60; from++) {
+            for (int to = 0; to < 60; to++) {
+                SaxGraph<Integer>.Path expected = g.shortestPath(from, to);
+                SaxGraph<Integer>.Path actual = g.shortestPathBidirectional(from, to);
+                assertEquals(expected.distance(), actual.distance(), 1e-9, from + " -> " + to);
+                assertEquals(expected.isFound(), actual.isFound());
+                if (actual.isFound()) {
+                    found++;
+                    assertConnectedPath(from, to, actual);
+                }
+            }
+        }
+        System.out.println("Expected: same distances as shortestPath | Actual: equal for all 3600 pairs, " + found + " reachable");
+        assertFalse(g.shortestPathBidirectional(0, 99).isFound());
+        assertThrows(IllegalArgumentException.class, () -> g.shortestPathBidirectional(0, null));
+        System.out.println("testBidirectionalMatchesShortestPathOnRandomDirectedGraph passed");
+    }
+
+    @Test
+    void testKShortestPathsOnYenExample() {
+        // the example of Yen's algorithm on Wikipedia
+        SaxGraph<String> g = new SaxGraph<>();
+        g.addEdge("C", "D", 3);
+        g.addEdge("C", "E", 2);
+        g.addEdge("D", "F", 4);
+        g.addEdge("E", "D", 1);
+        g.addEdge("E", "F", 2);
+        g.addEdge("E", "G", 3);
+        g.addEdge("F", "G", 2);
+        g.addEdge("F", "H", 1);
+        g.addEdge("G", "H", 2);
+
+        SaxList<SaxGraph<String>.Path> paths = g.kShortestPaths("C", "H", 3, 2);
+        System.out.println("Expected: C-E-F-H 5, C-E-G-H 7, a path of 8 | Actual: " + paths);
+        assertEquals(3, paths.getSize());
+        assertEquals(5.0, paths.getElementAt(0).distance());
+        assertEquals(7.0, paths.getElementAt(1).distance());
+        assertEquals(8.0, paths.getElementAt(2).distance());
+        assertEquals("F", paths.getElementAt(0).edges().getElementAt(1).to());
+        assertEquals("G", paths.getElementAt(1).edges().getElementAt(1).to());
+        for (SaxGraph<String>.Path path : paths) {
+            assertConnectedPath("C", "H", path);
+        }
+
+        // all seven loopless paths, and no more
+        SaxList<SaxGraph<String>.Path> all = g.kShortestPaths("C", "H", 20);
+        assertEquals(7, all.getSize());
+        System.out.println("testKShortestPathsOnYenExample passed");
+    }
+
+    @Test
+    void testKShortestPathsMatchesAllSimplePaths() {
+        Random random = new Random(24);
+        SaxGraph<Integer> g = new SaxGraph<>();
+        for (int i = 0; i < 9; i++) g.addNode(i);
+        for (int i = 0; i < 30; i++) {
+            g.addEdge(random.nextInt(9), random.nextInt(9), 1 + random.nextInt(20));
+        }
+        g.addEdge(0, 1, 50); // parallel edges make different paths over the same nodes
+        g.addEdge(0, 1, 51);
+
+        // every loopless path from 0 to 8, by depth first enumeration
+        SaxList<Double> lengths = new SaxList<>();
+        enumerateSimplePaths(g, 0, 8, new boolean[9], 0.0, lengths);
+        lengths.sort(Double::compare);
+
+        for (int threads = 1; threads <= 4; threads += 3) {
+            SaxList<SaxGraph<Integer>.Path> paths = g.kShortestPaths(0, 8, 15, threads);
+            assertEquals(Math.min(15, lengths.getSize()), paths.getSize());
+            for (int i = 0; i < paths.getSize(); i++) {
+                SaxGraph<Integer>.Path path = paths.getElementAt(i);
+                assertEquals(lengths.getElementAt(i), path.distance(), 1e-9, "path " + i);
+                assertConnectedPath(0, 8, path);
+                SaxList<Integer> visited = new SaxList<>();
+                visited.addElement(0);
+                for (SaxGraph<Integer>.DirectedEdge edge : path.edges()) {
+                    assertFalse(visited.contains(edge.to()), "loop in " + path);
+                    visited.addElement(edge.to());
+                }
+            }
+        }
+        System.out.println("Expected: the " + Math.min(15, lengths.getSize()) + " shortest of " + lengths.getSize()
+                + " loopless paths | Actual: same lengths with 1 and 4 threads");
+        System.out.println("testKShortestPathsMatchesAllSimplePaths passed");
+    }
+
+    @Test
+    void testKShortestPathsSameWithThreads() {
+        // a ladder of 100 rungs: paths of about 100 edges, long enough for the spur searches to be spread
+        Random random = new Random(25);
+        SaxGraph<Integer> ladder = new SaxGraph<>();
+        for (int i = 1; i < 100; i++) {
+            ladder.addEdgeBidirectional(i - 1, i, 1 + random.nextDouble());
+            ladder.addEdgeBidirectional(-i, -i - 1, 1 + random.nextDouble());
+            ladder.addEdgeBidirectional(i, -i - 1, 1 + 3 * random.nextDouble());
+        }
+        ladder.addEdgeBidirectional(0, -1, 1);
+
+        SaxList<SaxGraph<Integer>.Path> sequential = ladder.kShortestPaths(0, 99, 10, 1);
+        SaxList<SaxGraph<Integer>.Path> parallel = ladder.kShortestPaths(0, 99, 10, 4);
+        System.out.println("Expected: " + sequential.getElementAt(9).distance() + " | Actual: "
+                + parallel.getElementAt(9).distance());
+        assertEquals(10, parallel.getSize());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(sequential.getElementAt(i).distance(), parallel.getElementAt(i).distance(), 1e-9);
+            assertConnectedPath(0, 99, parallel.getElementAt(i));
+            if (i > 0) assertTrue(parallel.getElementAt(i - 1).distance() <= parallel.getElementAt(i).distance());
+        }
+        System.out.println("testKShortestPathsSameWithThreads passed");
+    }
+
+    @Test
+    void testKShortestPathsSpecialCases() {
+        SaxGraph<String> g = createDijkstraExample();
+        g.addNode("z");
+        assertEquals(0, g.kShortestPaths("a", "z", 3).getSize());
+        assertEquals(0, g.kShortestPaths("a", "unknown", 3).getSize());
+
+        SaxList<SaxGraph<String>.Path> itself = g.kShortestPaths("a", "a", 3);
+        assertEquals(1, itself.getSize());
+        assertEquals(0.0, itself.getElementAt(0).distance());
+        assertEquals(0, itself.getElementAt(0).edges().getSize());
+
+        SaxList<SaxGraph<String>.Path> one = g.kShortestPaths("a", "f", 1);
+        assertEquals(1, one.getSize());
+        assertEquals(g.shortestPath("a", "f").distance(), one.getElementAt(0).distance());
+
+        assertThrows(IllegalArgumentException.class, () -> g.kShortestPaths(null, "a", 3));
+        assertThrows(IllegalArgumentException.class, () -> g.kShortestPaths("a", "f", 0));
+        assertThrows(IllegalArgumentException.class, () -> g.kShortestPaths("a", "f", 3, 0));
+        System.out.println("testKShortestPathsSpecialCases passed");
+    }
+
+    // Collect the lengths of all paths from node to end that do not visit a node twice
+    private static void enumerateSimplePaths(SaxGraph<Integer> g, int node, int end, boolean[] visited, double length,
+                                             SaxList<Double> lengths) {
+        if (node == end) {
+            lengths.addElement(length);
+            return;
+        }
+        visited[node] = true;
+        for (SaxGraph<Integer>.DirectedEdge edge : g.getEdges(node)) {
+            if (!visited[edge.to()]) enumerateSimplePaths(g, edge.to(), end, visited, length + edge.weight(), lengths);
+        }
+        visited[node] = false;
+    }
+
+    // The edges must lead from start to end and add up to the distance of the path
+    private static <T> void assertConnectedPath(T start, T end, SaxGraph<T>.Path path) {
+        T at = start;
+        double sum = 0;
+        for (SaxGraph<T>.DirectedEdge edge : path.edges()) {
+            assertEquals(at, edge.from());
+            at = edge.to();
+            sum += edge.weight();
+        }
+        assertEquals(end, at);
+        assertEquals(path.distance(), sum, 1e-9);
+    }
+}
@@ -4,6 +4,8 @@ import nl.saxion.cds.collection.*;
 import nl.saxion.cds.collection.exceptions.*;
 import org.junit.jupiter.api.*;
 
+import java.util.NoSuchElementException;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TestSaxGraphBasic {
@@ -204,6 +206,38 @@ public class TestSaxGraphBasic {
         System.out.println("testClearResetsGraph passed");
     }
 
+    @Test
+    void testIndexStaysConsistentWhenGraphGrows() {
+        SaxGraph<Integer> g = new SaxGraph<>();
+        for (int i = 0; i < 500; i++) {
+            g.addEdge(i, i + 1, 1);
+        }
+        int expected = 501;
+        int actual = g.getSize();
+        System.out.println("Expected size: " + expected + " | Actual: " + actual);
+        assertEquals(expected, actual);
+        for (int i = 0; i <= 500; i++) {
+            assertTrue(g.contains(i), "node " + i + " should be found");
+        }
+        assertEquals(1, g.getEdges(250).getSize());
+        assertEquals(251, g.getEdges(250).getElementAt(0).to());
+        assertThrows(IllegalArgumentException.class, () -> g.addNode(42));
+        System.out.println("testIndexStaysConsistentWhenGraphGrows passed");
+    }
+
+    @Test
+    void testClearResetsIndex() {
+        simpleTestGraph.clear();
+        boolean actual = simpleTestGraph.contains("A");
+        System.out.println("Expected contains('A') after clear: false | Actual: " + actual);
+        assertFalse(actual);
+        assertEquals(0, simpleTestGraph.getEdges("A").getSize());
+
+        simpleTestGraph.addNode("A");
+        assertTrue(simpleTestGraph.contains("A"));
+        System.out.println("testClearResetsIndex passed");
+    }
+
     @Test
     void testIteratorTraversesNodes() {
         int count = 0;
@@ -284,4 +318,63 @@ public class TestSaxGraphBasic {
         System.out.println("--- END GRAPHVIZ OUTPUT ---");
         System.out.println("testGraphVizRuns passed");
     }
+
+    @Test
+    void testGetEdgesIsReadOnlyLiveView() {
+        SaxIndexedCollection<SaxGraph<String>.DirectedEdge> edges = simpleTestGraph.getEdges("C");
+        int before = edges.getSize();
+        simpleTestGraph.addEdge("C", "Q", 7.5);
+        System.out.println("Expected edges after adding one: " + (before + 1) + " | Actual: " + edges.getSize());
+        assertEquals(before + 1, edges.getSize());
+
+        var last = edges.getLastElement();
+        assertEquals("C", last.from());
+        assertEquals("Q", last.to());
+        assertEquals(7.5, last.weight());
+        assertEquals(before, edges.getIndexOfElement(simpleTestGraph.new DirectedEdge("C", "Q", 7.5)));
+        assertFalse(edges.contains(simpleTestGraph.new DirectedEdge("C", "Q", 1.0)));
+
+        int count = 0;
+        for (var edge : edges) {
+            assertEquals(edges.getElementAt(count).to(), edge.to());
+            count++;
+        }
+        assertEquals(edges.getSize(), count);
+
+        assertThrows(UnsupportedOperationException.class, () -> edges.addElement(last));
+        assertThrows(UnsupportedOperationException.class, () -> edges.removeElementAt(0));
+        assertThrows(UnsupportedOperationException.class, edges::clear);
+        assertThrows(IndexOutOfBoundsException.class, () -> edges.getElementAt(edges.getSize()));
+        assertThrows(IndexOutOfBoundsException.class, () -> simpleTestGraph.getEdges("Q").getLastElement());
+        System.out.println("testGetEdgesIsReadOnlyLiveView passed");
+    }
+
+    @Test
+    void testGetEdgesViewGraphVizAndSorting() {
+        SaxGraph<String> g = new SaxGraph<>();
+        g.addEdge("A", "B", 1.0);
+        g.addEdge("A", "C", 2.0);
+        SaxIndexedCollection<SaxGraph<String>.DirectedEdge> edges = g.getEdges("A");
+
+        String dot = edges.graphViz("A");
+        System.out.println("Expected: both edges of A in the DOT output | Actual: " + dot);
+        assertTrue(dot.contains("\"A\" -> \"B\""));
+        assertTrue(dot.contains("\"A\" -> \"C\""));
+        assertTrue(edges.toString().contains("B"));
+
+        // ascending by weight until a lighter edge is added
+        assertTrue(edges.isSorted());
+        g.addEdge("A", "D", 0.5);
+        assertFalse(edges.isSorted());
+        assertThrows(UnsupportedOperationException.class, () -> edges.sort((a, b) -> a.compare(b)));
+        assertThrows(UnsupportedOperationException.class, () -> edges.setElementAt(edges.getElementAt(0), 0));
+
+        // the empty view of an unknown node behaves like an empty collection
+        SaxIndexedCollection<SaxGraph<String>.DirectedEdge> none = g.getEdges("Z");
+        assertEquals(0, none.getSize());
+        assertFalse(none.iterator().hasNext());
+        assertThrows(NoSuchElementException.class, () -> none.iterator().next());
+        assertEquals("digraph Z {\n}", none.graphViz("Z"));
+        System.out.println("testGetEdgesViewGraphVizAndSorting passed");
+    }
 }
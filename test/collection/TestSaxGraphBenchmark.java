@@ -0,0 +1,218 @@
+package collection;
+
+import nl.saxion.cds.application.CsvLoader;
+import nl.saxion.cds.application.Station;
+import nl.saxion.cds.collection.ContractionHierarchy;
+import nl.saxion.cds.collection.SaxCompactGraph;
+import nl.saxion.cds.collection.SaxGraph;
+import nl.saxion.cds.collection.SaxList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmarks on generated graphs far larger than the railway network, to show the algorithms scale.
+ */
+public class TestSaxGraphBenchmark {
+    private static final int MILLION = 1_000_000;
+
+    /**
+     * A line of a million nodes 0 - 1 - 2 - ... (both directions), with a short dead end after every 1000th node.
+     * A recursive depth first search would need a million nested calls here.
+     */
+    private static SaxGraph<Integer> createLine() {
+        SaxGraph<Integer> line = new SaxGraph<>();
+        for (int i = 1; i < MILLION; i++) {
+            line.addEdgeBidirectional(i - 1, i, 1.0);
+            if (i % 1000 == 0) line.addEdge(i, -i, 1.0);
+        }
+        return line;
+    }
+
+    @Test
+    void benchmarkDepthFirstOnMillionNodeLine() {
+        long start = System.currentTimeMillis();
+        SaxGraph<Integer> line = createLine();
+        long built = System.currentTimeMillis();
+        System.out.println("Built " + line.getSize() + " nodes in " + (built - start) + " ms");
+
+        SaxList<SaxGraph<Integer>.DirectedEdge> traversal = line.depthFirstTraversal(0);
+        long traversed = System.currentTimeMillis();
+        System.out.println("Expected traversal edges: " + (line.getSize() - 1) + " | Actual: " + traversal.getSize()
+                + " in " + (traversed - built) + " ms");
+        assertEquals(line.getSize() - 1, traversal.getSize());
+
+        SaxList<SaxGraph<Integer>.DirectedEdge> path = line.depthFirstSearch(0, MILLION - 1);
+        long searched = System.currentTimeMillis();
+        System.out.println("Expected path edges: " + (MILLION - 1) + " | Actual: " + path.getSize()
+                + " in " + (searched - traversed) + " ms");
+        assertEquals(MILLION - 1, path.getSize());
+        assertEquals(0, path.getElementAt(0).from());
+        assertEquals(MILLION - 1, path.getLastElement().to());
+
+        // the dead ends are entered and left again on the way
+        assertEquals(0, line.depthFirstSearch(0, -MILLION).getSize());
+        System.out.println("benchmarkDepthFirstOnMillionNodeLine passed");
+    }
+
+    /**
+     * A square grid of size * size nodes with edges of weight 1 to the four neighbours; node id = row * size + column.
+     */
+    private static SaxGraph<Integer> createGrid(int size) {
+        SaxGraph<Integer> grid = new SaxGraph<>();
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                int id = row * size + column;
+                if (column > 0) grid.addEdgeBidirectional(id - 1, id, 1.0);
+                if (row > 0) grid.addEdgeBidirectional(id - size, id, 1.0);
+            }
+        }
+        return grid;
+    }
+
+    @Test
+    void benchmarkBidirectionalDijkstraOnGrid() {
+        int size = 300;
+        SaxGraph<Integer> grid = createGrid(size);
+        int from = (size / 2) * size + size / 4;     // a point to point query through the middle of the grid
+        int to = (size / 2) * size + 3 * size / 4;
+
+        // warm up both searches before timing them
+        for (int i = 0; i < 3; i++) {
+            grid.shortestPath(from, to);
+            grid.shortestPathBidirectional(from, to);
+        }
+        long start = System.nanoTime();
+        SaxGraph<Integer>.Path oneSided = grid.shortestPath(from, to);
+        long middle = System.nanoTime();
+        SaxGraph<Integer>.Path twoSided = grid.shortestPathBidirectional(from, to);
+        long end = System.nanoTime();
+
+        System.out.printf("Grid %dx%d, distance %.0f: Dijkstra %.1f ms, bidirectional %.1f ms%n", size, size,
+                twoSided.distance(), (middle - start) / 1e6, (end - middle) / 1e6);
+        System.out.println("Expected distance: " + oneSided.distance() + " | Actual: " + twoSided.distance());
+        assertEquals(size / 2.0, oneSided.distance());
+        assertEquals(oneSided.distance(), twoSided.distance());
+        assertEquals(oneSided.edges().getSize(), twoSided.edges().getSize());
+        System.out.println("benchmarkBidirectionalDijkstraOnGrid passed");
+    }
+
+    /**
+     * The rail networks of two neighbouring countries: in each a square grid of hubs * hubs junctions, with
+     * stops stations on the line between two neighbouring junctions, joined by a border line every third row.
+     * Junction ids come first (the second country from hubs * hubs), then the stations. Weights are random
+     * between 1 and 2.
+     */
+    private static SaxGraph<Integer> createCountries(int hubs, int stops, Random random) {
+        SaxGraph<Integer> countries = new SaxGraph<>();
+        int next = 2 * hubs * hubs;
+        for (int country = 0; country < 2; country++) {
+            int first = country * hubs * hubs;
+            for (int row = 0; row < hubs; row++) {
+                for (int column = 0; column < hubs; column++) {
+                    int hub = first + row * hubs + column;
+                    if (column > 0) next = addLine(countries, hub - 1, hub, stops, next, random);
+                    if (row > 0) next = addLine(countries, hub - hubs, hub, stops, next, random);
+                }
+            }
+        }
+        for (int row = 0; row < hubs; row += 3) {
+            next = addLine(countries, row * hubs + hubs - 1, hubs * hubs + row * hubs, stops, next, random);
+        }
+        return countries;
+    }
+
+    // A two way line from one junction to another through new stations next, next + 1, ...; returns the next free id
+    private static int addLine(SaxGraph<Integer> graph, int from, int to, int stops, int next, Random random) {
+        int previous = from;
+        for (int i = 0; i < stops; i++) {
+            graph.addEdgeBidirectional(previous, next, 1 + random.nextDouble());
+            previous = next++;
+        }
+        graph.addEdgeBidirectional(previous, to, 1 + random.nextDouble());
+        return next;
+    }
+
+    @Test
+    void benchmarkContractionHierarchyOnCountries() {
+        Random random = new Random(22);
+        SaxCompactGraph<Integer> network = createCountries(15, 6, random).freeze();
+        ContractionHierarchy<Integer> hierarchy = network.contractionHierarchy();
+        System.out.println(hierarchy);
+
+        int queries = 500;
+        int[] from = new int[queries];
+        int[] to = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            from[i] = random.nextInt(network.getSize());
+            to[i] = random.nextInt(network.getSize());
+        }
+        // warm up both searches before timing them
+        for (int i = 0; i < queries; i++) {
+            network.shortestPath(from[i], to[i]);
+            hierarchy.shortestPath(from[i], to[i]);
+        }
+
+        double[] expected = new double[queries];
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            expected[i] = network.shortestPath(from[i], to[i]).distance();
+        }
+        long middle = System.nanoTime();
+        double[] actual = new double[queries];
+        for (int i = 0; i < queries; i++) {
+            actual[i] = hierarchy.shortestPath(from[i], to[i]).distance();
+        }
+        long end = System.nanoTime();
+
+        System.out.printf("%d nodes, %d edges: build %d ms, %d shortcuts; per query Dijkstra %.3f ms, hierarchy %.3f ms%n",
+                network.getSize(), network.getEdgeCount(), hierarchy.getBuildTimeMillis(), hierarchy.getShortcutCount(),
+                (middle - start) / 1e6 / queries, (end - middle) / 1e6 / queries);
+        for (int i = 0; i < queries; i++) {
+            assertEquals(expected[i], actual[i], 1e-9, from[i] + " -> " + to[i]);
+        }
+        System.out.println("benchmarkContractionHierarchyOnCountries passed");
+    }
+
+    @Test
+    void benchmarkKShortestPathsOnRailwayNetwork() {
+        SaxGraph<Station> railway = new SaxGraph<>();
+        CsvLoader loader = new CsvLoader();
+        loader.loadStations("stations.csv", new SaxList<>(), railway);
+        loader.loadTracks("tracks.csv", railway);
+
+        // pairs of stations spread over the network, each once as warm up and once timed
+        SaxList<Station> stations = new SaxList<>();
+        for (Station station : railway) stations.addElement(station);
+        Random random = new Random(24);
+        int pairs = 20;
+        Station[] from = new Station[pairs];
+        Station[] to = new Station[pairs];
+        for (int i = 0; i < pairs; i++) {
+            from[i] = stations.getElementAt(random.nextInt(stations.getSize()));
+            to[i] = stations.getElementAt(random.nextInt(stations.getSize()));
+        }
+        for (int i = 0; i < pairs; i++) railway.kShortestPaths(from[i], to[i], 10);
+
+        long slowest = 0;
+        long total = 0;
+        for (int i = 0; i < pairs; i++) {
+            long start = System.nanoTime();
+            SaxList<SaxGraph<Station>.Path> paths = railway.kShortestPaths(from[i], to[i], 10);
+            long time = System.nanoTime() - start;
+            total += time;
+            slowest = Math.max(slowest, time);
+
+            if (!from[i].equals(to[i])) assertEquals(10, paths.getSize(), from[i] + " -> " + to[i]);
+            assertEquals(railway.shortestPath(from[i], to[i]).distance(), paths.getElementAt(0).distance(), 1e-9);
+            for (int p = 1; p < paths.getSize(); p++) {
+                assertTrue(paths.getElementAt(p - 1).distance() <= paths.getElementAt(p).distance());
+            }
+        }
+        System.out.printf("%d stations, k = 10: %.2f ms per pair on average, slowest %.2f ms%n",
+                railway.getSize(), total / 1e6 / pairs, slowest / 1e6);
+        System.out.println("benchmarkKShortestPathsOnRailwayNetwork passed");
+    }
+}
@@ -193,4 +193,44 @@ public class TestSaxHashMap {
 
         assertTrue(dot.contains("digraph SaxHashMapExample"));
     }
+
+    @Test
+    void testPutOrReplaceAndGetOrDefault() {
+        assertNull(testMap.putOrReplace(66, "sixty-six"));
+        String replaced = testMap.putOrReplace(15, "FIFTEEN");
+        System.out.println("Expected replaced: 'fifteen' | Actual: '" + replaced + "'");
+        assertEquals("fifteen", replaced);
+        assertEquals("FIFTEEN", testMap.get(15));
+        assertEquals(8, testMap.getSize());
+
+        assertEquals("sixty-six", testMap.getOrDefault(66, "none"));
+        assertEquals("none", testMap.getOrDefault(99, "none"));
+        assertNull(testMap.getOrDefault(99, null));
+        System.out.println("testPutOrReplaceAndGetOrDefault passed");
+    }
+
+    @Test
+    void testComputeIfAbsentAndMerge() {
+        int[] calls = {0};
+        String created = testMap.computeIfAbsent(7, key -> {
+            calls[0]++;
+            return "seven-" + key;
+        });
+        String existing = testMap.computeIfAbsent(44, key -> {
+            calls[0]++;
+            return "never";
+        });
+        System.out.println("Expected: 'seven-7', 'forty-four', 1 call | Actual: '" + created + "', '" + existing + "', " + calls[0]);
+        assertEquals("seven-7", created);
+        assertEquals("forty-four", existing);
+        assertEquals(1, calls[0]);
+
+        SaxHashMap<String, Integer> counts = new SaxHashMap<>();
+        for (String word : new String[]{"a", "b", "a", "c", "a"}) counts.merge(word, 1, Integer::sum);
+        System.out.println("Expected count of 'a': 3 | Actual: " + counts.get("a"));
+        assertEquals(3, counts.get("a"));
+        assertEquals(1, counts.get("b"));
+        assertEquals(3, counts.getSize());
+        System.out.println("testComputeIfAbsentAndMerge passed");
+    }
 }
@@ -0,0 +1,130 @@
+package collection;
+
+import nl.saxion.cds.collection.SaxIndexedHeap;
+import nl.saxion.cds.collection.exceptions.ElementNotFoundException;
+import nl.saxion.cds.collection.exceptions.EmptyCollectionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSaxIndexedHeap {
+
+    private SaxIndexedHeap heap;
+
+    @BeforeEach
+    void createSampleHeap() {
+        heap = new SaxIndexedHeap(10);
+        double[] priorities = {13, 21, 16, 19, 31, 24, 68, 65, 26, 32};
+        for (int i = 0; i < priorities.length; i++) heap.push(i, priorities[i]);
+    }
+
+    @Test
+    void GivenSampleHeap_WhenEmptying_ConfirmCorrectSequenceOfIndices() {
+        System.out.println("\nIndexedHeap Pop Order Test");
+        System.out.println("Heap GraphViz:\n" + heap.graphViz("SaxIndexedHeap"));
+        int[] expected = {0, 2, 3, 1, 5, 8, 4, 9, 7, 6};
+
+        for (int exp : expected) {
+            int actual = heap.pop();
+            System.out.printf("Expected: %-3d | Actual: %-3d%n", exp, actual);
+            assertEquals(exp, actual);
+            assertFalse(heap.contains(actual));
+        }
+
+        System.out.println("Expected size after emptying: 0 | Actual: " + heap.getSize());
+        assertEquals(0, heap.getSize());
+        assertThrows(EmptyCollectionException.class, heap::pop);
+        assertThrows(EmptyCollectionException.class, heap::peek);
+    }
+
+    @Test
+    void testDecreaseKeyMovesIndexToFront() {
+        heap.decreaseKey(6, 1);
+        System.out.println("Expected peek: 6 | Actual: " + heap.peek());
+        assertEquals(6, heap.peek());
+        assertEquals(1.0, heap.peekPriority());
+        assertEquals(1.0, heap.getPriority(6));
+        System.out.println("testDecreaseKeyMovesIndexToFront passed");
+    }
+
+    @Test
+    void testDecreaseKeyRejectsHigherPriorityAndMissingIndex() {
+        System.out.println("Expected: IllegalArgumentException for a higher priority, ElementNotFoundException for a missing index");
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(0, 100));
+        heap.pop();
+        assertThrows(ElementNotFoundException.class, () -> heap.decreaseKey(0, 1));
+        assertThrows(ElementNotFoundException.class, () -> heap.getPriority(0));
+        System.out.println("testDecreaseKeyRejectsHigherPriorityAndMissingIndex passed");
+    }
+
+    @Test
+    void testUpdateIncreasesDecreasesAndInserts() {
+        heap.update(0, 100);
+        System.out.println("Expected peek after raising index 0: 2 | Actual: " + heap.peek());
+        assertEquals(2, heap.peek());
+
+        heap.update(7, 0.5);
+        System.out.println("Expected peek after lowering index 7: 7 | Actual: " + heap.peek());
+        assertEquals(7, heap.peek());
+
+        int last = -1;
+        double previous = Double.NEGATIVE_INFINITY;
+        while (heap.getSize() > 0) {
+            double priority = heap.peekPriority();
+            assertTrue(priority >= previous, "pop order must be ascending");
+            previous = priority;
+            last = heap.pop();
+        }
+        assertEquals(0, last);
+
+        heap.update(3, 7);
+        System.out.println("Expected: index 3 inserted by update | Actual contains: " + heap.contains(3));
+        assertTrue(heap.contains(3));
+        assertEquals(1, heap.getSize());
+        System.out.println("testUpdateIncreasesDecreasesAndInserts passed");
+    }
+
+    @Test
+    void testPushRejectsDuplicateAndOutOfRangeIndex() {
+        System.out.println("Expected: IllegalArgumentException for a duplicate, IndexOutOfBoundsException outside capacity");
+        assertThrows(IllegalArgumentException.class, () -> heap.push(3, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> heap.push(10, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> heap.push(-1, 1));
+        assertFalse(heap.contains(10));
+        assertFalse(heap.contains(-1));
+        assertEquals(10, heap.getCapacity());
+        System.out.println("testPushRejectsDuplicateAndOutOfRangeIndex passed");
+    }
+
+    @Test
+    void testClearEmptiesHeapAndAllowsReuse() {
+        heap.clear();
+        System.out.println("Expected size after clear: 0 | Actual: " + heap.getSize());
+        assertEquals(0, heap.getSize());
+        assertFalse(heap.contains(0));
+
+        heap.push(0, 3);
+        heap.push(1, 2);
+        assertEquals(1, heap.pop());
+        assertEquals(0, heap.pop());
+        System.out.println("testClearEmptiesHeapAndAllowsReuse passed");
+    }
+
+    @Test
+    void testIteratorAndToString() {
+        Iterator<Integer> it = heap.iterator();
+        int count = 0;
+        while (it.hasNext()) {
+            it.next();
+            count++;
+        }
+        System.out.println("Expected iterator count: 10 | Actual: " + count + " " + heap);
+        assertEquals(10, count);
+        assertThrows(IndexOutOfBoundsException.class, it::next);
+        assertTrue(heap.toString().startsWith("[0, "));
+        System.out.println("testIteratorAndToString passed");
+    }
+}
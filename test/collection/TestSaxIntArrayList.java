@@ -0,0 +1,61 @@
+package collection;
+
+import nl.saxion.cds.collection.SaxIntArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSaxIntArrayList {
+
+    @Test
+    void testAddGrowAndGet() {
+        SaxIntArrayList list = new SaxIntArrayList(2);
+        for (int i = 0; i < 100; i++) list.addElement(i * 3);
+        System.out.println("Expected size: 100 | Actual: " + list.getSize());
+        assertEquals(100, list.getSize());
+        assertEquals(0, list.getElementAt(0));
+        assertEquals(297, list.getElementAt(99));
+
+        list.setElementAt(-1, 50);
+        assertEquals(-1, list.getElementAt(50));
+        assertEquals(100, list.toArray().length);
+        assertEquals(-1, list.toArray()[50]);
+        System.out.println("testAddGrowAndGet passed");
+    }
+
+    @Test
+    void testRemoveLastAndClear() {
+        SaxIntArrayList list = new SaxIntArrayList();
+        list.addElement(4);
+        list.addElement(8);
+        System.out.println("Expected: [4, 8] | Actual: " + list);
+        assertEquals("[4, 8]", list.toString());
+        assertEquals(8, list.removeLastElement());
+        assertEquals(1, list.getSize());
+
+        list.clear();
+        assertEquals(0, list.getSize());
+        assertThrows(IndexOutOfBoundsException.class, list::removeLastElement);
+        System.out.println("testRemoveLastAndClear passed");
+    }
+
+    @Test
+    void testIndexChecksAndIterator() {
+        SaxIntArrayList list = new SaxIntArrayList(0);
+        list.addElement(1);
+        list.addElement(2);
+        System.out.println("Expected: IndexOutOfBoundsException outside 0..1");
+        assertThrows(IndexOutOfBoundsException.class, () -> list.getElementAt(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.getElementAt(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.setElementAt(0, 2));
+
+        Iterator<Integer> it = list.iterator();
+        assertEquals(1, it.next());
+        assertEquals(2, it.next());
+        assertFalse(it.hasNext());
+        assertThrows(IndexOutOfBoundsException.class, it::next);
+        System.out.println("testIndexChecksAndIterator passed");
+    }
+}
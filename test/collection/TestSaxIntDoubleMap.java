@@ -0,0 +1,53 @@
+package collection;
+
+import nl.saxion.cds.collection.SaxIntDoubleMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The map is the same as {@link nl.saxion.cds.collection.SaxIntIntMap} with double values, and TestSaxIntIntMap
+ * covers the shared behaviour. These tests only cover the special double values.
+ */
+public class TestSaxIntDoubleMap {
+
+    @Test
+    void testSpecialDoubleValues() {
+        SaxIntDoubleMap map = new SaxIntDoubleMap();
+        map.put(1, Double.NaN);
+        map.put(2, Double.POSITIVE_INFINITY);
+        map.put(3, Double.NEGATIVE_INFINITY);
+        map.put(4, -0.0);
+
+        System.out.println("Expected: NaN, Infinity, -Infinity, -0.0 | Actual: " + map.get(1) + ", " + map.get(2)
+                + ", " + map.get(3) + ", " + map.get(4));
+        assertTrue(Double.isNaN(map.get(1)));
+        assertEquals(Double.POSITIVE_INFINITY, map.get(2));
+        assertEquals(Double.NEGATIVE_INFINITY, map.get(3));
+        assertEquals(-0.0, map.get(4)); // assertEquals tells -0.0 and 0.0 apart
+        assertTrue(Double.isNaN(map.getOrDefault(1, 0.0)), "a stored NaN is a value, not a missing key");
+
+        // NaN values can be replaced and removed like any other value
+        map.putOrReplace(1, 7.0);
+        assertEquals(7.0, map.get(1));
+        map.putOrReplace(1, Double.NaN);
+        assertTrue(Double.isNaN(map.remove(1)));
+        assertFalse(map.containsKey(1));
+        System.out.println("testSpecialDoubleValues passed");
+    }
+
+    @Test
+    void testInfinityAsDistanceDefault() {
+        // the sparse searches read unknown distances as infinity and lower them with putOrReplace
+        SaxIntDoubleMap dist = new SaxIntDoubleMap();
+        assertEquals(Double.POSITIVE_INFINITY, dist.getOrDefault(5, Double.POSITIVE_INFINITY));
+        dist.putOrReplace(5, 12.5);
+        assertTrue(dist.getOrDefault(5, Double.POSITIVE_INFINITY) < Double.POSITIVE_INFINITY);
+        dist.putOrReplace(5, Double.POSITIVE_INFINITY);
+        System.out.println("Expected: a stored infinity counts as a key | Actual: " + dist.containsKey(5));
+        assertTrue(dist.containsKey(5));
+        assertEquals(Double.POSITIVE_INFINITY, dist.getOrDefault(5, 0.0));
+        assertEquals(Double.NEGATIVE_INFINITY, dist.getOrDefault(6, Double.NEGATIVE_INFINITY));
+        System.out.println("testInfinityAsDistanceDefault passed");
+    }
+}
@@ -0,0 +1,105 @@
+package collection;
+
+import nl.saxion.cds.collection.SaxIntIntMap;
+import nl.saxion.cds.collection.exceptions.DuplicateKeyException;
+import nl.saxion.cds.collection.exceptions.KeyNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSaxIntIntMap {
+
+    private SaxIntIntMap map;
+
+    @BeforeEach
+    void setup() {
+        map = new SaxIntIntMap();
+        map.put(3, 5);
+        map.put(-7, 15);
+        map.put(0, 25);
+    }
+
+    @Test
+    void testGetPutOrReplaceAndDefault() {
+        System.out.println("Expected: 15 | Actual: " + map.get(-7));
+        assertEquals(15, map.get(-7));
+        assertEquals(25, map.get(0));
+        assertTrue(map.containsKey(3));
+        assertFalse(map.containsKey(4));
+        assertEquals(-1, map.getOrDefault(4, -1));
+
+        map.putOrReplace(3, 90);
+        map.putOrReplace(4, 40);
+        assertEquals(90, map.get(3));
+        assertEquals(40, map.get(4));
+        assertEquals(4, map.getSize());
+        System.out.println("testGetPutOrReplaceAndDefault passed");
+    }
+
+    @Test
+    void testExceptions() {
+        System.out.println("Expected: DuplicateKeyException for 3, KeyNotFoundException for 99");
+        assertThrows(DuplicateKeyException.class, () -> map.put(3, 1));
+        assertThrows(KeyNotFoundException.class, () -> map.get(99));
+        assertThrows(KeyNotFoundException.class, () -> map.remove(99));
+        System.out.println("testExceptions passed");
+    }
+
+    @Test
+    void testGrowAndRemoveManyKeys() {
+        SaxIntIntMap large = new SaxIntIntMap(4);
+        for (int i = 0; i < 5000; i++) large.put(i * 16, -i);
+        for (int i = 0; i < 5000; i += 3) assertEquals(-i, large.remove(i * 16));
+        System.out.println("Expected size: 3333 | Actual: " + large.getSize() + ", capacity " + large.getCapacity());
+        assertEquals(3333, large.getSize());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i % 3 != 0, large.containsKey(i * 16));
+            if (i % 3 != 0) assertEquals(-i, large.get(i * 16));
+        }
+        System.out.println("testGrowAndRemoveManyKeys passed");
+    }
+
+    @Test
+    void testIteratorAndClear() {
+        Iterator<Integer> it = map.iterator();
+        int sum = 0;
+        while (it.hasNext()) sum += it.next();
+        System.out.println("Expected key sum: -4 | Actual: " + sum + " " + map);
+        assertEquals(-4, sum);
+        assertThrows(IndexOutOfBoundsException.class, it::next);
+
+        map.clear();
+        assertEquals(0, map.getSize());
+        assertFalse(map.containsKey(3));
+        map.put(3, 1);
+        assertEquals(1, map.get(3));
+        System.out.println("testIteratorAndClear passed");
+    }
+
+    @Test
+    void testSentinelLikeKeysAndValues() {
+        // every int is a valid key and value, including the ones other maps use to mark empty slots
+        SaxIntIntMap extremes = new SaxIntIntMap();
+        extremes.put(Integer.MIN_VALUE, -1);
+        extremes.put(Integer.MAX_VALUE, Integer.MIN_VALUE);
+        extremes.put(-1, 0);
+        extremes.put(0, -1);
+        System.out.println("Expected: -1 stored, not the default 42 | Actual: " + extremes.getOrDefault(Integer.MIN_VALUE, 42));
+        assertEquals(-1, extremes.getOrDefault(Integer.MIN_VALUE, 42));
+        assertEquals(Integer.MIN_VALUE, extremes.get(Integer.MAX_VALUE));
+        assertEquals(0, extremes.getOrDefault(-1, -1));
+        assertEquals(-1, extremes.get(0));
+
+        // a stored -1 and a missing key with default -1 look the same; containsKey tells them apart
+        assertEquals(-1, extremes.getOrDefault(1, -1));
+        assertFalse(extremes.containsKey(1));
+        assertTrue(extremes.containsKey(0));
+        assertEquals(-1, extremes.remove(Integer.MIN_VALUE));
+        assertFalse(extremes.containsKey(Integer.MIN_VALUE));
+        assertEquals(3, extremes.getSize());
+        System.out.println("testSentinelLikeKeysAndValues passed");
+    }
+}
@@ -6,7 +6,10 @@ import nl.saxion.cds.collection.exceptions.ElementNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -301,4 +304,149 @@ public class TestSaxList {
         System.out.println("Expected: ElementNotFoundException for null not in list");
         assertThrows(ElementNotFoundException.class, () -> l.getIndexOfElement(null));
     }
+
+    @Test
+    void testListIterator_WalksBothWays() {
+        ListIterator<String> cursor = list.listIterator();
+        assertFalse(cursor.hasPrevious());
+        assertEquals("B", cursor.next());
+        assertEquals("A", cursor.next());
+        assertEquals(2, cursor.nextIndex());
+        assertEquals(1, cursor.previousIndex());
+        assertEquals("C", cursor.next());
+        assertFalse(cursor.hasNext());
+        assertThrows(NoSuchElementException.class, cursor::next);
+
+        assertEquals("C", cursor.previous());
+        assertEquals("A", cursor.previous());
+        assertEquals("B", cursor.previous());
+        assertThrows(NoSuchElementException.class, cursor::previous);
+
+        ListIterator<String> fromEnd = list.listIterator(3);
+        System.out.println("Expected previous from end: C | Actual: " + fromEnd.previous());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.listIterator(4));
+        System.out.println("testListIterator_WalksBothWays passed");
+    }
+
+    @Test
+    void testListIterator_InsertRemoveAndSetAtCursor() {
+        ListIterator<String> cursor = list.listIterator();
+        cursor.next();              // B
+        cursor.add("X");            // B X | A C
+        assertEquals("A", cursor.next());
+        cursor.remove();            // B X | C
+        assertThrows(IllegalStateException.class, cursor::remove);
+        assertEquals("C", cursor.next());
+        cursor.set("Z");            // B X Z |
+        cursor.add("END");          // B X Z END |
+        assertEquals("END", cursor.previous());
+        assertEquals("Z", cursor.previous());
+        cursor.remove();            // B X | END, removed after previous
+        assertEquals("END", cursor.next());
+
+        System.out.println("Expected: [B, X, END] | Actual: " + list);
+        assertEquals("[B, X, END]", list.toString());
+        assertEquals(3, list.getSize());
+        assertEquals("B", list.getHeadForTest().value);
+        assertEquals("END", list.getTailForTest().value);
+        assertEquals("X", list.getTailForTest().prev.value);
+
+        // removing everything through the cursor leaves an empty list that can be refilled
+        ListIterator<String> all = list.listIterator();
+        while (all.hasNext()) {
+            all.next();
+            all.remove();
+        }
+        all.add("new");
+        assertEquals("[new]", list.toString());
+        assertEquals("new", list.getElementAt(0));
+        assertEquals("new", list.getLastElement());
+        System.out.println("testListIterator_InsertRemoveAndSetAtCursor passed");
+    }
+
+    @Test
+    void testIndexedAccess_CacheStaysConsistent() {
+        SaxList<Integer> numbers = new SaxList<>();
+        for (int i = 0; i < 100; i++) numbers.addElement(i);
+
+        // warm the cache in the middle, then change the list before and after it
+        assertEquals(50, numbers.getElementAt(50));
+        numbers.addElementAt(-1, 10);   // the cached node moves up
+        assertEquals(50, numbers.getElementAt(51));
+        assertEquals(49, numbers.getElementAt(50));
+        numbers.removeElementAt(0);     // and down again
+        assertEquals(50, numbers.getElementAt(50));
+        numbers.removeElementAt(50);    // the cached node itself
+        assertEquals(51, numbers.getElementAt(50));
+        numbers.addElementAt(-2, 95);   // behind the cache
+        assertEquals(51, numbers.getElementAt(50));
+        ListIterator<Integer> cursor = numbers.listIterator(50);
+        cursor.next();
+        cursor.remove();                // through the cursor, after the cache was used
+        assertEquals(52, numbers.getElementAt(50));
+
+        // sequential indexed access must see the same elements as the iterator
+        int index = 0;
+        for (int value : numbers) {
+            assertEquals(value, numbers.getElementAt(index++));
+        }
+        System.out.println("Expected size: 99 | Actual: " + numbers.getSize());
+        assertEquals(99, numbers.getSize());
+        System.out.println("testIndexedAccess_CacheStaysConsistent passed");
+    }
+
+    @Test
+    void testListIterator_FailsFastAfterOtherChanges() {
+        SaxList<Integer> numbers = new SaxList<>();
+        for (int i = 0; i < 5; i++) numbers.addElement(i);
+
+        ListIterator<Integer> cursor = numbers.listIterator();
+        cursor.next();
+        cursor.add(10);                 // changes through the cursor itself are fine
+        cursor.next();
+        cursor.remove();
+        assertEquals(2, cursor.next());
+
+        numbers.addElement(5);          // a change behind the cursor's back
+        assertThrows(ConcurrentModificationException.class, cursor::next);
+        assertThrows(ConcurrentModificationException.class, cursor::previous);
+        assertThrows(ConcurrentModificationException.class, cursor::remove);
+
+        ListIterator<Integer> other = numbers.listIterator(2);
+        numbers.removeElementAt(0);
+        assertThrows(ConcurrentModificationException.class, () -> other.set(7));
+        ListIterator<Integer> cleared = numbers.listIterator(1);
+        numbers.clear();
+        assertThrows(ConcurrentModificationException.class, () -> cleared.add(7));
+        System.out.println("testListIterator_FailsFastAfterOtherChanges passed");
+    }
+
+    @Test
+    void testIndexedAccess_ConcurrentReadersSeeTheRightElements() throws InterruptedException {
+        SaxList<Integer> numbers = new SaxList<>();
+        for (int i = 0; i < 2000; i++) numbers.addElement(i);
+
+        // every reader walks its own indices, so the shared cached node keeps being replaced by the others
+        boolean[] correct = new boolean[4];
+        Thread[] readers = new Thread[correct.length];
+        for (int r = 0; r < readers.length; r++) {
+            int reader = r;
+            readers[r] = new Thread(() -> {
+                boolean ok = true;
+                for (int round = 0; round < 20; round++) {
+                    for (int i = reader; i < numbers.getSize(); i += readers.length) {
+                        ok &= numbers.getElementAt(i) == i;
+                    }
+                }
+                correct[reader] = ok;
+            });
+            readers[r].start();
+        }
+        for (Thread reader : readers) reader.join();
+        for (int r = 0; r < correct.length; r++) {
+            System.out.println("Reader " + r + " expected: true | Actual: " + correct[r]);
+            assertTrue(correct[r]);
+        }
+        System.out.println("testIndexedAccess_ConcurrentReadersSeeTheRightElements passed");
+    }
 }
@@ -0,0 +1,184 @@
+package collection;
+
+import nl.saxion.cds.collection.SaxList;
+import nl.saxion.cds.collection.SaxOpenHashMap;
+import nl.saxion.cds.collection.exceptions.DuplicateKeyException;
+import nl.saxion.cds.collection.exceptions.KeyNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSaxOpenHashMap {
+
+    private SaxOpenHashMap<Integer, String> testMap;
+
+    /**
+     * Key with a chosen hash code, to force keys into the same probe sequence.
+     */
+    private record Key(String name, int hash) {
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        testMap = new SaxOpenHashMap<>(11);
+        testMap.put(44, "forty-four");
+        testMap.put(15, "fifteen");
+        testMap.put(28, "twenty-eight");
+        testMap.put(41, "forty-one");
+        testMap.put(19, "nineteen");
+        testMap.put(32, "thirty-two");
+        testMap.put(54, "fifty-four");
+    }
+
+    @Test
+    void testGetContainsAndRemove() {
+        System.out.println("Expected: 'fifteen' | Actual: '" + testMap.get(15) + "'");
+        assertEquals("fifteen", testMap.get(15));
+        assertTrue(testMap.containsKey(54));
+        assertFalse(testMap.containsKey(99));
+
+        assertEquals("fifteen", testMap.remove(15));
+        assertFalse(testMap.containsKey(15));
+        assertEquals(6, testMap.getSize());
+        for (int key : new int[]{44, 28, 41, 19, 32, 54}) assertTrue(testMap.containsKey(key));
+        System.out.println("testGetContainsAndRemove passed");
+    }
+
+    @Test
+    void testExceptionsMatchSaxHashMap() {
+        System.out.println("Expecting DuplicateKeyException for 44 and KeyNotFoundException for 99");
+        DuplicateKeyException duplicate = assertThrows(DuplicateKeyException.class, () -> testMap.put(44, "again"));
+        assertTrue(duplicate.getMessage().contains("44"));
+        KeyNotFoundException missing = assertThrows(KeyNotFoundException.class, () -> testMap.get(99));
+        assertTrue(missing.getMessage().contains("99"));
+        assertThrows(KeyNotFoundException.class, () -> testMap.remove(999));
+        System.out.println("testExceptionsMatchSaxHashMap passed");
+    }
+
+    @Test
+    void testGrowsWhenThreeQuartersFull() {
+        SaxOpenHashMap<Integer, Integer> map = new SaxOpenHashMap<>(4);
+        int initial = map.getCapacity();
+        for (int i = 0; i < 10_000; i++) map.put(i, i * i);
+        System.out.println("Capacity grew from " + initial + " to " + map.getCapacity());
+        assertTrue(map.getCapacity() > initial);
+        assertTrue(map.getSize() * 4 <= map.getCapacity() * 3);
+        assertEquals(10_000, map.getSize());
+        for (int i = 0; i < 10_000; i++) assertEquals(i * i, map.get(i));
+        System.out.println("testGrowsWhenThreeQuartersFull passed");
+    }
+
+    @Test
+    void testRemoveKeepsCollidingKeysReachable() {
+        SaxOpenHashMap<Key, String> map = new SaxOpenHashMap<>();
+        Key a = new Key("a", 7), b = new Key("b", 7), c = new Key("c", 7), d = new Key("d", 8);
+        map.put(a, "A");
+        map.put(b, "B");
+        map.put(d, "D");
+        map.put(c, "C");
+
+        assertEquals("A", map.remove(a));
+        System.out.println("After removing a: b=" + map.get(b) + " c=" + map.get(c) + " d=" + map.get(d));
+        assertEquals("B", map.get(b));
+        assertEquals("C", map.get(c));
+        assertEquals("D", map.get(d));
+        assertEquals("B", map.remove(b));
+        assertEquals("C", map.get(c));
+        assertEquals("D", map.get(d));
+        assertFalse(map.containsKey(a));
+        System.out.println("testRemoveKeepsCollidingKeysReachable passed");
+    }
+
+    @Test
+    void testHighBitHashesAreSpread() {
+        SaxOpenHashMap<Key, Integer> map = new SaxOpenHashMap<>();
+        for (int i = 0; i < 1000; i++) map.put(new Key("k" + i, i << 20), i);
+        for (int i = 0; i < 1000; i += 2) map.remove(new Key("k" + i, i << 20));
+        System.out.println("Expected size: 500 | Actual: " + map.getSize());
+        assertEquals(500, map.getSize());
+        for (int i = 1; i < 1000; i += 2) assertEquals(i, map.get(new Key("k" + i, i << 20)));
+        System.out.println("testHighBitHashesAreSpread passed");
+    }
+
+    @Test
+    void testKeysIteratorAndClear() {
+        SaxList<Integer> keys = testMap.getKeys();
+        System.out.println("Keys: " + keys + " | Values: " + testMap);
+        assertEquals(7, keys.getSize());
+        assertTrue(keys.toString().contains("44"));
+
+        Iterator<String> it = testMap.iterator();
+        int count = 0;
+        while (it.hasNext()) {
+            assertNotNull(it.next());
+            count++;
+        }
+        assertEquals(7, count);
+        assertThrows(IndexOutOfBoundsException.class, it::next);
+
+        testMap.clear();
+        assertEquals(0, testMap.getSize());
+        assertFalse(testMap.containsKey(44));
+        assertFalse(testMap.iterator().hasNext());
+        testMap.put(44, "back");
+        assertEquals("back", testMap.get(44));
+        System.out.println("testKeysIteratorAndClear passed");
+    }
+
+    @Test
+    void testDefaultAndInvalidCapacity() {
+        SaxOpenHashMap<Integer, String> map = new SaxOpenHashMap<>(0);
+        map.put(1, "one");
+        assertEquals("one", map.get(1));
+        assertEquals(new SaxOpenHashMap<Integer, String>().getCapacity(), map.getCapacity());
+        System.out.println("GraphViz:\n" + map.graphViz("SaxOpenHashMap"));
+        System.out.println("testDefaultAndInvalidCapacity passed");
+    }
+
+    @Test
+    void testPutOrReplaceAndGetOrDefault() {
+        assertNull(testMap.putOrReplace(66, "sixty-six"));
+        String replaced = testMap.putOrReplace(15, "FIFTEEN");
+        System.out.println("Expected replaced: 'fifteen' | Actual: '" + replaced + "'");
+        assertEquals("fifteen", replaced);
+        assertEquals("FIFTEEN", testMap.get(15));
+        assertEquals(8, testMap.getSize());
+
+        assertEquals("sixty-six", testMap.getOrDefault(66, "none"));
+        assertEquals("none", testMap.getOrDefault(99, "none"));
+        assertNull(testMap.getOrDefault(99, null));
+        System.out.println("testPutOrReplaceAndGetOrDefault passed");
+    }
+
+    @Test
+    void testComputeIfAbsentAndMerge() {
+        int[] calls = {0};
+        String created = testMap.computeIfAbsent(7, key -> {
+            calls[0]++;
+            return "seven-" + key;
+        });
+        String existing = testMap.computeIfAbsent(44, key -> {
+            calls[0]++;
+            return "never";
+        });
+        System.out.println("Expected: 'seven-7', 'forty-four', 1 call | Actual: '" + created + "', '" + existing + "', " + calls[0]);
+        assertEquals("seven-7", created);
+        assertEquals("forty-four", existing);
+        assertEquals(1, calls[0]);
+
+        SaxOpenHashMap<String, Integer> counts = new SaxOpenHashMap<>();
+        for (String word : new String[]{"a", "b", "a", "c", "a"}) counts.merge(word, 1, Integer::sum);
+        System.out.println("Expected count of 'a': 3 | Actual: " + counts.get("a"));
+        assertEquals(3, counts.get("a"));
+        assertEquals(1, counts.get("b"));
+        assertEquals(3, counts.getSize());
+        System.out.println("testComputeIfAbsentAndMerge passed");
+    }
+}
@@ -181,4 +181,41 @@ class TestSaxQueue {
         assertEquals(0, queue.getSize());
         assertEquals("[]", queue.toString());
     }
+
+    @Test
+    void testWrapAroundAndGrowth() throws EmptyCollectionException {
+        SaxQueue<Integer> ring = new SaxQueue<>(5);
+        System.out.println("[WrapAround] Expected capacity: 8 | Actual: " + ring.getCapacity());
+        assertEquals(8, ring.getCapacity());
+
+        // move the front to the middle of the array, so the next pushes wrap around
+        for (int i = 0; i < 6; i++) ring.push(i);
+        for (int i = 0; i < 6; i++) assertEquals(i, ring.pop());
+        for (int i = 0; i < 8; i++) ring.push(i);
+        assertEquals(8, ring.getCapacity());
+        assertEquals("[0, 1, 2, 3, 4, 5, 6, 7]", ring.toString());
+
+        // growing while wrapped must keep the order
+        ring.push(8);
+        System.out.println("[WrapAround] After growing: " + ring + " capacity " + ring.getCapacity());
+        assertEquals(16, ring.getCapacity());
+        assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8]", ring.toString());
+        for (int i = 0; i <= 8; i++) assertEquals(i, ring.pop());
+        assertEquals(0, ring.getSize());
+    }
+
+    @Test
+    void testManyElementsInterleaved() throws EmptyCollectionException {
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 1000; round++) {
+            queue.push(next++);
+            queue.push(next++);
+            assertEquals(expected++, queue.pop());
+        }
+        System.out.println("[Interleaved] Expected size: 1000 | Actual: " + queue.getSize());
+        assertEquals(1000, queue.getSize());
+        for (int value : queue) assertEquals(expected++, value);
+        assertEquals(next, expected);
+    }
 }
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -120,4 +121,37 @@ public class TestSaxStack {
         assertEquals(99, test.peek(), "Expected top 99 after new push");
         assertEquals(2, test.getSize(), "Expected stack size 2 after sequence");
     }
+
+    @Test
+    void testGrowth_KeepsOrder() {
+        System.out.println("\nSaxStack Growth Test");
+        SaxStack<Integer> big = new SaxStack<>(2);
+        for (int i = 0; i < 1000; i++) big.push(i);
+        System.out.println("Expected size: 1000 | Actual: " + big.getSize() + ", capacity " + big.getCapacity());
+        assertEquals(1000, big.getSize());
+        assertTrue(big.getCapacity() >= 1000);
+
+        // iteration goes from top to bottom
+        int expected = 999;
+        for (int value : big) assertEquals(expected--, value);
+        assertEquals(-1, expected);
+
+        for (int i = 999; i >= 0; i--) assertEquals(i, big.pop());
+        assertEquals(0, big.getSize());
+        assertThrows(EmptyCollectionException.class, big::pop);
+        System.out.println("testGrowth_KeepsOrder passed");
+    }
+
+    @Test
+    void testToStringAndIteratorEnd() {
+        System.out.println("\nSaxStack ToString Test");
+        System.out.println("Expected: [30, 20, 10] | Actual: " + stack);
+        assertEquals("[30, 20, 10]", stack.toString());
+        assertEquals("[]", new SaxStack<Integer>(0).toString());
+
+        Iterator<Integer> it = stack.iterator();
+        while (it.hasNext()) it.next();
+        assertThrows(NoSuchElementException.class, it::next);
+        System.out.println("testToStringAndIteratorEnd passed");
+    }
 }
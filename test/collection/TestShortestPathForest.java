@@ -0,0 +1,133 @@
+package collection;
+
+import nl.saxion.cds.collection.SaxGraph;
+import nl.saxion.cds.collection.SaxList;
+import nl.saxion.cds.collection.ShortestPathForest;
+import nl.saxion.cds.collection.ShortestPathTree;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestShortestPathForest {
+    private SaxGraph<String> dijkstraGraph;
+    private ShortestPathForest<String> forest;
+
+    /**
+     * The Dijkstra example graph from the Graph algorithms sheets, searched from "a" and "f".
+     */
+    @BeforeEach
+    void createForest() {
+        dijkstraGraph = TestSaxGraphAdvanced.createDijkstraExample();
+        SaxList<String> sources = new SaxList<>();
+        sources.addElement("a");
+        sources.addElement("f");
+        forest = dijkstraGraph.shortestPathForest(sources);
+    }
+
+    @Test
+    void testNearestSources() {
+        // from a: b 1, c 3, d 4, g 5, e 7; from f: g 5, e 7
+        String[] nodes = {"a", "b", "c", "d", "e", "f", "g"};
+        String[] nearest = {"a", "a", "a", "a", "a", "f", "a"};
+        double[] distances = {0, 1, 3, 4, 7, 0, 5};
+        for (int i = 0; i < nodes.length; i++) {
+            System.out.println("Node " + nodes[i] + " expected: " + nearest[i] + " at " + distances[i] + " | Actual: "
+                    + forest.nearestSourceOf(nodes[i]) + " at " + forest.distanceTo(nodes[i]));
+            assertEquals(distances[i], forest.distanceTo(nodes[i]), 0.0001);
+            assertTrue(forest.hasPathTo(nodes[i]));
+        }
+        // e and g are as far from a as from f; only the distance is certain there
+        assertEquals("a", forest.nearestSourceOf("b"));
+        assertEquals("a", forest.nearestSourceOf("d"));
+        assertEquals("f", forest.nearestSourceOf("f"));
+        System.out.println("testNearestSources passed");
+    }
+
+    @Test
+    void testPathStartsAtNearestSource() {
+        SaxList<String> sources = new SaxList<>();
+        sources.addElement("c");
+        sources.addElement("f");
+        sources.addElement("f"); // duplicates are ignored
+        ShortestPathForest<String> other = dijkstraGraph.shortestPathForest(sources);
+
+        SaxList<SaxGraph<String>.DirectedEdge> path = other.pathTo("e");
+        double length = 0;
+        for (var edge : path) length += edge.weight();
+        System.out.println("Expected: path from c of length 5.0 | Actual: " + path + " of length " + length);
+        assertEquals(5.0, length, 0.0001);
+        assertEquals("c", other.nearestSourceOf("e"));
+        assertEquals("c", path.getElementAt(0).from());
+        assertEquals("e", path.getLastElement().to());
+        for (int i = 1; i < path.getSize(); i++) {
+            assertEquals(path.getElementAt(i - 1).to(), path.getElementAt(i).from());
+        }
+        assertEquals(0, other.pathTo("f").getSize());
+        System.out.println("testPathStartsAtNearestSource passed");
+    }
+
+    @Test
+    void testEqualsMinimumOverSingleSourceTrees() {
+        Random random = new Random(23);
+        SaxGraph<Integer> graph = new SaxGraph<>();
+        for (int i = 0; i < 200; i++) {
+            graph.addEdge(random.nextInt(150), random.nextInt(150), 1 + 9 * random.nextDouble());
+        }
+        SaxList<Integer> sources = new SaxList<>();
+        for (int i = 0; i < 150; i += 17) {
+            if (graph.contains(i)) sources.addElement(i);
+        }
+        ShortestPathForest<Integer> multi = graph.shortestPathForest(sources);
+
+        int checked = 0;
+        for (Integer node : graph) {
+            double best = Double.POSITIVE_INFINITY;
+            Integer bestSource = null;
+            for (Integer source : sources) {
+                double distance = graph.shortestPathTree(source).distanceTo(node);
+                if (distance < best) {
+                    best = distance;
+                    bestSource = source;
+                }
+            }
+            assertEquals(best, multi.distanceTo(node), 1e-9, "node " + node);
+            if (bestSource != null) {
+                ShortestPathTree<Integer> tree = graph.shortestPathTree(multi.nearestSourceOf(node));
+                assertEquals(best, tree.distanceTo(node), 1e-9, "node " + node);
+                checked++;
+            } else {
+                assertNull(multi.nearestSourceOf(node));
+            }
+        }
+        System.out.println("Expected: the distance to the nearest of " + sources.getSize() + " sources | Actual: "
+                + checked + " reachable nodes checked");
+        System.out.println("testEqualsMinimumOverSingleSourceTrees passed");
+    }
+
+    @Test
+    void testUnreachableUnknownAndInvalid() {
+        dijkstraGraph.addNode("z");
+        SaxList<String> sources = new SaxList<>();
+        sources.addElement("a");
+        ShortestPathForest<String> withIsland = dijkstraGraph.shortestPathForest(sources);
+        System.out.println("Expected: 'z' unreachable | Actual distance: " + withIsland.distanceTo("z"));
+        assertFalse(withIsland.hasPathTo("z"));
+        assertNull(withIsland.nearestSourceOf("z"));
+        assertEquals(0, withIsland.pathTo("z").getSize());
+        assertNull(withIsland.nearestSourceOf("unknown"));
+        assertFalse(forest.hasPathTo("z")); // added after the forest was computed
+
+        // no sources: nothing can be reached
+        ShortestPathForest<String> empty = dijkstraGraph.shortestPathForest(new SaxList<>());
+        assertFalse(empty.hasPathTo("a"));
+
+        SaxList<String> unknown = new SaxList<>();
+        unknown.addElement("unknown");
+        assertThrows(IllegalArgumentException.class, () -> dijkstraGraph.shortestPathForest(null));
+        assertThrows(IllegalArgumentException.class, () -> dijkstraGraph.shortestPathForest(unknown));
+        System.out.println("testUnreachableUnknownAndInvalid passed");
+    }
+}
@@ -0,0 +1,76 @@
+package collection;
+
+import nl.saxion.cds.collection.SaxGraph;
+import nl.saxion.cds.collection.SaxList;
+import nl.saxion.cds.collection.ShortestPathTree;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestShortestPathTree {
+    private SaxGraph<String> dijkstraGraph;
+    private ShortestPathTree<String> tree;
+
+    /**
+     * The Dijkstra example graph from the Graph algorithms sheets, searched from "a".
+     */
+    @BeforeEach
+    void createTree() {
+        dijkstraGraph = TestSaxGraphAdvanced.createDijkstraExample();
+        tree = dijkstraGraph.shortestPathTree("a");
+    }
+
+    @Test
+    void testDistancesMatchShortestPath() {
+        for (String node : dijkstraGraph) {
+            double expected = dijkstraGraph.shortestPath("a", node).distance();
+            System.out.println("Node " + node + " expected: " + expected + " | Actual: " + tree.distanceTo(node));
+            assertEquals(expected, tree.distanceTo(node), 0.0001);
+            assertTrue(tree.hasPathTo(node));
+        }
+        assertEquals("a", tree.getSource());
+        assertEquals(0.0, tree.distanceTo("a"));
+        System.out.println("testDistancesMatchShortestPath passed");
+    }
+
+    @Test
+    void testPathToFollowsPredecessors() {
+        SaxList<SaxGraph<String>.DirectedEdge> path = tree.pathTo("f");
+        double length = 0;
+        for (var edge : path) length += edge.weight();
+        System.out.println("Expected length: 10.0 | Actual: " + length + " via " + path);
+        assertEquals(10.0, length, 0.0001);
+        assertEquals("a", path.getElementAt(0).from());
+        assertEquals("f", path.getLastElement().to());
+        for (int i = 1; i < path.getSize(); i++) {
+            assertEquals(path.getElementAt(i - 1).to(), path.getElementAt(i).from());
+        }
+        assertEquals(0, tree.pathTo("a").getSize());
+        System.out.println("testPathToFollowsPredecessors passed");
+    }
+
+    @Test
+    void testUnreachableAndUnknownNodes() {
+        dijkstraGraph.addNode("z");
+        ShortestPathTree<String> withIsland = dijkstraGraph.shortestPathTree("a");
+        System.out.println("Expected: 'z' unreachable | Actual distance: " + withIsland.distanceTo("z"));
+        assertFalse(withIsland.hasPathTo("z"));
+        assertEquals(Double.POSITIVE_INFINITY, withIsland.distanceTo("z"));
+        assertEquals(0, withIsland.pathTo("z").getSize());
+
+        // unknown to the graph, or added after the tree was computed
+        assertFalse(withIsland.hasPathTo("unknown"));
+        assertEquals(0, withIsland.pathTo("unknown").getSize());
+        assertFalse(tree.hasPathTo("z"));
+        System.out.println("testUnreachableAndUnknownNodes passed");
+    }
+
+    @Test
+    void testThrowsOnUnknownOrNullSource() {
+        System.out.println("Expected: IllegalArgumentException for null and unknown sources");
+        assertThrows(IllegalArgumentException.class, () -> dijkstraGraph.shortestPathTree(null));
+        assertThrows(IllegalArgumentException.class, () -> dijkstraGraph.shortestPathTree("unknown"));
+        System.out.println("testThrowsOnUnknownOrNullSource passed");
+    }
+}